@@ -0,0 +1,66 @@
+package pl.kmolski.hangman.config;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The databases that can store the game saves, selected with the `hangman.db.backend` property.
+ *
+ * MariaDB is the database server of the production deployments, its schema is validated at startup.
+ * H2 is an embedded database that stores its data in a local file, so the application can be run
+ * (and load tested) without a database server. Its schema is created or updated at startup.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public enum DatabaseBackend {
+    MARIADB("org.mariadb.jdbc.Driver", "org.hibernate.dialect.MariaDBDialect", "validate",
+            "jdbc:mariadb://localhost:3306/hangman?rewriteBatchedStatements=true"),
+    H2("org.h2.Driver", "org.hibernate.dialect.H2Dialect", "update",
+       "jdbc:h2:file:" + Path.of(System.getProperty("java.io.tmpdir"), "hangman-db", "hangman")
+       + ";DB_CLOSE_ON_EXIT=FALSE");
+
+    private final String driverClassName;
+    private final String dialect;
+    private final String schemaAction;
+    private final String defaultUrl;
+
+    DatabaseBackend(String driverClassName, String dialect, String schemaAction, String defaultUrl) {
+        this.driverClassName = driverClassName;
+        this.dialect = dialect;
+        this.schemaAction = schemaAction;
+        this.defaultUrl = defaultUrl;
+    }
+
+    /**
+     * Get the backend with the given name.
+     * @param name The name of the backend, e.g. "mariadb" or "h2" (case-insensitive).
+     * @return The backend.
+     * @throws IllegalArgumentException Thrown if there is no backend with that name.
+     */
+    public static DatabaseBackend of(String name) {
+        for (var backend : values()) {
+            if (backend.name().equals(name.toUpperCase(Locale.ROOT))) { return backend; }
+        }
+        throw new IllegalArgumentException("unknown database backend: " + name);
+    }
+
+    /**
+     * Get the URL of the database, if the `hangman.db.url` property is empty.
+     * @return The default JDBC URL.
+     */
+    public String getDefaultUrl() {
+        return defaultUrl;
+    }
+
+    /**
+     * Get the value of the `hibernate.hbm2ddl.auto` property for this backend.
+     * @return "validate" or "update".
+     */
+    public String getSchemaAction() {
+        return schemaAction;
+    }
+
+    public String getDriverClassName() { return driverClassName; }
+    public String getDialect() { return dialect; }
+}
@@ -1,20 +1,32 @@
 package pl.kmolski.hangman.config;
 
 import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
+import pl.kmolski.hangman.controller.SessionGameListener;
 
 import javax.servlet.Filter;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 
 /**
  * Dispatcher configuration for hangman.
  *
- * This class configures servlet routing and character encoding for the HTML forms.
+ * This class configures servlet routing, character encoding for the HTML forms,
+ * the rewriting of static resource links to their content-hashed URLs
+ * and the listener that counts the sessions with a game in progress.
  *
  * @author Krzysztof Molski
- * @version 1.0
+ * @version 1.1
  */
 public class DispatcherInit extends AbstractAnnotationConfigDispatcherServletInitializer {
 
+	@Override
+	public void onStartup(ServletContext servletContext) throws ServletException {
+		super.onStartup(servletContext);
+		servletContext.addListener(SessionGameListener.class);
+	}
+
 	@Override
 	protected Class<?>[] getRootConfigClasses() {
 		return null;
@@ -34,6 +46,6 @@ public class DispatcherInit extends AbstractAnnotationConfigDispatcherServletIni
 	protected Filter[] getServletFilters() {
 		var encodingFilter = new CharacterEncodingFilter();
 		encodingFilter.setEncoding("UTF-8");
-		return new Filter[] { encodingFilter };
+		return new Filter[] { encodingFilter, new ResourceUrlEncodingFilter() };
 	}
 }
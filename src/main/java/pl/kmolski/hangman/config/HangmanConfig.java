@@ -1,56 +1,216 @@
 package pl.kmolski.hangman.config;
 
-import org.apache.tomcat.dbcp.dbcp2.BasicDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.orm.hibernate5.*;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.servlet.config.annotation.*;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring5.view.ThymeleafViewResolver;
 import org.thymeleaf.templatemode.TemplateMode;
+import pl.kmolski.hangman.controller.ManagementEndpointInterceptor;
+import pl.kmolski.hangman.controller.RequestMetricsInterceptor;
+import pl.kmolski.hangman.controller.StaticResourceCacheInterceptor;
+import pl.kmolski.hangman.repo.WordPoolRepository;
+import pl.kmolski.hangman.service.FileGameStateStore;
+import pl.kmolski.hangman.service.GameStateStore;
+import pl.kmolski.hangman.service.InMemoryGameStateStore;
 
-import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Properties;
 
 /**
  * Spring Web configuration for hangman.
  *
- * This class configures Hibernate data sources, transaction manager,
- * the Thymeleaf template engine and multipart file support.
+ * This class configures the database (MariaDB or embedded H2) and its connection pool, Hibernate,
+ * transaction manager, second-level cache,
+ * the game state store, the Thymeleaf template engine, multipart file support, the executor
+ * of asynchronous requests and the metrics registry. The management endpoints are served only if they are enabled.
+ * The methods annotated with `@Timed` are timed by an aspect. The static resources are served with content-hashed URLs.
+ * The parsed templates are cached and their expressions are compiled, unless disabled for template development.
+ * The application properties are read from `hangman.properties`.
  *
  * @author Krzysztof Molski
- * @version 1.0
+ * @version 1.5
  */
 @Configuration
 @EnableWebMvc
 @EnableTransactionManagement
+@EnableAspectJAutoProxy(proxyTargetClass=true)
 @ComponentScan(basePackages="pl.kmolski.hangman")
+@PropertySource("classpath:hangman.properties")
 public class HangmanConfig implements WebMvcConfigurer {
+    /**
+     * The number of statements that are sent to the database in a single JDBC batch.
+     */
+    public static final int JDBC_BATCH_SIZE = 100;
+
+    /**
+     * Whether the management endpoints (the metrics and the cache statistics) are served.
+     */
+    @Value("${hangman.management.enabled:false}")
+    private boolean managementEnabled = false;
+    /**
+     * Whether asynchronous requests are run on virtual threads, if they are available.
+     */
+    @Value("${hangman.async.virtualThreads:true}")
+    private boolean asyncVirtualThreads;
+    /**
+     * The number of threads that run asynchronous requests, if virtual threads are not used.
+     */
+    @Value("${hangman.async.poolSize:64}")
+    private int asyncPoolSize;
+    /**
+     * The timeout of asynchronous requests, in milliseconds.
+     */
+    @Value("${hangman.async.timeoutMs:30000}")
+    private long asyncTimeoutMs;
+    /**
+     * Whether the parsed templates and the resolved views are cached.
+     */
+    @Value("${hangman.templates.cacheable:true}")
+    private boolean templatesCacheable = true;
+    /**
+     * Time after which a cached template is parsed again, in milliseconds, or 0 if it never expires.
+     */
+    @Value("${hangman.templates.cacheTtlMs:0}")
+    private long templatesCacheTtlMs = 0;
+    /**
+     * Whether the Spring EL expressions of the templates are compiled into bytecode.
+     */
+    @Value("${hangman.templates.springElCompiler:true}")
+    private boolean templatesSpringElCompiler = true;
+
+    /**
+     * The database that stores the game saves, "mariadb" or "h2" (see DatabaseBackend).
+     */
+    @Value("${hangman.db.backend:mariadb}")
+    private String dbBackend = "mariadb";
+    /**
+     * JDBC URL and credentials of the database. If the URL is empty, the default URL of the backend is used.
+     */
+    @Value("${hangman.db.url:}")
+    private String dbUrl = "";
+    @Value("${hangman.db.username:hangman}")
+    private String dbUsername = "hangman";
+    @Value("${hangman.db.password:hangman}")
+    private String dbPassword = "hangman";
+    /**
+     * Whether the SQL statements are logged, and formatted for readability.
+     */
+    @Value("${hangman.db.showSql:false}")
+    private boolean dbShowSql = false;
+    @Value("${hangman.db.formatSql:false}")
+    private boolean dbFormatSql = false;
+    /**
+     * The minimum and maximum numbers of idle connections, and the maximum number of connections.
+     */
+    @Value("${hangman.db.pool.minIdle:4}")
+    private int dbPoolMinIdle = 4;
+    @Value("${hangman.db.pool.maxIdle:16}")
+    private int dbPoolMaxIdle = 16;
+    @Value("${hangman.db.pool.maxTotal:32}")
+    private int dbPoolMaxTotal = 32;
+    /**
+     * The maximum time of waiting for a connection, in milliseconds.
+     */
+    @Value("${hangman.db.pool.maxWaitMs:5000}")
+    private long dbPoolMaxWaitMs = 5000;
+    /**
+     * Timeout of the validation of a borrowed connection, in seconds.
+     */
+    @Value("${hangman.db.pool.validationTimeoutSeconds:5}")
+    private int dbPoolValidationTimeoutSeconds = 5;
+    /**
+     * Interval between the evictions of idle connections, in milliseconds.
+     */
+    @Value("${hangman.db.pool.evictionIntervalMs:30000}")
+    private long dbPoolEvictionIntervalMs = 30000;
+    /**
+     * The maximum number of pooled prepared statements per connection, or 0 if they are not pooled.
+     */
+    @Value("${hangman.db.pool.maxPreparedStatements:100}")
+    private int dbPoolMaxPreparedStatements = 100;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(requestExecutor());
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry()));
+        registry.addInterceptor(new StaticResourceCacheInterceptor());
+        registry.addInterceptor(new ManagementEndpointInterceptor(managementEnabled))
+                .addPathPatterns(ManagementEndpointInterceptor.PATHS);
+    }
+
+    /**
+     * Serve the static pages and images. The URLs of the resources can contain a content hash
+     * (see StaticResourceCacheInterceptor), the resolved URLs are cached.
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/**").addResourceLocations("/static/");
+        var versionResolver = new VersionResourceResolver().addContentVersionStrategy("/**");
+        registry.addResourceHandler("/*.html").addResourceLocations("/static/")
+                .resourceChain(true).addResolver(versionResolver);
+        registry.addResourceHandler("/images/**").addResourceLocations("/static/images/")
+                .resourceChain(true).addResolver(versionResolver);
     }
 
     public final Properties hibernateProperties() {
         var properties = new Properties();
-        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MariaDBDialect");
-        properties.setProperty("hibernate.show_sql", "true");
-        properties.setProperty("hibernate.format_sql", "true");
-        properties.setProperty("hibernate.hbm2ddl.auto", "validate");
+        var backend = DatabaseBackend.of(dbBackend);
+        properties.setProperty("hibernate.dialect", backend.getDialect());
+        properties.setProperty("hibernate.show_sql", Boolean.toString(dbShowSql));
+        properties.setProperty("hibernate.format_sql", Boolean.toString(dbFormatSql));
+        properties.setProperty("hibernate.hbm2ddl.auto", backend.getSchemaAction());
+        properties.setProperty("hibernate.jdbc.batch_size", Integer.toString(JDBC_BATCH_SIZE));
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.setProperty("hibernate.generate_statistics", "true");
         return properties;
     }
 
     @Bean
-    public DataSource dataSource() {
-        var dataSource = new BasicDataSource();
-        dataSource.setDriverClassName("org.mariadb.jdbc.Driver");
-        dataSource.setUrl("jdbc:mariadb://localhost:3306/hangman");
-        dataSource.setUsername("hangman");
-        dataSource.setPassword("hangman");
+    public MonitoredDataSource dataSource() {
+        var backend = DatabaseBackend.of(dbBackend);
+        var dataSource = new MonitoredDataSource();
+        dataSource.setDriverClassName(backend.getDriverClassName());
+        dataSource.setUrl(dbUrl.isEmpty() ? backend.getDefaultUrl() : dbUrl);
+        dataSource.setUsername(dbUsername);
+        dataSource.setPassword(dbPassword);
+
+        dataSource.setInitialSize(dbPoolMinIdle);
+        dataSource.setMinIdle(dbPoolMinIdle);
+        dataSource.setMaxIdle(dbPoolMaxIdle);
+        dataSource.setMaxTotal(dbPoolMaxTotal);
+        dataSource.setMaxWaitMillis(dbPoolMaxWaitMs);
+        dataSource.setTestOnBorrow(true);
+        dataSource.setValidationQueryTimeout(dbPoolValidationTimeoutSeconds);
+        dataSource.setTimeBetweenEvictionRunsMillis(dbPoolEvictionIntervalMs);
+        dataSource.setPoolPreparedStatements(dbPoolMaxPreparedStatements > 0);
+        dataSource.setMaxOpenPreparedStatements(dbPoolMaxPreparedStatements);
         return dataSource;
     }
 
@@ -70,12 +230,52 @@ public class HangmanConfig implements WebMvcConfigurer {
         return transactionManager;
     }
 
+    @Bean
+    public GameStateStore gameStateStore(@Value("${hangman.stateStore.type:memory}") String type,
+                                         @Value("${hangman.stateStore.capacity:10000}") int capacity,
+                                         @Value("${hangman.stateStore.directory:}") String directory,
+                                         WordPoolRepository wordPoolRepository) throws IOException {
+        switch (type) {
+            case "memory":
+                return new InMemoryGameStateStore(capacity);
+            case "file":
+                var path = directory.isEmpty() ? Path.of(System.getProperty("java.io.tmpdir"), "hangman-games")
+                                               : Path.of(directory);
+                return new FileGameStateStore(path, wordPoolRepository::get);
+            default:
+                throw new IllegalArgumentException("unknown game state store type: " + type);
+        }
+    }
+
+    @Bean
+    public PrometheusMeterRegistry meterRegistry() {
+        var meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(meterRegistry);
+        new JvmThreadMetrics().bindTo(meterRegistry);
+        new ProcessorMetrics().bindTo(meterRegistry);
+        return meterRegistry;
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public AsyncTaskExecutor requestExecutor() {
+        return RequestExecutors.create(asyncVirtualThreads, asyncPoolSize);
+    }
+
     @Bean
     public SpringResourceTemplateResolver templateResolver() {
         var templateResolver = new SpringResourceTemplateResolver();
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setPrefix("/templates/");
         templateResolver.setSuffix(".html");
+        templateResolver.setCacheable(templatesCacheable);
+        if (templatesCacheTtlMs > 0) {
+            templateResolver.setCacheTTLMs(templatesCacheTtlMs);
+        }
         return templateResolver;
     }
 
@@ -83,6 +283,7 @@ public class HangmanConfig implements WebMvcConfigurer {
     public SpringTemplateEngine templateEngine() {
         var templateEngine = new SpringTemplateEngine();
         templateEngine.setTemplateResolver(templateResolver());
+        templateEngine.setEnableSpringELCompiler(templatesSpringElCompiler);
         return templateEngine;
     }
 
@@ -91,6 +292,7 @@ public class HangmanConfig implements WebMvcConfigurer {
         var viewResolver = new ThymeleafViewResolver();
         viewResolver.setContentType("text/html;charset=UTF-8");
         viewResolver.setTemplateEngine(templateEngine());
+        viewResolver.setCache(templatesCacheable);
         viewResolver.setOrder(1);
         return viewResolver;
     }
@@ -98,7 +300,8 @@ public class HangmanConfig implements WebMvcConfigurer {
     @Bean
     public CommonsMultipartResolver multipartResolver() {
         var multipartResolver = new CommonsMultipartResolver();
-        multipartResolver.setMaxUploadSize(6144);
+        multipartResolver.setMaxUploadSize(64 * 1024 * 1024);
+        multipartResolver.setMaxInMemorySize(64 * 1024);
         return multipartResolver;
     }
 }
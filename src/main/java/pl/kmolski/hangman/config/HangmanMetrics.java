@@ -0,0 +1,235 @@
+package pl.kmolski.hangman.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import pl.kmolski.hangman.controller.SessionGameListener;
+import pl.kmolski.hangman.repo.GameEventLog;
+import pl.kmolski.hangman.repo.GameLocks;
+import pl.kmolski.hangman.repo.WordPoolRepository;
+import pl.kmolski.hangman.repo.WriteBehindGameQueue;
+import pl.kmolski.hangman.service.GamePool;
+import pl.kmolski.hangman.service.HangmanGameService;
+import pl.kmolski.hangman.service.PlayerStatsService;
+import pl.kmolski.hangman.service.WordIngestionStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gauges and counters of the state of the application.
+ *
+ * The values are read from the components when the metrics are scraped: the games that are played in
+ * HTTP sessions, the words that are loaded in memory, the ingested words, the write-behind queue,
+ * the game event log, the game locks, the pool of new games, the player statistics that have not been written yet
+ * and the database connection pool.
+ * The timers of the operations are recorded by the components themselves.
+ *
+ * @author Krzysztof Molski
+ * @version 1.5.0
+ */
+@Component
+public class HangmanMetrics implements MeterBinder, InitializingBean {
+    /**
+     * Registry of the application metrics.
+     */
+    private MeterRegistry meterRegistry;
+    /**
+     * Game state management service.
+     */
+    private HangmanGameService gameService;
+    /**
+     * Repository of shared word pools.
+     */
+    private WordPoolRepository wordPoolRepository;
+    /**
+     * Write-behind queue of game updates.
+     */
+    private WriteBehindGameQueue writeBehindQueue;
+    /**
+     * Append-only log of the game events.
+     */
+    private GameEventLog eventLog;
+    /**
+     * Locks that serialize the modifications of a single game.
+     */
+    private GameLocks gameLocks;
+    /**
+     * Player statistics service.
+     */
+    private PlayerStatsService playerStatsService;
+    /**
+     * Pool of new games that are ready to be played.
+     */
+    private GamePool gamePool;
+    /**
+     * Database connection pool.
+     */
+    private MonitoredDataSource dataSource;
+
+    @Autowired
+    private void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Autowired
+    private void setGameService(HangmanGameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Autowired
+    private void setWordPoolRepository(WordPoolRepository wordPoolRepository) {
+        this.wordPoolRepository = wordPoolRepository;
+    }
+
+    @Autowired
+    private void setWriteBehindQueue(WriteBehindGameQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @Autowired
+    private void setEventLog(GameEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Autowired
+    private void setGameLocks(GameLocks gameLocks) {
+        this.gameLocks = gameLocks;
+    }
+
+    @Autowired
+    private void setPlayerStatsService(PlayerStatsService playerStatsService) {
+        this.playerStatsService = playerStatsService;
+    }
+
+    @Autowired
+    private void setGamePool(GamePool gamePool) {
+        this.gamePool = gamePool;
+    }
+
+    @Autowired
+    private void setDataSource(MonitoredDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        bindTo(meterRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hangman.sessions.games", SessionGameListener::getSessionGames)
+             .description("HTTP sessions with a game in progress")
+             .register(registry);
+        Gauge.builder("hangman.words.loaded", wordPoolRepository, WordPoolRepository::getLoadedWordCount)
+             .description("Words of the word pools that are loaded in memory")
+             .register(registry);
+
+        var ingestionTotals = gameService.getIngestionTotals();
+        FunctionCounter.builder("hangman.words.ingested", ingestionTotals, WordIngestionStats::getWordsAccepted)
+                       .description("Words accepted from uploaded word files")
+                       .register(registry);
+        FunctionCounter.builder("hangman.words.rejected", ingestionTotals, WordIngestionStats::getLinesRejected)
+                       .description("Lines rejected from uploaded word files")
+                       .register(registry);
+        FunctionCounter.builder("hangman.words.duplicates", ingestionTotals, WordIngestionStats::getDuplicatesRejected)
+                       .description("Words of uploaded word files that were already in the dictionary")
+                       .register(registry);
+
+        Gauge.builder("hangman.writeBehind.queue.depth", writeBehindQueue, WriteBehindGameQueue::getQueueDepth)
+             .description("Games with pending updates")
+             .register(registry);
+        FunctionCounter.builder("hangman.writeBehind.coalesced", writeBehindQueue,
+                                WriteBehindGameQueue::getCoalescedUpdates)
+                       .description("Updates coalesced with a pending update")
+                       .register(registry);
+        FunctionCounter.builder("hangman.writeBehind.failed", writeBehindQueue, WriteBehindGameQueue::getFailedWrites)
+                       .description("Failed writes of pending updates")
+                       .register(registry);
+        FunctionCounter.builder("hangman.writeBehind.discarded", writeBehindQueue,
+                                WriteBehindGameQueue::getDiscardedUpdates)
+                       .description("Pending updates discarded because they could not be written")
+                       .register(registry);
+        FunctionTimer.builder("hangman.writeBehind.flushes", writeBehindQueue, WriteBehindGameQueue::getFlushCount,
+                              WriteBehindGameQueue::getTotalFlushNanos, TimeUnit.NANOSECONDS)
+                     .description("Flushes of the write-behind queue")
+                     .register(registry);
+
+        FunctionCounter.builder("hangman.eventLog.events", eventLog, GameEventLog::getAppendedEvents)
+                       .description("Game events appended to the event log")
+                       .register(registry);
+        FunctionCounter.builder("hangman.eventLog.snapshots", eventLog, GameEventLog::getSnapshots)
+                       .description("Game snapshots appended to the event log")
+                       .register(registry);
+        FunctionCounter.builder("hangman.eventLog.replayed", eventLog, GameEventLog::getReplayedEvents)
+                       .description("Game events replayed to rebuild games")
+                       .register(registry);
+        Gauge.builder("hangman.eventLog.size", eventLog, GameEventLog::getSize)
+             .description("Size of the event log")
+             .baseUnit("bytes")
+             .register(registry);
+
+        FunctionCounter.builder("hangman.gameLocks.acquisitions", gameLocks, GameLocks::getAcquisitions)
+                       .description("Acquisitions of the game locks")
+                       .register(registry);
+        FunctionTimer.builder("hangman.gameLocks.contended", gameLocks, GameLocks::getContendedAcquisitions,
+                              GameLocks::getTotalWaitNanos, TimeUnit.NANOSECONDS)
+                     .description("Acquisitions of the game locks that had to wait")
+                     .register(registry);
+        Gauge.builder("hangman.gameLocks.waiting", gameLocks, GameLocks::getWaitingThreads)
+             .description("Threads waiting for a game lock")
+             .register(registry);
+
+        Gauge.builder("hangman.gamePool.available", gamePool, GamePool::getAvailable)
+             .description("New games that are ready to be played")
+             .register(registry);
+        Gauge.builder("hangman.gamePool.size", gamePool, GamePool::getSize)
+             .description("Target number of new games in the pool")
+             .register(registry);
+        FunctionCounter.builder("hangman.gamePool.handedOut", gamePool, GamePool::getHandedOut)
+                       .description("New games taken from the pool")
+                       .register(registry);
+        FunctionCounter.builder("hangman.gamePool.misses", gamePool, GamePool::getMisses)
+                       .description("New games requested while the pool was empty")
+                       .register(registry);
+        FunctionCounter.builder("hangman.gamePool.failed", gamePool, GamePool::getFailedRefills)
+                       .description("Failed refills of the pool")
+                       .register(registry);
+        FunctionTimer.builder("hangman.gamePool.refills", gamePool, GamePool::getRefillCount,
+                              GamePool::getTotalRefillNanos, TimeUnit.NANOSECONDS)
+                     .description("Refills of the pool of new games")
+                     .register(registry);
+
+        Gauge.builder("hangman.playerStats.pending", playerStatsService, PlayerStatsService::getPendingPlayers)
+             .description("Players with statistics counters in memory")
+             .register(registry);
+        FunctionCounter.builder("hangman.playerStats.failed", playerStatsService, PlayerStatsService::getFailedWrites)
+                       .description("Player statistics that could not be written")
+                       .register(registry);
+
+        Gauge.builder("hangman.db.pool.active", dataSource, MonitoredDataSource::getNumActive)
+             .description("Database connections in use")
+             .register(registry);
+        Gauge.builder("hangman.db.pool.idle", dataSource, MonitoredDataSource::getNumIdle)
+             .description("Idle database connections in the pool")
+             .register(registry);
+        Gauge.builder("hangman.db.pool.max", dataSource, MonitoredDataSource::getMaxTotal)
+             .description("Maximum number of database connections")
+             .register(registry);
+        Gauge.builder("hangman.db.pool.waiting", dataSource, MonitoredDataSource::getNumWaiters)
+             .description("Threads waiting for a database connection")
+             .register(registry);
+        FunctionTimer.builder("hangman.db.pool.acquire", dataSource, MonitoredDataSource::getAcquisitions,
+                              MonitoredDataSource::getTotalAcquireNanos, TimeUnit.NANOSECONDS)
+                     .description("Requests for a database connection, and the time spent waiting for it")
+                     .register(registry);
+        FunctionCounter.builder("hangman.db.pool.failed", dataSource, MonitoredDataSource::getFailedAcquisitions)
+                       .description("Requests for a database connection that have failed or timed out")
+                       .register(registry);
+    }
+}
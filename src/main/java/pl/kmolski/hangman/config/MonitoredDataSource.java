@@ -0,0 +1,59 @@
+package pl.kmolski.hangman.config;
+
+import org.apache.tomcat.dbcp.dbcp2.BasicDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool that records the time spent waiting for connections.
+ *
+ * Every call of `getConnection()` is counted and timed, so the time spent on borrowing connections
+ * from the pool (and on opening and validating them) can be exported as a metric, along with
+ * the numbers of active, idle and maximum connections of the pool.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class MonitoredDataSource extends BasicDataSource {
+    /**
+     * Number of connections that were requested from the pool.
+     */
+    private final LongAdder acquisitions = new LongAdder();
+    /**
+     * Number of connection requests that have failed, e.g. timed out.
+     */
+    private final LongAdder failedAcquisitions = new LongAdder();
+    /**
+     * Total time spent on connection requests, in nanoseconds.
+     */
+    private final LongAdder totalAcquireNanos = new LongAdder();
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startTime = System.nanoTime();
+        try {
+            return super.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            failedAcquisitions.increment();
+            throw e;
+        } finally {
+            acquisitions.increment();
+            totalAcquireNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Get the number of threads that are waiting for a connection.
+     * @return The number of waiting threads, or 0 if the pool has not been created yet.
+     */
+    public int getNumWaiters() {
+        var pool = getConnectionPool();
+        return (pool != null) ? pool.getNumWaiters() : 0;
+    }
+
+    public long getAcquisitions() { return acquisitions.sum(); }
+    public long getFailedAcquisitions() { return failedAcquisitions.sum(); }
+    public long getTotalAcquireNanos() { return totalAcquireNanos.sum(); }
+}
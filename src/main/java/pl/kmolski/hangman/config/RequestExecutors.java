@@ -0,0 +1,62 @@
+package pl.kmolski.hangman.config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory of the executors that run the asynchronous requests.
+ *
+ * On JDK 21 and newer, every request gets its own virtual thread, so the number of requests
+ * that block on the database at the same time is only limited by the connection pool.
+ * On older JDKs, the requests are run by a bounded pool of platform threads. The virtual thread
+ * executor is looked up reflectively, because the application is compiled for Java 11.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public final class RequestExecutors {
+    private static final Log logger = LogFactory.getLog(RequestExecutors.class);
+
+    private RequestExecutors() { }
+
+    /**
+     * Create the executor of the asynchronous requests.
+     * @param virtualThreads Whether virtual threads are used, if they are available.
+     * @param poolSize The number of threads of the bounded pool.
+     * @return The executor, the thread pool is initialized when it is registered as a bean.
+     */
+    public static AsyncTaskExecutor create(boolean virtualThreads, int poolSize) {
+        if (virtualThreads) {
+            var executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                logger.info("Asynchronous requests are run on virtual threads");
+                return new TaskExecutorAdapter(executor);
+            }
+        }
+
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("hangman-request-");
+        logger.info("Asynchronous requests are run on a pool of " + poolSize + " threads");
+        return executor;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not create the virtual thread executor", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package pl.kmolski.hangman.controller;
+
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.InvalidGuessException;
+import pl.kmolski.hangman.service.GameNotFoundException;
+import pl.kmolski.hangman.service.GameState;
+import pl.kmolski.hangman.service.HangmanGameService;
+
+import javax.persistence.OptimisticLockException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * JSON API controller for the web app. This controller's endpoints are located at "/api/games".
+ *
+ * The API is stateless: the game is identified by its save ID in every request, and each
+ * response contains the complete game state, so a guess takes a single round-trip.
+ * The endpoints are run by the RequestRunner, asynchronously in the async mode.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.0
+ */
+@RestController
+@RequestMapping(path="/api/games", produces=MediaType.APPLICATION_JSON_VALUE)
+public class HangmanGameApiController {
+    /**
+     * Game state management service.
+     */
+    private HangmanGameService gameService;
+    /**
+     * Runner of the blocking work of the endpoints.
+     */
+    private RequestRunner requestRunner;
+
+    @Autowired
+    private void setGameService(HangmanGameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Autowired
+    private void setRequestRunner(RequestRunner requestRunner) {
+        this.requestRunner = requestRunner;
+    }
+
+    /**
+     * Create a new game that uses the default dictionary.
+     * @param difficulty The difficulty band of the words
+     */
+    @PostMapping
+    public Object createGame(@RequestParam(name="difficulty", defaultValue="ANY") Difficulty difficulty)
+            throws Exception {
+        return requestRunner.run(() -> {
+            var gameModel = gameService.createAndSaveGameModel(difficulty);
+            return ResponseEntity.created(URI.create("/api/games/" + gameModel.getId())).body(GameState.of(gameModel));
+        });
+    }
+
+    /**
+     * Get the state of the game.
+     * @param id Game save ID
+     */
+    @GetMapping(path="/{id}")
+    public Object getGame(@PathVariable("id") Long id) throws Exception {
+        return requestRunner.run(() -> gameService.getGameState(id));
+    }
+
+    /**
+     * Submit a guess. The response contains the outcome of the guess and the new game state.
+     * @param id Game save ID
+     * @param guess The user-supplied guess
+     */
+    @PostMapping(path="/{id}/guess")
+    public Object submitGuess(@PathVariable("id") Long id, @RequestParam("guess") String guess) throws Exception {
+        return requestRunner.run(() -> gameService.submitGuess(id, guess));
+    }
+
+    /**
+     * Skip the current word of the game.
+     * @param id Game save ID
+     * @param difficulty The difficulty band of the next words, if it should be changed
+     */
+    @PostMapping(path="/{id}/skip")
+    public Object skipWord(@PathVariable("id") Long id,
+                           @RequestParam(name="difficulty", required=false) Difficulty difficulty) throws Exception {
+        return requestRunner.run(() -> gameService.skipWord(id, difficulty));
+    }
+
+    /**
+     * Add the words from the word file to the game's dictionary.
+     * @param id Game save ID
+     * @param wordFile The user-supplied word file
+     */
+    @PostMapping(path="/{id}/words", consumes=MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Object addWords(@PathVariable("id") Long id, @RequestParam("wordFile") MultipartFile wordFile)
+            throws Exception {
+        return requestRunner.run(() -> gameService.addWords(id, wordFile));
+    }
+
+    @ExceptionHandler(InvalidGuessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidGuess(InvalidGuessException e) {
+        return Map.of("error", e.getMessage());
+    }
+
+    @ExceptionHandler(GameNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> handleGameNotFound(GameNotFoundException e) {
+        return Map.of("error", e.getMessage());
+    }
+
+    @ExceptionHandler({OptimisticLockException.class, OptimisticLockingFailureException.class,
+                       StaleStateException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConcurrentUpdate(RuntimeException e) {
+        return Map.of("error", "the game was modified by another request");
+    }
+}
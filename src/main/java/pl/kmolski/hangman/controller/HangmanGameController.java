@@ -1,69 +1,230 @@
 package pl.kmolski.hangman.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import pl.kmolski.hangman.model.HangmanGame;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.GameSaveSummary;
 import pl.kmolski.hangman.model.InvalidGuessException;
+import pl.kmolski.hangman.model.LongHashSet;
+import pl.kmolski.hangman.service.CacheStatisticsService;
+import pl.kmolski.hangman.service.GameNotFoundException;
+import pl.kmolski.hangman.service.GameState;
+import pl.kmolski.hangman.service.GuessOutcome;
 import pl.kmolski.hangman.service.HangmanGameService;
+import pl.kmolski.hangman.service.PlayerStatType;
+import pl.kmolski.hangman.service.PlayerStatsService;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
-import java.io.IOException;
-import java.util.Arrays;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Main controller class for the web app. This controller's endpoints are located at the web server root.
  *
+ * The HTTP session only holds a snapshot of the current game (GameState), the complete
+ * game state is kept by the game service, so the session size does not depend on the dictionary.
+ * Concurrent requests of one session are serialized by the game service.
+ * The endpoints that wait for the game service are run by the RequestRunner, asynchronously in the async mode.
+ * Players are identified by a random ID in the "playerId" cookie, and their statistics are kept by the server.
+ * The "/home", "/stats" and "/saves" views have ETags derived from the displayed state, so the clients
+ * revalidate them and get a 304 response without rendering if the state has not changed. The game views
+ * check the current revision of the game first, because the game may also be changed through the API
+ * or in another session, and refresh the snapshot in the session if it is out of date.
+ * The static pages are redirected to by their content-hashed URLs, which the clients cache.
+ *
  * @author Krzysztof Molski
- * @version 1.0
+ * @version 1.7.1
  */
 @Controller
 public class HangmanGameController {
     /**
-     * Names of the cookies used in the "/stats" view.
+     * Name of the cookie that holds the player ID.
+     */
+    private static final String PLAYER_COOKIE = "playerId";
+    /**
+     * The maximum number of game saves on a page of the "/saves" view.
      */
-    private static final Set<String> COOKIE_NAMES = Set.of("winCount", "loseCount", "correctGuesses", "wrongGuesses");
+    private static final int MAX_SAVES_PAGE_SIZE = 100;
+    /**
+     * Cache-Control header of the views, which have to be revalidated on every request.
+     */
+    private static final String VIEW_CACHE_CONTROL = "private, no-cache";
+
+    /**
+     * Start time of the controller, which is a part of the view ETags, so the views cached
+     * by the clients before a restart (possibly with different templates) are not reused.
+     */
+    private final String viewEpoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
 
     /**
      * Game state management service.
      */
     private HangmanGameService gameService;
+    /**
+     * Second-level cache statistics service.
+     */
+    private CacheStatisticsService cacheStatisticsService;
+    /**
+     * Player statistics service.
+     */
+    private PlayerStatsService playerStatsService;
+    /**
+     * Runner of the blocking work of the endpoints.
+     */
+    private RequestRunner requestRunner;
+    /**
+     * Provider of the content-hashed URLs of the static pages.
+     */
+    private ResourceUrlProvider resourceUrlProvider;
 
     @Autowired
     private void setGameService(HangmanGameService gameService) {
         this.gameService = gameService;
     }
 
+    @Autowired
+    private void setCacheStatisticsService(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Autowired
+    private void setPlayerStatsService(PlayerStatsService playerStatsService) {
+        this.playerStatsService = playerStatsService;
+    }
+
+    @Autowired
+    private void setRequestRunner(RequestRunner requestRunner) {
+        this.requestRunner = requestRunner;
+    }
+
+    @Autowired
+    private void setResourceUrlProvider(ResourceUrlProvider resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
     /**
-     * Find the appropriate cookie, and increment its numeric value by 1. If the cookie
-     * does not exist, a new cookie with the provided name and value "1" is created.
-     * @param request The request that contains the cookie.
-     * @param response The response where the cookie will be sent back.
-     * @param cookieName The name of the cookie.
+     * Get the redirect to a static page, using its content-hashed URL if there is one.
+     * @param page Path of the static page, e.g. "/game_won.html".
+     * @return The redirect view name.
      */
-    private void incrementCookieValue(HttpServletRequest request, HttpServletResponse response, String cookieName) {
-        var cookie = Arrays.stream(request.getCookies())
-                           .filter(c -> c.getName().equals(cookieName))
-                           .findFirst().orElse(null);
+    private String redirectToPage(String page) {
+        var url = resourceUrlProvider.getForLookupPath(page);
+        return "redirect:" + ((url != null) ? url : page);
+    }
 
-        if (cookie != null) {
-            int value = Integer.parseInt(cookie.getValue());
-            cookie.setValue(Integer.toString(value + 1));
-        } else {
-            cookie = new Cookie(cookieName, "1");
+    /**
+     * Check whether the client already has the current version of a view. The ETag and the Cache-Control
+     * headers are added to the response, and if the If-None-Match header of the request matches the ETag,
+     * the response status is set to 304.
+     * @param etag The ETag of the view, without the epoch.
+     * @return true if the view does not have to be rendered.
+     */
+    private boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, VIEW_CACHE_CONTROL);
+        return new ServletWebRequest(request, response).checkNotModified(viewEpoch + "-" + etag);
+    }
+
+    /**
+     * Get the response that completes a request for a view that has not been modified.
+     * It is handled the same way by synchronous and asynchronous requests.
+     * @return An empty 304 response.
+     */
+    private static ResponseEntity<Void> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    /**
+     * Compute the ETag of a page of game save summaries.
+     * @param saves The summaries on the page, including the first summary of the next page.
+     * @return The ETag of the page.
+     */
+    private static String savesETag(Long after, int pageSize, List<GameSaveSummary> saves) {
+        var content = new StringBuilder(saves.size() * 32);
+        content.append(after).append('/').append(pageSize);
+        for (var save : saves) {
+            content.append('/').append(save.getId()).append(':').append(save.getMaskedWord())
+                   .append(':').append(save.getMisses()).append(':').append(save.getWordsGuessed())
+                   .append(':').append(save.getWordsRemaining());
+        }
+        return "saves-" + Long.toHexString(LongHashSet.hash(content));
+    }
+
+    /**
+     * Get the ID of the game that is played in the current session.
+     * @param session The HTTP session that contains the game state snapshot.
+     * @return The game save ID, or null if there is no game in the session.
+     */
+    private Long getSessionGameId(HttpSession session) {
+        var gameState = (GameState) session.getAttribute("gameModel");
+        return (gameState != null) ? gameState.getId() : null;
+    }
+
+    /**
+     * Get an up-to-date snapshot of the game of the current session. The snapshot in the session
+     * is only replaced if the revision of the game has changed, e.g. by a request of the API.
+     * @param session The HTTP session that contains the game state snapshot.
+     * @param gameState The game state snapshot from the session.
+     * @return The current snapshot of the game.
+     * @throws GameNotFoundException Thrown if the game save no longer exists
+     */
+    private GameState refreshGameState(HttpSession session, GameState gameState) {
+        if (gameService.getRevision(gameState.getId()) == gameState.getRevision()) {
+            return gameState;
         }
 
+        var current = gameService.getGameState(gameState.getId());
+        session.setAttribute("gameModel", current);
+        return current;
+    }
+
+    /**
+     * Get the player ID from the "playerId" cookie. If the request has no valid player ID,
+     * a new random ID is generated and sent back in the cookie.
+     * @param request The request that contains the cookie.
+     * @param response The response where a new cookie will be sent back.
+     * @return The player ID.
+     */
+    private String getPlayerId(HttpServletRequest request, HttpServletResponse response) {
+        var cookies = request.getCookies();
+        if (cookies != null) {
+            for (var cookie : cookies) {
+                if (PLAYER_COOKIE.equals(cookie.getName()) && isValidPlayerId(cookie.getValue())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+
+        var playerId = UUID.randomUUID().toString();
+        var cookie = new Cookie(PLAYER_COOKIE, playerId);
         cookie.setMaxAge(60 * 60 * 24 * 365);
+        cookie.setHttpOnly(true);
         response.addCookie(cookie);
+        return playerId;
+    }
+
+    private static boolean isValidPlayerId(String playerId) {
+        if (playerId == null || playerId.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(playerId).toString().equals(playerId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     /**
@@ -72,113 +233,194 @@ public class HangmanGameController {
      * @param wordFile The user-supplied word file
      */
     @RequestMapping(path="/addWords", method=RequestMethod.POST)
-    public String addWords(@RequestParam("wordFile") MultipartFile wordFile, HttpSession session) throws IOException {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
-
-        if (gameModel != null) {
-            gameService.addWords(wordFile, gameModel);
-        }
+    public Object addWords(@RequestParam("wordFile") MultipartFile wordFile, HttpSession session) throws Exception {
+        var gameId = getSessionGameId(session);
 
-        return "redirect:/home";
+        return requestRunner.run(() -> {
+            if (gameId != null) {
+                session.setAttribute("gameModel", gameService.addWords(gameId, wordFile));
+            }
+            return "redirect:/home";
+        });
     }
 
     /**
      * Display the main screen of the game. Information about the current word
      * and the miss count is displayed along with the relevant controls. If there's
      * no model instance in the current session, a new instance is created.
+     * The screen is rendered from the game state snapshot in the session, refreshed if the game has changed,
+     * unless the client already has the screen of the current game revision.
      */
     @RequestMapping(path="/home")
-    public String home(Model model, HttpSession session) {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
-        if (gameModel == null) {
-            session.setAttribute("gameModel", gameService.createAndSaveGameModel());
-            return "redirect:/add_words.html";
+    public Object home(HttpServletRequest request, HttpServletResponse response, HttpSession session, Model model)
+            throws Exception {
+        var gameState = (GameState) session.getAttribute("gameModel");
+        if (gameState == null) {
+            return requestRunner.run(() -> {
+                session.setAttribute("gameModel", GameState.of(gameService.createAndSaveGameModel()));
+                return redirectToPage("/add_words.html");
+            });
         }
 
-        model.addAttribute("gameModel", gameModel);
-        return "home";
+        return requestRunner.run(() -> {
+            var current = refreshGameState(session, gameState);
+            if (checkNotModified(request, response, "home-" + current.getId() + "-" + current.getRevision())) {
+                return notModified();
+            }
+            model.addAttribute("gameModel", current);
+            return "home";
+        });
     }
 
     /**
-     * Process the save load request from the client. If a model instance does exist in the
-     * current session, it will be saved to the database before any game save is loaded.
+     * Process the save load request from the client. The game in the current session
+     * has already been saved after its last change, so it is simply replaced.
      * @param id Game save ID
      */
     @RequestMapping(path="/loadSave")
-    public String loadSave(@RequestParam("id") Long id, HttpSession session) {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
-
-        session.setAttribute("gameModel", gameService.loadGameSave(gameModel, id));
-        return "redirect:/home";
+    public Object loadSave(@RequestParam("id") Long id, HttpSession session) throws Exception {
+        return requestRunner.run(() -> {
+            session.setAttribute("gameModel", gameService.getGameState(id));
+            return "redirect:/home";
+        });
     }
 
     /**
      * Display information about the game saves that are in the database: the last word that was being
      * guessed, the number of words that were guessed correctly/are remaining and the miss count.
+     * The saves are displayed in pages, which start after the game save with the given ID.
+     * The page is not rendered if the client already has a page with the same summaries.
+     * @param after The ID of the last game save on the previous page
+     * @param size The number of game saves on a page
      */
     @RequestMapping(path="/saves")
-    public String saves(Model model) {
-        model.addAttribute("saves", gameService.getAllGameSaves());
-        return "saves";
+    public Object saves(@RequestParam(name="after", required=false) Long after,
+                        @RequestParam(name="size", defaultValue="20") int size,
+                        HttpServletRequest request, HttpServletResponse response,
+                        Model model) throws Exception {
+        int pageSize = Math.max(1, Math.min(size, MAX_SAVES_PAGE_SIZE));
+
+        return requestRunner.run(() -> {
+            var saves = gameService.getGameSavePage(after, pageSize);
+            if (checkNotModified(request, response, savesETag(after, pageSize, saves))) {
+                return notModified();
+            }
+            if (saves.size() > pageSize) {
+                saves = saves.subList(0, pageSize);
+                model.addAttribute("nextCursor", saves.get(pageSize - 1).getId());
+            }
+            model.addAttribute("saves", saves);
+            model.addAttribute("pageSize", pageSize);
+            model.addAttribute("isFirstPage", after == null);
+            return "saves";
+        });
     }
 
     /**
      * Process the word skip request from the client. If there's no model instance
      * in the current session, the client is redirected to "/home".
+     * @param difficulty The difficulty band of the next words, if it should be changed
      */
     @RequestMapping(path="/skipWord")
-    public String skipWord(HttpServletRequest request, HttpServletResponse response, HttpSession session) {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
+    public Object skipWord(@RequestParam(name="difficulty", required=false) Difficulty difficulty,
+                           HttpServletRequest request, HttpServletResponse response, HttpSession session)
+            throws Exception {
+        var gameId = getSessionGameId(session);
+        if (gameId == null) {
+            return "redirect:/home";
+        }
 
-        if (gameModel != null) {
-            gameService.skipWord(gameModel);
+        var playerId = getPlayerId(request, response);
+        return requestRunner.run(() -> {
+            var gameState = gameService.skipWord(gameId, difficulty);
 
-            if (gameModel.isGameOver()) {
+            if (gameState.isGameOver()) {
                 session.removeAttribute("gameModel");
-                incrementCookieValue(request, response, "loseCount");
-                return "redirect:/game_lost.html";
+                playerStatsService.record(playerId, PlayerStatType.LOSS);
+                return redirectToPage("/game_lost.html");
             }
-        }
-
-        return "redirect:/home";
+            session.setAttribute("gameModel", gameState);
+            return "redirect:/home";
+        });
     }
 
     /**
      * Display information about the total number of wins/losses, correct/wrong guesses
      * number of words that were guessed correctly/are remaining and the miss count.
      * If there's no model instance in the current session, the client is redirected to "/home".
+     * The view is not rendered if the client already has a view with the same game revision and statistics.
      */
     @RequestMapping(path="/stats")
-    public String stats(HttpServletRequest request, HttpSession session, Model model) {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
-        if (gameModel == null) {
+    public Object stats(HttpServletRequest request, HttpServletResponse response, HttpSession session, Model model)
+            throws Exception {
+        var gameState = (GameState) session.getAttribute("gameModel");
+        if (gameState == null) {
             return "redirect:/home";
         }
 
-        model.addAttribute("gameModel", gameModel);
-        model.addAllAttributes(Arrays.stream(request.getCookies())
-             .filter(cookie -> COOKIE_NAMES.contains(cookie.getName()))
-             .collect(Collectors.toMap(Cookie::getName, Cookie::getValue)));
-        return "stats";
+        var playerId = getPlayerId(request, response);
+        return requestRunner.run(() -> {
+            var current = refreshGameState(session, gameState);
+            var playerStats = playerStatsService.getStats(playerId);
+            var etag = "stats-" + current.getId() + "-" + current.getRevision() + "-" + playerStats.getWins()
+                       + "-" + playerStats.getLosses() + "-" + playerStats.getCorrectGuesses()
+                       + "-" + playerStats.getWrongGuesses();
+            if (checkNotModified(request, response, etag)) {
+                return notModified();
+            }
+            model.addAttribute("gameModel", current);
+            model.addAttribute("playerStats", playerStats);
+            return "stats";
+        });
+    }
+
+    /**
+     * Display the players with the most wins. The leaderboard is a snapshot that is refreshed
+     * periodically, so it does not include the latest games.
+     */
+    @RequestMapping(path="/leaderboard")
+    public String leaderboard(HttpServletRequest request, HttpServletResponse response, Model model) {
+        model.addAttribute("leaderboard", playerStatsService.getLeaderboard());
+        model.addAttribute("playerId", getPlayerId(request, response));
+        return "leaderboard";
+    }
+
+    /**
+     * Display the hit/miss statistics of the second-level cache, per cache region.
+     */
+    @RequestMapping(path="/cacheStats", method=RequestMethod.GET)
+    public String cacheStats(Model model) {
+        model.addAttribute("totals", List.of(cacheStatisticsService.getSecondLevelCacheSummary()));
+        model.addAttribute("regions", cacheStatisticsService.getRegionSummaries());
+        return "cache_stats";
+    }
+
+    /**
+     * Reset the hit/miss statistics of the caches, and redirect to the cleared statistics.
+     */
+    @RequestMapping(path="/cacheStats/reset", method=RequestMethod.POST)
+    public String resetCacheStats() {
+        cacheStatisticsService.clear();
+        return "redirect:/cacheStats";
     }
 
-    private String gameOverRoute(HangmanGame gameModel, HttpServletRequest request, HttpServletResponse response) {
-        if (gameModel.didWin()) {
-            incrementCookieValue(request, response, "winCount");
-            return "redirect:/game_won.html";
+    private String gameOverRoute(GuessOutcome outcome, String playerId) {
+        if (outcome == GuessOutcome.GAME_WON) {
+            playerStatsService.record(playerId, PlayerStatType.WIN);
+            return redirectToPage("/game_won.html");
         } else {
-            incrementCookieValue(request, response, "loseCount");
-            return "redirect:/game_lost.html";
+            playerStatsService.record(playerId, PlayerStatType.LOSS);
+            return redirectToPage("/game_lost.html");
         }
     }
 
-    private String guessRoute(boolean isGuessCorrect, HttpServletRequest request, HttpServletResponse response) {
+    private String guessRoute(boolean isGuessCorrect, String playerId) {
         if (isGuessCorrect) {
-            incrementCookieValue(request, response, "correctGuesses");
-            return "redirect:/guess_correct.html";
+            playerStatsService.record(playerId, PlayerStatType.CORRECT_GUESS);
+            return redirectToPage("/guess_correct.html");
         } else {
-            incrementCookieValue(request, response, "wrongGuesses");
-            return "redirect:/guess_wrong.html";
+            playerStatsService.record(playerId, PlayerStatType.WRONG_GUESS);
+            return redirectToPage("/guess_wrong.html");
         }
     }
 
@@ -188,27 +430,50 @@ public class HangmanGameController {
      * @param guess The user-supplied guess
      */
     @RequestMapping(path="/submitGuess")
-    public String submitGuess(@RequestParam("guess") String guess,
+    public Object submitGuess(@RequestParam("guess") String guess,
                               HttpServletRequest request,
                               HttpServletResponse response,
-                              HttpSession session) {
-        var gameModel = (HangmanGame) session.getAttribute("gameModel");
-        if (gameModel == null) {
+                              HttpSession session) throws Exception {
+        var gameId = getSessionGameId(session);
+        if (gameId == null) {
             return "redirect:/home";
         }
 
-        try {
-            boolean isGuessCorrect = gameService.tryLetter(session, gameModel, guess);
-
-            if (gameModel.isGameOver()) {
-                return gameOverRoute(gameModel, request, response);
-            } else if (gameModel.isRoundOver()) {
-                return "redirect:/round_over.html";
-            } else {
-                return guessRoute(isGuessCorrect, request, response);
+        var playerId = getPlayerId(request, response);
+        return requestRunner.run(() -> {
+            try {
+                var gameState = gameService.submitGuess(gameId, guess);
+                var outcome = gameState.getOutcome();
+
+                if (outcome.isGameOver()) {
+                    session.removeAttribute("gameModel");
+                    return gameOverRoute(outcome, playerId);
+                }
+
+                session.setAttribute("gameModel", gameState);
+                if (outcome == GuessOutcome.ROUND_OVER) {
+                    return redirectToPage("/round_over.html");
+                } else {
+                    return guessRoute(outcome.isGuessCorrect(), playerId);
+                }
+            } catch (InvalidGuessException e) {
+                return "redirect:/home";
             }
-        } catch (InvalidGuessException e) {
+        });
+    }
+
+    /**
+     * Handle requests for game saves that no longer exist. If the game of the current session
+     * has been deleted, it is removed from the session and a new game is started on "/home".
+     * Otherwise, the client is redirected to the list of existing game saves.
+     * @param e The exception that contains the requested game save ID
+     */
+    @ExceptionHandler(GameNotFoundException.class)
+    public String gameNotFound(GameNotFoundException e, HttpSession session) {
+        if (e.getId().equals(getSessionGameId(session))) {
+            session.removeAttribute("gameModel");
             return "redirect:/home";
         }
+        return "redirect:/saves";
     }
 }
@@ -0,0 +1,41 @@
+package pl.kmolski.hangman.controller;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Interceptor that hides the management endpoints (the metrics and the cache statistics) unless they are enabled.
+ *
+ * The management endpoints are not protected by any authentication, so they are disabled by default and respond
+ * with 404, like an unknown path. They should only be enabled where the application port is not publicly reachable.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1
+ */
+public class ManagementEndpointInterceptor implements HandlerInterceptor {
+    /**
+     * Path patterns of the management endpoints.
+     */
+    public static final String[] PATHS = { "/metrics", "/cacheStats", "/cacheStats/**" };
+
+    /**
+     * Whether the management endpoints are enabled.
+     */
+    private final boolean enabled;
+
+    public ManagementEndpointInterceptor(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!enabled) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+        return enabled;
+    }
+}
@@ -0,0 +1,38 @@
+package pl.kmolski.hangman.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Metrics controller for the web app. This controller's endpoint is located at "/metrics".
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@RestController
+public class MetricsController {
+    /**
+     * Registry of the application metrics.
+     */
+    private PrometheusMeterRegistry meterRegistry;
+
+    @Autowired
+    private void setMeterRegistry(PrometheusMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get the current values of all metrics, in the Prometheus text format.
+     */
+    @GetMapping(path="/metrics")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok()
+                             .header(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_004)
+                             .body(meterRegistry.scrape());
+    }
+}
@@ -0,0 +1,64 @@
+package pl.kmolski.hangman.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor that times the requests handled by the controller endpoints.
+ *
+ * The requests are recorded by the `hangman.http.requests` timer, tagged with the HTTP method,
+ * the URI pattern of the endpoint, the response status and the exception, if there was one.
+ * Asynchronous requests are timed until they are completed, not until the container thread is released.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    /**
+     * Name of the request attribute that holds the timer sample of the request.
+     */
+    private static final String SAMPLE_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".sample";
+
+    /**
+     * The registry of the request timers.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Create the interceptor.
+     * @param meterRegistry The registry of the request timers.
+     */
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(SAMPLE_ATTRIBUTE) == null) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(meterRegistry));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        var sample = (Timer.Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+        if (sample == null) { return; }
+        request.removeAttribute(SAMPLE_ATTRIBUTE);
+
+        var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sample.stop(Timer.builder("hangman.http.requests")
+                         .description("Requests handled by the controller endpoints")
+                         .tag("method", request.getMethod())
+                         .tag("uri", (uri != null) ? uri.toString() : "UNKNOWN")
+                         .tag("status", Integer.toString(response.getStatus()))
+                         .tag("exception", (ex != null) ? ex.getClass().getSimpleName() : "none")
+                         .register(meterRegistry));
+    }
+}
@@ -0,0 +1,51 @@
+package pl.kmolski.hangman.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs the blocking work of the controller endpoints, either on the request thread or asynchronously.
+ *
+ * In the async mode, the work is returned as a Callable, which Spring MVC runs on the request
+ * executor (see HangmanConfig) while the servlet container thread is released. Otherwise,
+ * the work is done immediately and its result is returned, like in a synchronous endpoint.
+ * The endpoints return the result of `run()`, which Spring MVC handles by its runtime type.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Component
+public class RequestRunner {
+    /**
+     * Whether the work is run asynchronously.
+     */
+    private final boolean asyncEnabled;
+
+    /**
+     * Create the request runner.
+     * @param asyncEnabled Whether the work is run asynchronously.
+     */
+    public RequestRunner(@Value("${hangman.async.enabled:false}") boolean asyncEnabled) {
+        this.asyncEnabled = asyncEnabled;
+    }
+
+    /**
+     * Run the blocking work of an endpoint.
+     * @param work The work, which returns the result of the endpoint.
+     * @return The work itself in the async mode, otherwise its result.
+     * @throws Exception Thrown by the work in the synchronous mode.
+     */
+    public Object run(Callable<?> work) throws Exception {
+        return asyncEnabled ? work : work.call();
+    }
+
+    /**
+     * Check whether the work is run asynchronously.
+     * @return true if the async mode is enabled.
+     */
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+}
@@ -0,0 +1,48 @@
+package pl.kmolski.hangman.controller;
+
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Session listener that counts the HTTP sessions with a game in progress.
+ *
+ * The games are counted when the "gameModel" session attribute is added and removed, which also
+ * happens when a session expires. The listener is registered by DispatcherInit, before the Spring
+ * context is created, so the count is kept in a static field and read by the `hangman.sessions.games` gauge.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class SessionGameListener implements HttpSessionAttributeListener {
+    /**
+     * Name of the session attribute that holds the game state snapshot.
+     */
+    static final String GAME_ATTRIBUTE = "gameModel";
+    /**
+     * The number of sessions with a game in progress.
+     */
+    private static final AtomicInteger sessionGames = new AtomicInteger();
+
+    @Override
+    public void attributeAdded(HttpSessionBindingEvent event) {
+        if (GAME_ATTRIBUTE.equals(event.getName())) {
+            sessionGames.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void attributeRemoved(HttpSessionBindingEvent event) {
+        if (GAME_ATTRIBUTE.equals(event.getName())) {
+            sessionGames.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of HTTP sessions with a game in progress.
+     * @return The number of sessions.
+     */
+    public static int getSessionGames() {
+        return sessionGames.get();
+    }
+}
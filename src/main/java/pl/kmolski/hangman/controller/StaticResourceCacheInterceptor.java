@@ -0,0 +1,62 @@
+package pl.kmolski.hangman.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor that sets the cache headers of the static pages and images.
+ *
+ * The static resources are served with a content hash in their file names (e.g. `game_won-<md5>.html`),
+ * so a versioned URL always refers to the same content and can be cached for a year without revalidation.
+ * The resources requested without a content hash (e.g. by the links in the static pages) have to be
+ * revalidated by the clients, which get a 304 response if the resource has not been modified.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class StaticResourceCacheInterceptor implements HandlerInterceptor {
+    /**
+     * Cache-Control header of the resources with a content hash.
+     */
+    static final String IMMUTABLE = "max-age=31536000, public, immutable";
+    /**
+     * Cache-Control header of the resources without a content hash.
+     */
+    static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+    /**
+     * Length of the content hash (MD5, in hexadecimal digits).
+     */
+    private static final int HASH_LENGTH = 32;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof ResourceHttpRequestHandler) {
+            var versioned = isVersioned(request.getRequestURI());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the file name in a path contains a content hash, which is placed before the extension.
+     * The hash itself is checked by the resource handler, which does not serve a file with a wrong hash.
+     * @param path The request path.
+     * @return true if the path has a content hash.
+     */
+    static boolean isVersioned(String path) {
+        int extension = path.lastIndexOf('.');
+        int separator = extension - HASH_LENGTH - 1;
+        if (separator <= path.lastIndexOf('/') || path.charAt(separator) != '-') {
+            return false;
+        }
+        for (int i = separator + 1; i < extension; ++i) {
+            if (Character.digit(path.charAt(i), 16) < 0) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package pl.kmolski.hangman.model;
+
+/**
+ * The difficulty band of the words that are taken for the rounds of a game.
+ *
+ * Every band is a range of bucket hardness (see WordBuckets), and has a label that is displayed to the players.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1
+ */
+public enum Difficulty {
+    /**
+     * Words of any hardness.
+     */
+    ANY("Any", 0, WordBuckets.MAX_HARDNESS),
+    /**
+     * Long words with many common letters.
+     */
+    EASY("Easy", 0, 2),
+    /**
+     * Words of medium hardness.
+     */
+    MEDIUM("Medium", 3, 3),
+    /**
+     * Short words with few distinct letters or rare letters.
+     */
+    HARD("Hard", 4, WordBuckets.MAX_HARDNESS);
+
+    private final String label;
+    private final int minHardness;
+    private final int maxHardness;
+
+    Difficulty(String label, int minHardness, int maxHardness) {
+        this.label = label;
+        this.minHardness = minHardness;
+        this.maxHardness = maxHardness;
+    }
+
+    /**
+     * Get the name of this band that is displayed to the players.
+     * @return The label of the band.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Check whether the words of a bucket belong to this band.
+     * @param bucket The bucket.
+     * @return true if the bucket belongs to this band.
+     */
+    public boolean includes(int bucket) {
+        int hardness = WordBuckets.hardnessOf(bucket);
+        return hardness >= minHardness && hardness <= maxHardness;
+    }
+}
@@ -0,0 +1,109 @@
+package pl.kmolski.hangman.model;
+
+/**
+ * A change of a game, as recorded in the game event log.
+ *
+ * Every event carries the revision of the game after the change, so the events that follow
+ * a snapshot of the game can be found and replayed on it (see `HangmanGame.replay()`).
+ * The events only hold small values: the guessed letter, the drawn word (with its draw in
+ * the dictionary), the identifier of an added word pool or the chosen difficulty.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class GameEvent {
+    /**
+     * The kinds of game events.
+     */
+    public enum Type {
+        /**
+         * A new game was handed out to a player. The text is the difficulty band.
+         */
+        GAME_CREATED,
+        /**
+         * A letter was tried. The text is the letter.
+         */
+        LETTER_GUESSED,
+        /**
+         * The current word was skipped. The text is the difficulty band of the next rounds.
+         */
+        WORD_SKIPPED,
+        /**
+         * A word pool was added to the dictionary. The text is the identifier of the pool,
+         * the number is its word count.
+         */
+        WORDS_ADDED,
+        /**
+         * A new round has started. The text is the new word, the number is its draw in the dictionary.
+         */
+        ROUND_STARTED
+    }
+
+    private final Long gameId;
+    private final int revision;
+    private final Type type;
+    private final String text;
+    private final int number;
+    /**
+     * The time of the event, in milliseconds since the epoch.
+     */
+    private final long timestamp;
+
+    /**
+     * Create an event of a game.
+     * @param gameId The identifier of the game.
+     * @param revision The revision of the game after the event.
+     * @param type The kind of the event.
+     * @param text The text value of the event (see `Type`).
+     * @param number The numeric value of the event (see `Type`), or 0.
+     * @param timestamp The time of the event, in milliseconds since the epoch.
+     */
+    public GameEvent(Long gameId, int revision, Type type, String text, int number, long timestamp) {
+        this.gameId = gameId;
+        this.revision = revision;
+        this.type = type;
+        this.text = text;
+        this.number = number;
+        this.timestamp = timestamp;
+    }
+
+    private static GameEvent of(HangmanGame game, Type type, String text, int number) {
+        return new GameEvent(game.getId(), game.getRevision(), type, text, number, System.currentTimeMillis());
+    }
+
+    public static GameEvent gameCreated(HangmanGame game) {
+        return of(game, Type.GAME_CREATED, game.getDifficulty().name(), 0);
+    }
+
+    public static GameEvent letterGuessed(HangmanGame game, String letter) {
+        return of(game, Type.LETTER_GUESSED, letter.toLowerCase(), 0);
+    }
+
+    public static GameEvent wordSkipped(HangmanGame game) {
+        return of(game, Type.WORD_SKIPPED, game.getDifficulty().name(), 0);
+    }
+
+    public static GameEvent wordsAdded(HangmanGame game, WordPool pool) {
+        return of(game, Type.WORDS_ADDED, pool.getId(), pool.size());
+    }
+
+    public static GameEvent roundStarted(HangmanGame game) {
+        return of(game, Type.ROUND_STARTED, game.getCurrentWord(), game.getDictionary().getLastDraw());
+    }
+
+    public Long getGameId() { return gameId; }
+    public int getRevision() { return revision; }
+    public Type getType() { return type; }
+    public String getText() { return text; }
+    public int getNumber() { return number; }
+    public long getTimestamp() { return timestamp; }
+
+    /**
+     * toString() implementation for the GameEvent class.
+     * @return String representation the GameEvent object.
+     */
+    @Override
+    public String toString() {
+        return "GameEvent { gameId=" + gameId + ", revision=" + revision + ", type=" + type + " }";
+    }
+}
@@ -0,0 +1,91 @@
+package pl.kmolski.hangman.model;
+
+/**
+ * Summary of a saved game, used for listing the game saves.
+ *
+ * This class contains only the values that are displayed in the list,
+ * so the dictionaries of the saved games do not have to be loaded.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class GameSaveSummary {
+    /**
+     * The identifier of the saved game.
+     */
+    private final Long id;
+    /**
+     * The current word of the saved game, with secret characters masked out.
+     */
+    private final String maskedWord;
+    /**
+     * Incorrect guess count.
+     */
+    private final int misses;
+    /**
+     * Number of words that were guessed correctly.
+     */
+    private final int wordsGuessed;
+    /**
+     * Number of words left in the dictionary.
+     */
+    private final int wordsRemaining;
+
+    /**
+     * Create a summary from the columns of a saved game.
+     * @param id The identifier of the saved game.
+     * @param currentWord The current word of the saved game.
+     * @param triedLetters The letters that have been tried in the current round.
+     * @param misses Incorrect guess count.
+     * @param wordsGuessed Number of words that were guessed correctly.
+     * @param wordCount Number of words in the dictionary of the saved game.
+     */
+    public GameSaveSummary(Long id, String currentWord, String triedLetters,
+                           int misses, int wordsGuessed, int wordCount) {
+        this.id = id;
+        this.maskedWord = (currentWord != null) ? HangmanGame.maskWord(currentWord, triedLetters) : "";
+        this.misses = misses;
+        this.wordsGuessed = wordsGuessed;
+        this.wordsRemaining = wordCount - wordsGuessed;
+    }
+
+    /**
+     * Get the identifier of the saved game.
+     * @return The HangmanGame identifier
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Get the current word of the saved game, with secret characters masked out.
+     * @return The masked word.
+     */
+    public String getMaskedWord() {
+        return maskedWord;
+    }
+
+    /**
+     * Get the incorrect guess count.
+     * @return The number of incorrect guesses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of words that have been guessed correctly.
+     * @return The correct guess count.
+     */
+    public int getWordsGuessed() {
+        return wordsGuessed;
+    }
+
+    /**
+     * Get the number of words left in the dictionary.
+     * @return The remaining words count.
+     */
+    public int getWordsRemaining() {
+        return wordsRemaining;
+    }
+}
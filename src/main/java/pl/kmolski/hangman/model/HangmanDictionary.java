@@ -1,26 +1,38 @@
 package pl.kmolski.hangman.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * Dictionary implementation for hangman.
  *
  * This class is a container for words and supports the following operations:
- * adding new words, taking a random word, checking if the dictionary is empty.
+ * adding new words, taking a random word, checking if the dictionary is empty,
+ * finding the words that are already in the dictionary.
+ *
+ * The words are kept in shared word pools. The dictionary only records which of
+ * the pooled words have already been taken: the words are grouped into difficulty buckets
+ * (see WordBuckets), the words of every bucket are treated as a virtual array of indices
+ * that is shuffled one step at a time (Fisher-Yates), and only the positions that hold
+ * an index different from their own position are stored. A word of a difficulty band is
+ * taken in constant time, from a bucket that is picked with a probability proportional
+ * to its remaining words. Every draw is identified by its bucket and position, so that it can be
+ * repeated on an equal dictionary (see `takeWordAt()`).
  *
  * @author Krzysztof Molski
- * @version 1.0.6
+ * @version 1.6.0
  */
 @Entity
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="dictionary_saves")
 public class HangmanDictionary implements Serializable {
     /**
@@ -36,33 +48,317 @@ public class HangmanDictionary implements Serializable {
     @Column(name="dict_id")
     private Long id;
     /**
-     * An ArrayList that contains the dictionary's words.
+     * The shared word pools that contain the dictionary's words.
+     */
+    @ManyToMany(fetch=FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
+    @JoinTable(name="dictionary_pools",
+               joinColumns=@JoinColumn(name="dict_id"),
+               inverseJoinColumns=@JoinColumn(name="pool_id"))
+    @OrderColumn(name="pool_order")
+    @NotNull
+    private final List<WordPool> pools = new ArrayList<>();
+    /**
+     * Word indices that were moved by taking words, keyed by their bucket and current position
+     * (see `key()`). In every bucket, the positions below the number of its taken words have been taken.
+     */
+    @ElementCollection(fetch=FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name="dictionary_draws", joinColumns=@JoinColumn(name="dict_id"))
+    @MapKeyColumn(name="position")
+    @Column(name="word_index")
+    @NotNull
+    private final Map<Integer, Integer> displaced = new HashMap<>();
+    /**
+     * Number of words that have been taken from every bucket. Dictionaries that were saved before
+     * the words were bucketed have no entries, their draws are converted when they are first needed.
      */
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch=FetchType.EAGER)
     @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name="dictionary_bucket_draws", joinColumns=@JoinColumn(name="dict_id"))
+    @MapKeyColumn(name="bucket")
+    @Column(name="drawn_count")
     @NotNull
-    private final List<String> words = new ArrayList<>();
+    private final Map<Integer, Integer> bucketDraws = new HashMap<>();
     /**
      * Random number generator that is used to generate array indices.
      */
     @Transient
     private final Random randomGenerator = new Random();
+    /**
+     * Index of the first word of each pool in every bucket, followed by the bucket size.
+     * Extended when a pool is added, rebuilt when missing.
+     */
+    @Transient
+    private int[][] bucketOffsets;
+    /**
+     * The bucket and position of the last taken word (see `key()`), or -1 if no word has been taken.
+     */
+    @Transient
+    private int lastDraw = -1;
     /**
      * The number of words inside the dictionary.
      */
     @NotNull
     private int wordCount = 0;
+    /**
+     * The number of words that have been taken from the dictionary.
+     */
+    @NotNull
+    private int drawnCount = 0;
 
     /**
-     * Pick a random word (the selected word is removed from the dictionary).
+     * Create an empty dictionary.
+     */
+    public HangmanDictionary() { }
+
+    /**
+     * Restore a dictionary from its encoded state.
+     * @param id The identifier of the dictionary in the database.
+     * @param pools The word pools of the dictionary.
+     * @param drawnCount The number of words that have been taken.
+     * @param displaced The word indices that were moved by taking words.
+     * @param bucketDraws The number of words that have been taken from every bucket.
+     */
+    HangmanDictionary(Long id, List<WordPool> pools, int drawnCount, Map<Integer, Integer> displaced,
+                      Map<Integer, Integer> bucketDraws) {
+        this.id = id;
+        for (var pool : pools) { addWordPool(pool); }
+        this.drawnCount = drawnCount;
+        this.displaced.putAll(displaced);
+        this.bucketDraws.putAll(bucketDraws);
+    }
+
+    /**
+     * Pick a random word of any difficulty (the selected word is removed from the dictionary).
+     * This operation takes constant time, regardless of the dictionary size.
      * @return A random word from the dictionary.
      */
     public String takeWord() {
-        if (words.isEmpty()) {
+        return takeWord(Difficulty.ANY);
+    }
+
+    /**
+     * Pick a random word of the given difficulty (the selected word is removed from the dictionary).
+     * If there are no words of that difficulty left, a word of any difficulty is picked.
+     * This operation takes constant time, regardless of the dictionary size.
+     * @param difficulty The difficulty band of the word.
+     * @return A random word from the dictionary.
+     */
+    public String takeWord(Difficulty difficulty) {
+        if (isEmpty()) {
             return null;
-        } else {
-            int randomIndex = randomGenerator.nextInt(words.size());
-            return words.remove(randomIndex);
+        }
+
+        ensureBuckets();
+        int remaining = countRemaining(difficulty);
+        if (remaining == 0) {
+            difficulty = Difficulty.ANY;
+            remaining = wordCount - drawnCount;
+        }
+
+        int choice = randomGenerator.nextInt(remaining);
+        int bucket = 0;
+        for (; bucket < WordBuckets.COUNT; ++bucket) {
+            if (!difficulty.includes(bucket)) { continue; }
+
+            int left = bucketSize(bucket) - drawnIn(bucket);
+            if (choice < left) { break; }
+            choice -= left;
+        }
+
+        int position = drawnIn(bucket) + choice;
+        int index = take(bucket, position);
+        lastDraw = key(bucket, position);
+        return wordAt(bucket, index);
+    }
+
+    /**
+     * Take the word of an earlier draw again, e.g. when the draws of a game are replayed
+     * on its saved dictionary. The draw must have been made on a dictionary in the same state.
+     * @param draw The bucket and position of the draw, as returned by `getLastDraw()`.
+     * @return The word that was taken by the draw.
+     * @throws IllegalArgumentException Thrown if the position of the draw has already been taken, or does not exist.
+     */
+    public String takeWordAt(int draw) {
+        ensureBuckets();
+        int bucket = draw % WordBuckets.COUNT;
+        int position = draw / WordBuckets.COUNT;
+        if (draw < 0 || position < drawnIn(bucket) || position >= bucketSize(bucket)) {
+            throw new IllegalArgumentException("invalid draw: " + draw);
+        }
+
+        int index = take(bucket, position);
+        lastDraw = draw;
+        return wordAt(bucket, index);
+    }
+
+    /**
+     * Get the draw of the last word that was taken from this instance.
+     * @return The bucket and position of the draw, or -1 if no word has been taken.
+     */
+    public int getLastDraw() {
+        return lastDraw;
+    }
+
+    /**
+     * Take the word at the given position of a bucket, by swapping it with the first word that has not been taken.
+     * @param bucket The bucket.
+     * @param position Position in the virtual array of the bucket, not below its number of taken words.
+     * @return The index of the taken word in the bucket.
+     */
+    private int take(int bucket, int position) {
+        int drawn = drawnIn(bucket);
+        int index = indexAt(bucket, position);
+        if (position != drawn) {
+            int firstIndex = indexAt(bucket, drawn);
+            if (firstIndex == position) {
+                displaced.remove(key(bucket, position));
+            } else {
+                displaced.put(key(bucket, position), firstIndex);
+            }
+        }
+
+        displaced.remove(key(bucket, drawn));
+        bucketDraws.put(bucket, drawn + 1);
+        ++drawnCount;
+        return index;
+    }
+
+    /**
+     * Get the key of a position of a bucket in `displaced`.
+     * @param bucket The bucket.
+     * @param position Position in the virtual array of the bucket.
+     * @return The key.
+     */
+    private static int key(int bucket, int position) {
+        return position * WordBuckets.COUNT + bucket;
+    }
+
+    /**
+     * Get the word index that is stored at the given position of the virtual array of a bucket.
+     * @param bucket The bucket.
+     * @param position Position in the virtual array.
+     * @return The index of the word in the bucket.
+     */
+    private int indexAt(int bucket, int position) {
+        return displaced.getOrDefault(key(bucket, position), position);
+    }
+
+    private int drawnIn(int bucket) {
+        return bucketDraws.getOrDefault(bucket, 0);
+    }
+
+    private int bucketSize(int bucket) {
+        return bucketOffsets[bucket][pools.size()];
+    }
+
+    /**
+     * Count the words of a difficulty band that have not been taken.
+     * @param difficulty The difficulty band.
+     * @return The number of remaining words.
+     */
+    private int countRemaining(Difficulty difficulty) {
+        int remaining = 0;
+        for (int bucket = 0; bucket < WordBuckets.COUNT; ++bucket) {
+            if (difficulty.includes(bucket)) {
+                remaining += bucketSize(bucket) - drawnIn(bucket);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Find the word with the given index of a bucket in the word pools.
+     * @param bucket The bucket.
+     * @param index Index of the word in the bucket.
+     * @return The word.
+     */
+    private String wordAt(int bucket, int index) {
+        int pool = poolAt(bucketOffsets[bucket], index);
+        var wordPool = pools.get(pool);
+        return wordPool.getWord(wordPool.getBuckets().get(bucket, index - bucketOffsets[bucket][pool]));
+    }
+
+    /**
+     * Find the pool that contains the word with the given index. Empty pools that start at the same index are skipped.
+     * @param offsets Index of the first word of each pool.
+     * @param index Index of the word.
+     * @return Index of the pool.
+     */
+    private int poolAt(int[] offsets, int index) {
+        int low = 0;
+        int high = pools.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Build the bucket offsets of the pools if they are not available, and convert the draws
+     * of a dictionary that was saved before the words were bucketed.
+     */
+    private void ensureBuckets() {
+        if (bucketOffsets == null) {
+            bucketOffsets = new int[WordBuckets.COUNT][pools.size() + 1];
+            for (int pool = 0; pool < pools.size(); ++pool) {
+                addBucketOffsets(pool);
+            }
+        }
+        if (bucketDraws.isEmpty() && drawnCount > 0) {
+            convertDraws();
+        }
+    }
+
+    private void addBucketOffsets(int pool) {
+        var buckets = pools.get(pool).getBuckets();
+        for (int bucket = 0; bucket < WordBuckets.COUNT; ++bucket) {
+            bucketOffsets[bucket][pool + 1] = bucketOffsets[bucket][pool] + buckets.size(bucket);
+        }
+    }
+
+    /**
+     * Convert the draws of a dictionary that was saved before the words were bucketed. All pooled words
+     * formed a single virtual array, and its positions below `drawnCount` held the taken words, which are
+     * taken again from their buckets. This operation takes time proportional to the number of taken words.
+     */
+    private void convertDraws() {
+        var poolStarts = new int[pools.size()];
+        for (int pool = 1; pool < pools.size(); ++pool) {
+            poolStarts[pool] = poolStarts[pool - 1] + pools.get(pool - 1).size();
+        }
+
+        var legacyDisplaced = new HashMap<>(displaced);
+        int taken = drawnCount;
+        displaced.clear();
+        drawnCount = 0;
+        // Current positions of the moved word indices, keyed like `displaced`.
+        var positions = new HashMap<Integer, Integer>();
+        for (int legacyPosition = 0; legacyPosition < taken; ++legacyPosition) {
+            int legacyIndex = legacyDisplaced.getOrDefault(legacyPosition, legacyPosition);
+            int pool = poolAt(poolStarts, legacyIndex);
+            var wordPool = pools.get(pool);
+            int poolIndex = legacyIndex - poolStarts[pool];
+            int bucket = WordBuckets.bucketOf(wordPool.getWord(poolIndex));
+            int index = bucketOffsets[bucket][pool] + wordPool.getBuckets().positionOf(bucket, poolIndex);
+
+            int position = positions.getOrDefault(key(bucket, index), index);
+            int drawn = drawnIn(bucket);
+            int firstIndex = indexAt(bucket, drawn);
+            take(bucket, position);
+            positions.remove(key(bucket, index));
+            if (position != drawn) {
+                positions.put(key(bucket, firstIndex), position);
+            }
         }
     }
 
@@ -72,8 +368,93 @@ public class HangmanDictionary implements Serializable {
      */
     public void addWords(Collection<String> words) {
         if (words == null) { return; }
-        this.words.addAll(words);
-        this.wordCount += words.size();
+        addWordPool(WordPool.of(words));
+    }
+
+    /**
+     * Add the words of a shared word pool to the dictionary. The words are not copied.
+     * @param pool The word pool to be added.
+     */
+    public void addWordPool(WordPool pool) {
+        if (pool == null) { return; }
+        if ((long) (wordCount + pool.size()) * WordBuckets.COUNT > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many words in the dictionary");
+        }
+
+        pools.add(pool);
+        wordCount += pool.size();
+        if (bucketOffsets != null) {
+            for (int bucket = 0; bucket < WordBuckets.COUNT; ++bucket) {
+                bucketOffsets[bucket] = Arrays.copyOf(bucketOffsets[bucket], pools.size() + 1);
+            }
+            addBucketOffsets(pools.size() - 1);
+        }
+    }
+
+    /**
+     * Remove the words that are already in the dictionary, and the repeated words, from a list of new words.
+     * The words of every pool are looked up by their hashes (see WordPool.contains()), so this operation
+     * takes constant time per word and pool. The words that have already been taken are also found.
+     * @param words The new words.
+     * @return The new words without duplicates, in their original order.
+     */
+    public List<String> removeDuplicates(Collection<String> words) {
+        var result = new ArrayList<String>(words.size());
+        var seen = new LongHashSet(words.size());
+        for (String word : words) {
+            long hash = LongHashSet.hash(word);
+            if (seen.add(hash) && !containsHash(hash)) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the dictionary contains a word.
+     * @param word The word.
+     * @return true if one of the word pools contains the word.
+     */
+    public boolean contains(String word) {
+        return containsHash(LongHashSet.hash(word));
+    }
+
+    private boolean containsHash(long hash) {
+        for (var pool : pools) {
+            if (pool.containsHash(hash)) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Replace the word pools with equal instances, e.g. the canonical instances that are shared by all games.
+     * @param interner Function that returns the instance that should be used in place of the given pool.
+     */
+    public void internWordPools(UnaryOperator<WordPool> interner) {
+        pools.replaceAll(interner);
+        bucketOffsets = null;
+    }
+
+    /**
+     * Check whether the word pools contain all words of the dictionary, and all the words that have been taken.
+     * The words are missing if a pool could not be resolved to its words, e.g. an empty placeholder of
+     * a mapped pool that was stored by an earlier version. Such a dictionary can not be used.
+     * @return true if the words of the dictionary are available.
+     */
+    public boolean hasAllWords() {
+        long poolWords = 0;
+        for (var pool : pools) {
+            poolWords += pool.size();
+        }
+        if (poolWords != wordCount || drawnCount > wordCount) {
+            return false;
+        }
+
+        ensureBuckets();
+        for (int bucket = 0; bucket < WordBuckets.COUNT; ++bucket) {
+            if (drawnIn(bucket) > bucketSize(bucket)) { return false; }
+        }
+        return true;
     }
 
     /**
@@ -81,7 +462,27 @@ public class HangmanDictionary implements Serializable {
      * @return true if the dictionary is empty.
      */
     public boolean isEmpty() {
-        return words.isEmpty();
+        return drawnCount >= wordCount;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    List<WordPool> getPools() {
+        return Collections.unmodifiableList(pools);
+    }
+
+    int getDrawnCount() {
+        return drawnCount;
+    }
+
+    Map<Integer, Integer> getDisplaced() {
+        return Collections.unmodifiableMap(displaced);
+    }
+
+    Map<Integer, Integer> getBucketDraws() {
+        return Collections.unmodifiableMap(bucketDraws);
     }
 
     /**
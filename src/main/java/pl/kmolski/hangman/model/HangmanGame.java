@@ -1,29 +1,41 @@
 package pl.kmolski.hangman.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Model implementation for hangman.
  *
  * This class implements most of the game's logic - starting a new round,
  * guessing letters, managing the dictionary and win/lose conditions.
+ * The words of the rounds are taken from the difficulty band chosen by the player.
+ * Every change of the game increments its revision, which identifies the version of its state.
+ * The changes recorded as game events can be replayed on an earlier state of the game.
  *
  * @author Krzysztof Molski
- * @version 1.1.0
+ * @version 1.15.0
  */
 @Entity
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="game_saves")
 public class HangmanGame implements Serializable {
     /**
      * The maximum number of incorrect guesses.
      */
-    private static final int MAX_MISSES = 6;
+    public static final int MAX_MISSES = 6;
 
     /**
      * The identifier of the HangmanGame instance in the database.
@@ -60,6 +72,49 @@ public class HangmanGame implements Serializable {
      */
     @NotNull
     private int wordsGuessed = 0;
+    /**
+     * The difficulty band of the words of the next rounds. Null in games that were saved before
+     * the difficulty could be chosen, which use words of any difficulty.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length=16)
+    private Difficulty difficulty = Difficulty.ANY;
+    /**
+     * Version of the saved game, used for optimistic locking.
+     */
+    @Version
+    @NotNull
+    private int version = 0;
+    /**
+     * Number of changes of the game, which identifies the version of its state (e.g. in HTTP ETags).
+     * Unlike `version`, it is incremented as soon as the game changes, not when the game is saved.
+     */
+    @NotNull
+    private int revision = 0;
+    /**
+     * The application instance whose pool of new games (see GamePool) holds the game, or null if the game
+     * has been handed out to a player. The saves of the games that are waiting in a pool are not listed or loaded.
+     * Clearing the owner does not change the version of the save, so it does not conflict with the updates of the player.
+     */
+    @OptimisticLock(excluded=true)
+    private String poolOwner = null;
+
+    /**
+     * Whether the dictionary has changed since the game was last saved.
+     */
+    @Transient
+    private boolean dictionaryModified = false;
+
+    /**
+     * Set of the tried letters, indexed by character. Rebuilt from `guessedLetters` when missing.
+     */
+    @Transient
+    private BitSet guessedSet;
+    /**
+     * Number of characters in the current word that have not been guessed yet.
+     */
+    @Transient
+    private int hiddenLetters;
 
     /**
      * The zero-argument constructor required for the JPA Entity annotation.
@@ -75,25 +130,222 @@ public class HangmanGame implements Serializable {
     }
 
     /**
-     * Add new words to the dictionary. Duplicates are not removed.
+     * Restore a game from its encoded state.
+     */
+    HangmanGame(Long id, int version, int revision, HangmanDictionary dictionary, String currentWord,
+                String guessedLetters, int misses, int wordsGuessed, Difficulty difficulty,
+                boolean dictionaryModified) {
+        this.id = id;
+        this.version = version;
+        this.revision = revision;
+        this.dictionary = dictionary;
+        this.currentWord = currentWord;
+        this.guessedLetters = guessedLetters;
+        this.misses = misses;
+        this.wordsGuessed = wordsGuessed;
+        this.difficulty = difficulty;
+        this.dictionaryModified = dictionaryModified;
+    }
+
+    /**
+     * Add new words to the dictionary. Duplicates are not removed (see `removeDuplicates()`).
      * @param words Collection of words to be added.
      */
     public void addWords(Collection<String> words) {
-        var wordList = words.stream()
-                            .map(String::trim)
-                            .map(s -> s.replaceAll("\\s+", " "))
-                            .map(String::toLowerCase)
-                            .collect(Collectors.toList());
-        dictionary.addWords(wordList);
+        dictionary.addWords(normalizeWords(words));
+        dictionaryModified = true;
+        ++revision;
+    }
+
+    /**
+     * Add the words of a shared word pool to the dictionary. The words should already be normalized.
+     * @param pool The word pool to be added.
+     */
+    public void addWordPool(WordPool pool) {
+        dictionary.addWordPool(pool);
+        dictionaryModified = true;
+        ++revision;
+    }
+
+    /**
+     * Replace the word pools of the dictionary with their canonical, shared instances.
+     * @param interner Function that returns the canonical instance of a word pool.
+     */
+    public void internWordPools(UnaryOperator<WordPool> interner) {
+        dictionary.internWordPools(interner);
+    }
+
+    /**
+     * Check whether the word pools of the dictionary contain all its words (see HangmanDictionary.hasAllWords()).
+     * @return true if the words of the game are available.
+     */
+    public boolean hasAllWords() {
+        return dictionary.hasAllWords();
     }
 
     /**
-     * Start a new round of the game - select a new random word, reset the miss count and guessed letters.
+     * Remove the words that are already in the dictionary, and the repeated words, from a list
+     * of new (normalized) words.
+     * @param words The new words.
+     * @return The new words without duplicates, in their original order.
+     */
+    public List<String> removeDuplicates(Collection<String> words) {
+        return dictionary.removeDuplicates(words);
+    }
+
+    /**
+     * Normalize words for use in the game (see `normalizeWord()`).
+     * @param words Collection of words to be normalized.
+     * @return A list of normalized words.
+     */
+    public static List<String> normalizeWords(Collection<String> words) {
+        var normalized = new ArrayList<String>(words.size());
+        for (String word : words) {
+            normalized.add(normalizeWord(word));
+        }
+        return normalized;
+    }
+
+    /**
+     * Normalize a word for use in the game: surrounding whitespace is removed, inner whitespace
+     * (and other control characters) is collapsed to single spaces and the letters are lowercased.
+     * The word is normalized in a single pass, in the same way as by WordStreamReader,
+     * and a word that is already normalized is returned without copying.
+     * @param word The word to be normalized.
+     * @return The normalized word.
+     */
+    public static String normalizeWord(String word) {
+        int length = word.length();
+        int i = 0;
+        while (i < length && isNormal(word, i)) { ++i; }
+        if (i == length) { return word; }
+
+        var normalized = new StringBuilder(length);
+        normalized.append(word, 0, i);
+        boolean pendingSpace = false;
+        for (; i < length; ++i) {
+            char c = word.charAt(i);
+            if (c <= ' ') {
+                pendingSpace = (normalized.length() > 0);
+            } else {
+                if (pendingSpace) { normalized.append(' '); pendingSpace = false; }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Check whether a character of a word is already normalized: it is a lowercase character
+     * other than whitespace, or a single space between two such characters.
+     */
+    private static boolean isNormal(String word, int i) {
+        char c = word.charAt(i);
+        if (c == ' ') {
+            return i > 0 && i + 1 < word.length() && word.charAt(i + 1) > ' ';
+        }
+        return c > ' ' && Character.toLowerCase(c) == c;
+    }
+
+    /**
+     * Start a new round of the game - select a new random word of the chosen difficulty,
+     * reset the miss count and guessed letters.
      */
     public void nextRound() {
-        currentWord = dictionary.takeWord();
+        startRound(dictionary.takeWord(getDifficulty()));
+    }
+
+    private void startRound(String word) {
+        currentWord = word;
+        dictionaryModified = true;
         guessedLetters = " ";
         misses = 0;
+        guessedSet = null;
+        ensureGuessIndex();
+        ++revision;
+    }
+
+    /**
+     * Apply a recorded change to this game, which has to be in the state that preceded the change.
+     * Afterwards, the revision of the game is the revision of the event.
+     * @param event The game event.
+     * @param poolResolver Function that returns the word pool with the given identifier.
+     * @throws IllegalArgumentException Thrown if the event can not be applied, e.g. its word pool does not exist.
+     */
+    public void replay(GameEvent event, Function<String, WordPool> poolResolver) {
+        switch (event.getType()) {
+            case GAME_CREATED:
+                break;
+            case LETTER_GUESSED:
+                try {
+                    tryLetter(event.getText());
+                } catch (InvalidGuessException e) {
+                    throw new IllegalArgumentException("invalid recorded guess", e);
+                }
+                break;
+            case WORD_SKIPPED:
+                setDifficulty(Difficulty.valueOf(event.getText()));
+                break;
+            case WORDS_ADDED:
+                var pool = poolResolver.apply(event.getText());
+                if (pool == null) {
+                    throw new IllegalArgumentException("word pool " + event.getText() + " does not exist");
+                }
+                addWordPool(pool);
+                break;
+            case ROUND_STARTED:
+                var word = dictionary.takeWordAt(event.getNumber());
+                if (!word.equals(event.getText())) {
+                    throw new IllegalArgumentException("the recorded draw does not match the dictionary");
+                }
+                startRound(word);
+                break;
+        }
+        revision = event.getRevision();
+    }
+
+    /**
+     * Build the guessed letter set and the hidden letter counter, if they are not available.
+     * This is needed after the game is loaded from the database or deserialized.
+     */
+    private void ensureGuessIndex() {
+        if (guessedSet != null) { return; }
+
+        guessedSet = new BitSet();
+        if (guessedLetters != null) {
+            for (int i = 0; i < guessedLetters.length(); ++i) {
+                guessedSet.set(guessedLetters.charAt(i));
+            }
+        }
+
+        hiddenLetters = 0;
+        if (currentWord != null) {
+            for (int i = 0; i < currentWord.length(); ++i) {
+                if (!guessedSet.get(currentWord.charAt(i))) { ++hiddenLetters; }
+            }
+        }
+    }
+
+    HangmanDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get the difficulty band of the words of the next rounds.
+     * @return The difficulty band.
+     */
+    public Difficulty getDifficulty() {
+        return (difficulty != null) ? difficulty : Difficulty.ANY;
+    }
+
+    /**
+     * Choose the difficulty band of the words of the next rounds. The current word does not change.
+     * @param difficulty The difficulty band.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        if (difficulty == getDifficulty()) { return; }
+        this.difficulty = difficulty;
+        ++revision;
     }
 
     /**
@@ -104,22 +356,117 @@ public class HangmanGame implements Serializable {
         return id;
     }
 
+    /**
+     * Get the version of the saved game.
+     * @return The version that was last written to the database.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the revision of the game state.
+     * @return The number of changes of the game.
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Check whether the game is waiting in the pool of new games.
+     * @return true if the game has not been handed out to a player yet.
+     */
+    public boolean isPooled() {
+        return poolOwner != null;
+    }
+
+    /**
+     * Get the application instance whose pool of new games holds the game.
+     * @return The owner of the pool, or null if the game has been handed out to a player.
+     */
+    public String getPoolOwner() {
+        return poolOwner;
+    }
+
+    /**
+     * Mark the game as waiting in the pool of new games of an application instance, or as handed out to a player.
+     * The revision of the game does not change.
+     * @param poolOwner The owner of the pool, or null if the game is handed out.
+     */
+    public void setPoolOwner(String poolOwner) {
+        this.poolOwner = poolOwner;
+    }
+
+    /**
+     * Check whether the dictionary has changed since the game was last saved. If it has not,
+     * saving the game only needs to update its own columns.
+     * @return true if the dictionary has changed.
+     */
+    public boolean isDictionaryModified() {
+        return dictionaryModified;
+    }
+
+    /**
+     * Record that the game has been saved.
+     * @param version The version that was written to the database.
+     */
+    public void markSaved(int version) {
+        this.version = version;
+        this.dictionaryModified = false;
+    }
+
+    /**
+     * Copy the state of the game, except for its dictionary, to the managed instance of its save
+     * (see `HangmanGameRepository.update()`). The version of the save is not changed.
+     * @param save The saved instance of this game.
+     */
+    public void copyStateTo(HangmanGame save) {
+        save.currentWord = currentWord;
+        save.guessedLetters = guessedLetters;
+        save.misses = misses;
+        save.wordsGuessed = wordsGuessed;
+        save.difficulty = difficulty;
+        save.revision = revision;
+        save.poolOwner = poolOwner;
+        save.guessedSet = null;
+    }
+
     /**
      * Return the word that is being guessed right now, letters that
      * have not been tried so far are replaced with `_` characters.
-     * @return The current word with secret characters masked out.
+     * @return The current word with secret characters masked out, or an empty
+     *         string if all words have been taken (the game is over).
      */
     public String getMaskedWord() {
-        String word;
+        ensureGuessIndex();
+        return mask(currentWord, guessedSet);
+    }
 
-        if (guessedLetters.length() == 0) {
-            word = "_".repeat(currentWord.length());
-        } else {
-            String pattern = "[^" + Pattern.quote(guessedLetters) + "]";
-            word = currentWord.replaceAll(pattern, "_");
+    /**
+     * Mask a word in the same way as `getMaskedWord()`, without creating a game.
+     * @param word The word to be masked.
+     * @param triedLetters The letters that have been tried so far.
+     * @return The word with secret characters masked out.
+     */
+    public static String maskWord(String word, String triedLetters) {
+        var triedSet = new BitSet();
+        for (int i = 0; i < triedLetters.length(); ++i) {
+            triedSet.set(triedLetters.charAt(i));
         }
+        return mask(word, triedSet);
+    }
+
+    private static String mask(String word, BitSet triedSet) {
+        int length = (word != null) ? word.length() : 0;
+        if (length == 0) { return ""; }
 
-        return word.chars().mapToObj(Character::toString).collect(Collectors.joining(" "));
+        var masked = new char[2 * length - 1];
+        for (int i = 0; i < length; ++i) {
+            char c = word.charAt(i);
+            masked[2 * i] = triedSet.get(c) ? c : '_';
+            if (i > 0) { masked[2 * i - 1] = ' '; }
+        }
+        return new String(masked);
     }
 
     /**
@@ -135,8 +482,8 @@ public class HangmanGame implements Serializable {
      * @return true if the current word has been guessed correctly.
      */
     public boolean isRoundOver() {
-        String pattern = "[" + Pattern.quote(guessedLetters) + "]";
-        return currentWord.replaceAll(pattern, "").isEmpty();
+        ensureGuessIndex();
+        return hiddenLetters == 0;
     }
 
     /**
@@ -163,14 +510,35 @@ public class HangmanGame implements Serializable {
             throw new InvalidGuessException("invalid guess: " + lowercaseGuess);
         }
 
-        guessedLetters += lowercaseGuess;
-        boolean isGuessInWord = currentWord.contains(lowercaseGuess);
+        ensureGuessIndex();
+        ++revision;
+        char letter = lowercaseGuess.charAt(0);
+        boolean isGuessInWord = currentWord.indexOf(letter) >= 0;
+
+        if (!guessedSet.get(letter)) {
+            guessedSet.set(letter);
+            guessedLetters += lowercaseGuess;
+            if (isGuessInWord) { hiddenLetters -= countOccurrences(letter); }
+        }
         if (!isGuessInWord) { ++misses; }
 
-        if (isRoundOver()) { ++wordsGuessed; }
+        if (hiddenLetters == 0) { ++wordsGuessed; }
         return isGuessInWord;
     }
 
+    /**
+     * Count the occurrences of a character in the current word.
+     * @param letter The character to count.
+     * @return The number of occurrences.
+     */
+    private int countOccurrences(char letter) {
+        int count = 0;
+        for (int i = 0; i < currentWord.length(); ++i) {
+            if (currentWord.charAt(i) == letter) { ++count; }
+        }
+        return count;
+    }
+
     /**
      * Get the word that is currently being guessed.
      * @return The current word.
@@ -184,9 +552,22 @@ public class HangmanGame implements Serializable {
      * @return The guessed letters in ascending order.
      */
     public String getGuessedLetters() {
-        return guessedLetters.chars().distinct().sorted()
-                             .mapToObj(Character::toString)
-                             .collect(Collectors.joining(" "));
+        ensureGuessIndex();
+
+        var builder = new StringBuilder(2 * guessedSet.cardinality());
+        for (int c = guessedSet.nextSetBit(0); c >= 0; c = guessedSet.nextSetBit(c + 1)) {
+            if (builder.length() > 0) { builder.append(' '); }
+            builder.append((char) c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the tried letters in the order they were tried, as they are stored in the database.
+     * @return The tried letters.
+     */
+    public String getTriedLetters() {
+        return guessedLetters;
     }
 
     /**
@@ -0,0 +1,198 @@
+package pl.kmolski.hangman.model;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Compact binary codec for the state of HangmanGame objects.
+ *
+ * The words of the dictionary are not encoded, only the identifiers of its word pools,
+ * so the encoded size does not depend on the number of words. The pools are resolved
+ * by their identifiers when the game is decoded. States of the earlier versions, which have no
+ * revision (and in the first version, no difficulty and no bucket draws), can still be decoded.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.1
+ */
+public final class HangmanGameCodec {
+    /**
+     * Version of the encoding, written as the first byte.
+     */
+    private static final int FORMAT_VERSION = 3;
+    /**
+     * Length of a word pool identifier (SHA-256 hash), in bytes.
+     */
+    private static final int POOL_ID_BYTES = 32;
+
+    private HangmanGameCodec() { }
+
+    /**
+     * Encode the state of the game.
+     * @param game The game state object.
+     * @return The encoded game state.
+     */
+    public static byte[] encode(HangmanGame game) {
+        var bytes = new ByteArrayOutputStream(64);
+        try (var output = new DataOutputStream(bytes)) {
+            var dictionary = game.getDictionary();
+            output.writeByte(FORMAT_VERSION);
+            writeNullableLong(output, game.getId());
+            writeVarInt(output, game.getVersion());
+            writeVarInt(output, game.getRevision());
+            writeNullableString(output, game.getCurrentWord());
+            writeNullableString(output, game.getTriedLetters());
+            writeVarInt(output, game.getMisses());
+            writeVarInt(output, game.getWordsGuessed());
+            output.writeByte(game.getDifficulty().ordinal());
+            output.writeBoolean(game.isDictionaryModified());
+
+            writeNullableLong(output, dictionary.getId());
+            writeVarInt(output, dictionary.getDrawnCount());
+            writeVarInt(output, dictionary.getPools().size());
+            for (var pool : dictionary.getPools()) {
+                writePoolId(output, pool.getId());
+            }
+            writeVarInt(output, dictionary.getDisplaced().size());
+            for (var entry : dictionary.getDisplaced().entrySet()) {
+                writeVarInt(output, entry.getKey());
+                writeVarInt(output, entry.getValue());
+            }
+            writeVarInt(output, dictionary.getBucketDraws().size());
+            for (var entry : dictionary.getBucketDraws().entrySet()) {
+                writeVarInt(output, entry.getKey());
+                writeVarInt(output, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode the state of a game.
+     * @param encoded The encoded game state.
+     * @param poolResolver Function that returns the word pool with the given identifier.
+     * @return The game state object.
+     * @throws IllegalArgumentException Thrown if the state can not be decoded, or the words of a word pool are missing.
+     */
+    public static HangmanGame decode(byte[] encoded, Function<String, WordPool> poolResolver) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int formatVersion = input.readUnsignedByte();
+            if (formatVersion < 1 || formatVersion > FORMAT_VERSION) {
+                throw new IllegalArgumentException("unsupported game state format: " + formatVersion);
+            }
+
+            var id = readNullableLong(input);
+            int version = readVarInt(input);
+            int revision = (formatVersion >= 3) ? readVarInt(input) : 0;
+            var currentWord = readNullableString(input);
+            var guessedLetters = readNullableString(input);
+            int misses = readVarInt(input);
+            int wordsGuessed = readVarInt(input);
+            var difficulty = (formatVersion >= 2) ? readDifficulty(input) : Difficulty.ANY;
+            boolean dictionaryModified = input.readBoolean();
+
+            var dictionaryId = readNullableLong(input);
+            int drawnCount = readVarInt(input);
+            int poolCount = readVarInt(input);
+            var pools = new ArrayList<WordPool>(poolCount);
+            for (int i = 0; i < poolCount; ++i) {
+                var poolId = readPoolId(input);
+                var pool = poolResolver.apply(poolId);
+                if (pool == null) {
+                    throw new IllegalArgumentException("word pool " + poolId + " does not exist");
+                }
+                pools.add(pool);
+            }
+            int displacedCount = readVarInt(input);
+            var displaced = new HashMap<Integer, Integer>(displacedCount * 2);
+            for (int i = 0; i < displacedCount; ++i) {
+                displaced.put(readVarInt(input), readVarInt(input));
+            }
+            int bucketCount = (formatVersion >= 2) ? readVarInt(input) : 0;
+            var bucketDraws = new HashMap<Integer, Integer>(bucketCount * 2);
+            for (int i = 0; i < bucketCount; ++i) {
+                bucketDraws.put(readVarInt(input), readVarInt(input));
+            }
+
+            var dictionary = new HangmanDictionary(dictionaryId, pools, drawnCount, displaced, bucketDraws);
+            if (!dictionary.hasAllWords()) {
+                throw new IllegalArgumentException("the words of the dictionary are missing");
+            }
+            return new HangmanGame(id, version, revision, dictionary, currentWord, guessedLetters,
+                                   misses, wordsGuessed, difficulty, dictionaryModified);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("truncated game state", e);
+        }
+    }
+
+    private static Difficulty readDifficulty(DataInput input) throws IOException {
+        int ordinal = input.readUnsignedByte();
+        var values = Difficulty.values();
+        if (ordinal >= values.length) {
+            throw new IllegalArgumentException("unknown difficulty: " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    private static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) { return value; }
+        }
+        throw new IOException("malformed variable-length integer");
+    }
+
+    private static void writeNullableLong(DataOutput output, Long value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) { output.writeLong(value); }
+    }
+
+    private static Long readNullableLong(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readLong() : null;
+    }
+
+    private static void writeNullableString(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) { output.writeUTF(value); }
+    }
+
+    private static String readNullableString(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writePoolId(DataOutput output, String poolId) throws IOException {
+        if (poolId.length() != POOL_ID_BYTES * 2) {
+            throw new IllegalArgumentException("invalid word pool ID: " + poolId);
+        }
+        for (int i = 0; i < poolId.length(); i += 2) {
+            int high = Character.digit(poolId.charAt(i), 16);
+            int low = Character.digit(poolId.charAt(i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("invalid word pool ID: " + poolId);
+            }
+            output.writeByte((high << 4) | low);
+        }
+    }
+
+    private static String readPoolId(DataInput input) throws IOException {
+        var poolId = new StringBuilder(POOL_ID_BYTES * 2);
+        for (int i = 0; i < POOL_ID_BYTES; ++i) {
+            int b = input.readUnsignedByte();
+            poolId.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return poolId.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package pl.kmolski.hangman.model;
+
+/**
+ * Compact set of 64-bit word hashes, used for finding duplicate words.
+ *
+ * The hashes are stored in an open-addressing table of primitive longs with linear probing,
+ * so a set takes 16 bytes per element at most, and adding or finding a hash takes constant time.
+ * Two different words have the same hash with a probability of about 2^-64, so a set of a million
+ * words treats a new word as a duplicate with a probability of less than 10^-13.
+ * This class is not thread-safe.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public final class LongHashSet {
+    /**
+     * The initial capacity of the table.
+     */
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * The maximum capacity of the table.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The hash table, where 0 marks an empty slot.
+     */
+    private long[] table;
+    /**
+     * Whether the set contains 0, which can not be stored in the table.
+     */
+    private boolean containsZero = false;
+    /**
+     * The number of elements in the table.
+     */
+    private int tableSize = 0;
+
+    /**
+     * Create an empty set.
+     */
+    public LongHashSet() {
+        this(0);
+    }
+
+    /**
+     * Create an empty set that can hold the expected number of elements without growing.
+     * @param expectedSize The expected number of elements.
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity / 2 < expectedSize) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    /**
+     * Compute the 64-bit hash of a word (FNV-1a over the UTF-16 characters, followed by the MurmurHash3 finalizer).
+     * @param word The word.
+     * @return The hash of the word.
+     */
+    public static long hash(CharSequence word) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); ++i) {
+            hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Add an element to the set.
+     * @param value The element.
+     * @return true if the element was not in the set.
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+
+        int mask = table.length - 1;
+        int slot = (int) value & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == value) { return false; }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        if (++tableSize > table.length / 2) { grow(); }
+        return true;
+    }
+
+    /**
+     * Check whether the set contains an element.
+     * @param value The element.
+     * @return true if the element is in the set.
+     */
+    public boolean contains(long value) {
+        if (value == 0) { return containsZero; }
+
+        int mask = table.length - 1;
+        for (int slot = (int) value & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (table[slot] == value) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of elements in the set.
+     * @return The number of elements.
+     */
+    public int size() {
+        return tableSize + (containsZero ? 1 : 0);
+    }
+
+    private void grow() {
+        if (table.length == MAX_CAPACITY) {
+            throw new IllegalStateException("too many elements in the set");
+        }
+        var oldTable = table;
+        table = new long[oldTable.length * 2];
+        int mask = table.length - 1;
+        for (long value : oldTable) {
+            if (value == 0) { continue; }
+            int slot = (int) value & mask;
+            while (table[slot] != 0) { slot = (slot + 1) & mask; }
+            table[slot] = value;
+        }
+    }
+}
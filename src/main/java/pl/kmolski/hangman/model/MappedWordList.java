@@ -0,0 +1,281 @@
+package pl.kmolski.hangman.model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of words that is backed by a memory-mapped index file.
+ *
+ * The index file contains a header, a table of `size + 1` word offsets, the difficulty buckets
+ * of the words (see WordBuckets) and the UTF-8 encoded words, stored one after another. Opening
+ * an index only maps the file, so the words do not take up any heap space, and a word is only
+ * decoded when it is requested. The header contains the identifier of the words (the same as
+ * the identifier of a WordPool with these words), and the length and the modification time of
+ * the source file, which tell whether the index is up to date.
+ * A single index is limited to 2 GiB.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1.0
+ */
+public final class MappedWordList extends AbstractList<String> implements RandomAccess {
+    /**
+     * Magic number at the start of the index file ("HWIX").
+     */
+    private static final int MAGIC = 0x48574958;
+    /**
+     * Version of the index format.
+     */
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * Length of the word list identifier (SHA-256 hash), in bytes.
+     */
+    private static final int ID_BYTES = 32;
+    /**
+     * Length of the header: magic, version, source length and modification time, identifier,
+     * word count and length of the encoded words.
+     */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + ID_BYTES + 2 * Integer.BYTES;
+
+    /**
+     * The identifier of the words.
+     */
+    private final String id;
+    /**
+     * Length of the source file of the index.
+     */
+    private final long sourceLength;
+    /**
+     * Modification time of the source file of the index, in milliseconds since the epoch.
+     */
+    private final long sourceLastModified;
+    /**
+     * The word offsets, relative to the start of the encoded words.
+     */
+    private final IntBuffer offsets;
+    /**
+     * The difficulty buckets of the words.
+     */
+    private final WordBuckets buckets;
+    /**
+     * The encoded words.
+     */
+    private final ByteBuffer words;
+
+    private MappedWordList(String id, long sourceLength, long sourceLastModified, IntBuffer offsets,
+                           WordBuckets buckets, ByteBuffer words) {
+        this.id = id;
+        this.sourceLength = sourceLength;
+        this.sourceLastModified = sourceLastModified;
+        this.offsets = offsets;
+        this.buckets = buckets;
+        this.words = words;
+    }
+
+    /**
+     * Map an index file into memory.
+     * @param file The index file.
+     * @return The word list.
+     * @throws IOException Thrown if the file can not be read, or is not a valid index.
+     */
+    public static MappedWordList open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("invalid word index size: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("not a word index: " + file);
+        }
+        long sourceLength = buffer.getLong();
+        long sourceLastModified = buffer.getLong();
+        var id = new byte[ID_BYTES];
+        buffer.get(id);
+        int size = buffer.getInt();
+        int wordsLength = buffer.getInt();
+        if (size < 0 || wordsLength < 0 || (long) HEADER_BYTES + (size + 1L) * Integer.BYTES
+                + WordBuckets.byteLength(size) + wordsLength != buffer.capacity()) {
+            throw new IOException("truncated word index: " + file);
+        }
+
+        var offsets = buffer.slice().asIntBuffer();
+        offsets.limit(size + 1);
+        buffer.position(HEADER_BYTES + (size + 1) * Integer.BYTES);
+        var buckets = WordBuckets.read(buffer, size);
+        return new MappedWordList(WordPool.toHex(id), sourceLength, sourceLastModified, offsets, buckets,
+                                  buffer.slice());
+    }
+
+    /**
+     * Get the word at the specified index. The word is decoded on every call.
+     * @param index Index of the word.
+     * @return The word at the index.
+     */
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size());
+        int start = offsets.get(index);
+        var bytes = new byte[offsets.get(index + 1) - start];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = words.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return offsets.limit() - 1;
+    }
+
+    /**
+     * Get the identifier (content hash) of the words.
+     * @return The identifier.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the difficulty buckets of the words. The buckets are read from the index file.
+     * @return The bucket index.
+     */
+    public WordBuckets getBuckets() {
+        return buckets;
+    }
+
+    public long getSourceLength() { return sourceLength; }
+    public long getSourceLastModified() { return sourceLastModified; }
+
+    /**
+     * Writer of index files. The words are appended to a temporary file, which is turned
+     * into the index by `finish()`. Only the word offsets and buckets are kept in memory.
+     */
+    public static final class Writer implements Closeable {
+        /**
+         * The index file.
+         */
+        private final Path file;
+        /**
+         * Temporary file that contains the encoded words.
+         */
+        private final Path wordsFile;
+        /**
+         * Output stream of the encoded words.
+         */
+        private final OutputStream wordsOutput;
+        /**
+         * Digest of the identifier of the words.
+         */
+        private final MessageDigest digest = WordPool.newDigest();
+        /**
+         * The word offsets, the first `size + 1` elements are used.
+         */
+        private int[] offsets = new int[1024];
+        /**
+         * The difficulty buckets of the words, the first `size` elements are used.
+         */
+        private byte[] buckets = new byte[1024];
+        /**
+         * The number of words written so far.
+         */
+        private int size = 0;
+
+        /**
+         * Start writing an index file. The file is only replaced when the index is finished.
+         * @param file The index file.
+         * @throws IOException Thrown if the temporary file can not be created.
+         */
+        public Writer(Path file) throws IOException {
+            this.file = file.toAbsolutePath();
+            Files.createDirectories(this.file.getParent());
+            this.wordsFile = Files.createTempFile(this.file.getParent(), this.file.getFileName().toString(), ".words");
+            this.wordsOutput = new BufferedOutputStream(Files.newOutputStream(wordsFile));
+        }
+
+        /**
+         * Append a word to the index.
+         * @param word The word.
+         * @throws IOException Thrown if the word can not be written, or the index would be too large.
+         */
+        public void add(String word) throws IOException {
+            var bytes = word.getBytes(StandardCharsets.UTF_8);
+            long end = (long) offsets[size] + bytes.length;
+            if (end + (size + 2L) * Integer.BYTES + WordBuckets.byteLength(size + 1) + HEADER_BYTES
+                    > Integer.MAX_VALUE) {
+                throw new IOException("word index is too large: " + file);
+            }
+
+            wordsOutput.write(bytes);
+            WordPool.updateDigest(digest, bytes);
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                buckets = Arrays.copyOf(buckets, offsets.length);
+            }
+            buckets[size] = (byte) WordBuckets.bucketOf(word);
+            offsets[++size] = (int) end;
+        }
+
+        /**
+         * Write the index file and map it into memory.
+         * @param sourceLength Length of the source file of the words.
+         * @param sourceLastModified Modification time of the source file, in milliseconds since the epoch.
+         * @return The word list.
+         * @throws IOException Thrown if the index can not be written.
+         */
+        public MappedWordList finish(long sourceLength, long sourceLastModified) throws IOException {
+            wordsOutput.close();
+            var header = ByteBuffer.allocate(HEADER_BYTES + (size + 1) * Integer.BYTES
+                                             + (int) WordBuckets.byteLength(size));
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(sourceLength).putLong(sourceLastModified)
+                  .put(digest.digest()).putInt(size).putInt(offsets[size]);
+            header.asIntBuffer().put(offsets, 0, size + 1);
+            header.position(header.position() + (size + 1) * Integer.BYTES);
+            WordBuckets.of(buckets, size).writeTo(header);
+            header.rewind();
+
+            var indexFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (var output = FileChannel.open(indexFile, StandardOpenOption.WRITE);
+                     var input = FileChannel.open(wordsFile, StandardOpenOption.READ)) {
+                    while (header.hasRemaining()) { output.write(header); }
+                    long position = 0;
+                    while (position < input.size()) {
+                        position += input.transferTo(position, input.size() - position, output);
+                    }
+                }
+                Files.move(indexFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(indexFile);
+            }
+            return open(file);
+        }
+
+        /**
+         * Delete the temporary file of the words.
+         * @throws IOException Thrown if the file can not be deleted.
+         */
+        @Override
+        public void close() throws IOException {
+            wordsOutput.close();
+            Files.deleteIfExists(wordsFile);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package pl.kmolski.hangman.model;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Statistics of a single player, aggregated over all games.
+ *
+ * Players are identified by random identifiers, which are kept in a cookie.
+ * Instances that are not managed by Hibernate are also used for the changes of
+ * the statistics that have not been written to the database yet.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Entity
+@Table(name="player_stats")
+public class PlayerStats implements Serializable {
+    /**
+     * The identifier of the player.
+     */
+    @Id
+    @Column(name="player_id", length=36)
+    private String playerId;
+    /**
+     * Number of games won.
+     */
+    @NotNull
+    private long wins;
+    /**
+     * Number of games lost.
+     */
+    @NotNull
+    private long losses;
+    /**
+     * Number of correct guesses.
+     */
+    @NotNull
+    private long correctGuesses;
+    /**
+     * Number of wrong guesses.
+     */
+    @NotNull
+    private long wrongGuesses;
+    /**
+     * Version of the statistics, used for optimistic locking.
+     */
+    @Version
+    @NotNull
+    private int version = 0;
+
+    /**
+     * The zero-argument constructor required for the JPA Entity annotation.
+     */
+    protected PlayerStats() { }
+
+    /**
+     * Create the statistics of a player.
+     * @param playerId The identifier of the player.
+     * @param wins Number of games won.
+     * @param losses Number of games lost.
+     * @param correctGuesses Number of correct guesses.
+     * @param wrongGuesses Number of wrong guesses.
+     */
+    public PlayerStats(String playerId, long wins, long losses, long correctGuesses, long wrongGuesses) {
+        this.playerId = playerId;
+        this.wins = wins;
+        this.losses = losses;
+        this.correctGuesses = correctGuesses;
+        this.wrongGuesses = wrongGuesses;
+    }
+
+    /**
+     * Add the counts of other statistics to these statistics.
+     * @param other The other statistics.
+     */
+    public void add(PlayerStats other) {
+        wins += other.wins;
+        losses += other.losses;
+        correctGuesses += other.correctGuesses;
+        wrongGuesses += other.wrongGuesses;
+    }
+
+    /**
+     * Check whether all counts are zero.
+     * @return true if the statistics are empty.
+     */
+    public boolean isEmpty() {
+        return wins == 0 && losses == 0 && correctGuesses == 0 && wrongGuesses == 0;
+    }
+
+    public String getPlayerId() { return playerId; }
+    public long getWins() { return wins; }
+    public long getLosses() { return losses; }
+    public long getCorrectGuesses() { return correctGuesses; }
+    public long getWrongGuesses() { return wrongGuesses; }
+}
@@ -0,0 +1,196 @@
+package pl.kmolski.hangman.model;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * Index of the words of a word pool, grouped into difficulty buckets.
+ *
+ * Every word is classified by its length, its number of distinct letters and the number of
+ * its distinct letters that are rare in Polish, each in three classes, which gives 27 buckets.
+ * The index holds the word indices of every bucket in ascending order, so a word of a given bucket
+ * is found in constant time. The index of a pool is built once, in a single pass over its words,
+ * and the index of a mapped pool is stored in its index file. Changing the classification would
+ * invalidate the dictionaries that have already taken words.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public final class WordBuckets {
+    /**
+     * The number of buckets.
+     */
+    public static final int COUNT = 27;
+    /**
+     * The maximum hardness of a bucket.
+     */
+    public static final int MAX_HARDNESS = 6;
+
+    /**
+     * Letters that make up at least 2% of Polish text. The remaining characters are rare.
+     */
+    private static final String COMMON_LETTERS = "aioeznrwsctykdpmujl";
+
+    /**
+     * Index of the first word of every bucket in `words`, followed by the total number of words.
+     */
+    private final IntBuffer starts;
+    /**
+     * The word indices, grouped by bucket.
+     */
+    private final IntBuffer words;
+
+    WordBuckets(IntBuffer starts, IntBuffer words) {
+        this.starts = starts;
+        this.words = words;
+    }
+
+    /**
+     * Build the index of a list of words.
+     * @param words The list of words.
+     * @return The index.
+     */
+    static WordBuckets of(List<String> words) {
+        var buckets = new byte[words.size()];
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] = (byte) bucketOf(words.get(i));
+        }
+        return of(buckets, buckets.length);
+    }
+
+    /**
+     * Build the index from the buckets of the words, using counting sort.
+     * @param buckets The bucket of every word.
+     * @param size The number of words.
+     * @return The index.
+     */
+    static WordBuckets of(byte[] buckets, int size) {
+        var starts = new int[COUNT + 1];
+        for (int i = 0; i < size; ++i) {
+            ++starts[buckets[i] + 1];
+        }
+        for (int bucket = 0; bucket < COUNT; ++bucket) {
+            starts[bucket + 1] += starts[bucket];
+        }
+
+        var next = starts.clone();
+        var words = new int[size];
+        for (int i = 0; i < size; ++i) {
+            words[next[buckets[i]]++] = i;
+        }
+        return new WordBuckets(IntBuffer.wrap(starts), IntBuffer.wrap(words));
+    }
+
+    /**
+     * Read an index that was written by `writeTo()`. The buffer is not copied.
+     * @param buffer The buffer, positioned at the start of the index.
+     * @param size The number of words.
+     * @return The index.
+     */
+    static WordBuckets read(ByteBuffer buffer, int size) {
+        var starts = buffer.slice().asIntBuffer();
+        starts.limit(COUNT + 1);
+        buffer.position(buffer.position() + (COUNT + 1) * Integer.BYTES);
+        var words = buffer.slice().asIntBuffer();
+        words.limit(size);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        return new WordBuckets(starts, words);
+    }
+
+    /**
+     * Get the length of the index, as written by `writeTo()`.
+     * @param size The number of words.
+     * @return The length, in bytes.
+     */
+    static long byteLength(int size) {
+        return (COUNT + 1L + size) * Integer.BYTES;
+    }
+
+    /**
+     * Write the index to a buffer.
+     * @param buffer The buffer.
+     */
+    void writeTo(ByteBuffer buffer) {
+        for (int i = 0; i <= COUNT; ++i) { buffer.putInt(starts.get(i)); }
+        for (int i = 0; i < words.limit(); ++i) { buffer.putInt(words.get(i)); }
+    }
+
+    /**
+     * Classify a word. Spaces are not counted as letters, because they are never hidden.
+     * @param word The word.
+     * @return The bucket of the word.
+     */
+    public static int bucketOf(String word) {
+        int letters = 0;
+        int distinct = 0;
+        int rare = 0;
+        for (int i = 0; i < word.length(); ++i) {
+            char c = word.charAt(i);
+            if (c == ' ') { continue; }
+
+            ++letters;
+            if (word.indexOf(c) == i) {
+                ++distinct;
+                if (COMMON_LETTERS.indexOf(c) < 0) { ++rare; }
+            }
+        }
+
+        int lengthClass = (letters <= 5) ? 0 : (letters <= 8) ? 1 : 2;
+        int distinctClass = (distinct <= 4) ? 0 : (distinct <= 6) ? 1 : 2;
+        int rareClass = Math.min(rare, 2);
+        return lengthClass * 9 + distinctClass * 3 + rareClass;
+    }
+
+    /**
+     * Get the hardness of a bucket, from 0 to `MAX_HARDNESS`. Short words, words with few
+     * distinct letters and words with rare letters are harder to guess without missing.
+     * @param bucket The bucket.
+     * @return The hardness of the words in the bucket.
+     */
+    public static int hardnessOf(int bucket) {
+        return (2 - bucket / 9) + (2 - bucket / 3 % 3) + bucket % 3;
+    }
+
+    /**
+     * Get the number of words in a bucket.
+     * @param bucket The bucket.
+     * @return The number of words.
+     */
+    public int size(int bucket) {
+        return starts.get(bucket + 1) - starts.get(bucket);
+    }
+
+    /**
+     * Get the word index at a position of a bucket.
+     * @param bucket The bucket.
+     * @param position Position in the bucket.
+     * @return The index of the word in the pool.
+     */
+    public int get(int bucket, int position) {
+        return words.get(starts.get(bucket) + position);
+    }
+
+    /**
+     * Find the position of a word in its bucket, using binary search.
+     * @param bucket The bucket of the word.
+     * @param index The index of the word in the pool.
+     * @return Position in the bucket, or a negative number if the word is not in the bucket.
+     */
+    public int positionOf(int bucket, int index) {
+        int low = starts.get(bucket);
+        int high = starts.get(bucket + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = words.get(middle);
+            if (value < index) {
+                low = middle + 1;
+            } else if (value > index) {
+                high = middle - 1;
+            } else {
+                return middle - starts.get(bucket);
+            }
+        }
+        return -1;
+    }
+}
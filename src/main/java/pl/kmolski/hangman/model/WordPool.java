@@ -0,0 +1,258 @@
+package pl.kmolski.hangman.model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, shared list of words for hangman.
+ *
+ * Word pools are identified by the SHA-256 hash of their contents, so that
+ * every dictionary that uses the same words can reference a single pool.
+ * The words of a mapped pool are read from a MappedWordList, and they are
+ * only stored in the database for the games that outlive it. The difficulty buckets and the hashes
+ * of the words are indexed when they are first needed.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.1
+ */
+@Entity
+@Immutable
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_ONLY)
+@Table(name="word_pools")
+public class WordPool implements Serializable {
+    /**
+     * The hash of the pool's words, used as the identifier of the WordPool in the database.
+     */
+    @Id
+    @Column(name="pool_id", length=64)
+    private String id;
+    /**
+     * The words of the pool, in insertion order.
+     */
+    @ElementCollection(fetch=FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage=CacheConcurrencyStrategy.READ_ONLY)
+    @CollectionTable(name="word_pool_words", joinColumns=@JoinColumn(name="pool_id"))
+    @OrderColumn(name="word_index")
+    @Column(name="word")
+    @NotNull
+    private List<String> words = new ArrayList<>();
+    /**
+     * Index of the difficulty buckets of the words, built when it is first needed.
+     */
+    @Transient
+    private transient volatile WordBuckets buckets;
+    /**
+     * The hashes of the words, built when they are first needed.
+     */
+    @Transient
+    private transient volatile LongHashSet wordHashes;
+
+    /**
+     * The zero-argument constructor required for the JPA Entity annotation.
+     */
+    protected WordPool() { }
+
+    private WordPool(String id, List<String> words) {
+        this.id = id;
+        this.words = words;
+    }
+
+    /**
+     * Create a word pool that contains the provided words. Duplicates are not removed.
+     * @param words A collection of words.
+     * @return The new word pool.
+     */
+    public static WordPool of(Collection<String> words) {
+        var wordList = new ArrayList<>(words);
+        return new WordPool(hashWords(wordList), wordList);
+    }
+
+    /**
+     * Create a word pool that reads its words from a memory-mapped word list.
+     * The pool has the same identifier as a pool created from the same words with `of()`.
+     * @param words The mapped word list.
+     * @return The new word pool.
+     */
+    public static WordPool ofMapped(MappedWordList words) {
+        return new WordPool(words.getId(), words);
+    }
+
+    /**
+     * Create an empty word pool with the identifier of the given pool. The placeholder is stored
+     * in the database before the words of a mapped pool are written to it (see WordPoolRepository).
+     * @param pool The word pool.
+     * @return The placeholder word pool.
+     */
+    public static WordPool placeholderOf(WordPool pool) {
+        return new WordPool(pool.getId(), new ArrayList<>());
+    }
+
+    /**
+     * Compute the content hash of a list of words. Every word is prefixed with its length,
+     * so that different lists can not produce the same input for the hash function.
+     * @param words The list of words.
+     * @return The SHA-256 hash of the words, as a hexadecimal string.
+     */
+    private static String hashWords(List<String> words) {
+        var digest = newDigest();
+        for (String word : words) {
+            updateDigest(digest, word.getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Create the message digest of the word pool identifiers.
+     * @return The SHA-256 message digest.
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Add a word to the content hash, prefixed with its length.
+     * @param digest The message digest.
+     * @param word The UTF-8 encoded word.
+     */
+    static void updateDigest(MessageDigest digest, byte[] word) {
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            digest.update((byte) (word.length >>> shift));
+        }
+        digest.update(word);
+    }
+
+    /**
+     * Format a hash as a word pool identifier.
+     * @param hash The hash.
+     * @return The hash, as a hexadecimal string.
+     */
+    static String toHex(byte[] hash) {
+        var hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Get the identifier (content hash) of this word pool.
+     * @return The WordPool identifier.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the number of words in this word pool.
+     * @return Number of words in the pool.
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Get the word at the specified index.
+     * @param index Index of the word.
+     * @return The word at the index.
+     */
+    public String getWord(int index) {
+        return words.get(index);
+    }
+
+    /**
+     * Get the index of the difficulty buckets of the words. The index of a mapped pool is read
+     * from its index file, the index of other pools is built once.
+     * @return The bucket index.
+     */
+    public WordBuckets getBuckets() {
+        var result = buckets;
+        if (result == null) {
+            result = (words instanceof MappedWordList) ? ((MappedWordList) words).getBuckets()
+                                                       : WordBuckets.of(words);
+            buckets = result;
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the pool contains a word, using the hashes of the words. The hashes are computed once,
+     * so every following check takes constant time. Different words have the same hash with negligible probability.
+     * @param word The word.
+     * @return true if the pool contains the word.
+     */
+    public boolean contains(String word) {
+        return containsHash(LongHashSet.hash(word));
+    }
+
+    boolean containsHash(long wordHash) {
+        var result = wordHashes;
+        if (result == null) {
+            result = new LongHashSet(words.size());
+            for (String poolWord : words) {
+                result.add(LongHashSet.hash(poolWord));
+            }
+            wordHashes = result;
+        }
+        return result.contains(wordHash);
+    }
+
+    /**
+     * Get all words of this word pool.
+     * @return An unmodifiable view of the words.
+     */
+    public List<String> getWords() {
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * equals() implementation for the WordPool class.
+     * @param o The other object.
+     * @return true if the objects are equal.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WordPool pool = (WordPool) o;
+        return Objects.equals(id, pool.id);
+    }
+
+    /**
+     * hashCode() implementation for the WordPool class.
+     * @return Hash code of the WordPool object.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    /**
+     * toString() implementation for the WordPool class.
+     * @return String representation the WordPool object.
+     */
+    @Override
+    public String toString() {
+        return "WordPool { id=" + id + ", size=" + words.size() + " }";
+    }
+}
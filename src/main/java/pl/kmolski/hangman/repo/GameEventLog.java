@@ -0,0 +1,433 @@
+package pl.kmolski.hangman.repo;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.kmolski.hangman.model.GameEvent;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.HangmanGameCodec;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Optional append-only log of the game events, with periodic snapshots of the games.
+ *
+ * When enabled, every change of a game is appended to the log as a small event record, instead of
+ * overwriting the game save in the database. Every `snapshotInterval` events, the game is encoded
+ * with HangmanGameCodec and appended as a snapshot, and its save in the database is updated.
+ * A game is rebuilt from its latest snapshot and the events that follow it, which are found
+ * through an in-memory index of the log. The whole history of the games can be replayed
+ * for analytics (see `forEachEvent()`), without querying the game saves.
+ *
+ * The log is a single file of length-prefixed records. It is scanned when the application starts,
+ * and a record that was not completely written is truncated. The records are not synced to the disk,
+ * so the events of the last moments before a crash of the operating system may be lost.
+ * The callers are expected to hold the lock of the game (see GameLocks).
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Component
+public class GameEventLog implements InitializingBean, DisposableBean {
+    private static final Log logger = LogFactory.getLog(GameEventLog.class);
+
+    /**
+     * Name of the log file.
+     */
+    static final String FILE_NAME = "events.log";
+    /**
+     * Record kinds of the snapshots and of the removed games. The events are recorded
+     * with the ordinals of their types.
+     */
+    private static final int SNAPSHOT = 0x40;
+    private static final int REMOVED = 0x41;
+
+    /**
+     * Repository of shared word pools.
+     */
+    private WordPoolRepository wordPoolRepository;
+    /**
+     * Whether the game events are logged.
+     */
+    @Value("${hangman.eventLog.enabled:false}")
+    private boolean enabled = false;
+    /**
+     * The directory of the log file, or empty for `hangman-events` in the temporary directory.
+     */
+    @Value("${hangman.eventLog.directory:}")
+    private String directory = "";
+    /**
+     * The number of events after which a game is snapshotted.
+     */
+    @Value("${hangman.eventLog.snapshotInterval:50}")
+    private int snapshotInterval = 50;
+
+    /**
+     * The log file, opened for reading and appending.
+     */
+    private FileChannel channel;
+    /**
+     * The offset of the end of the log.
+     */
+    private long size = 0;
+    /**
+     * The records that a game is rebuilt from, keyed by the game identifiers. Guarded by `this`.
+     */
+    private final Map<Long, GameRecords> index = new HashMap<>();
+
+    /**
+     * Number of events that were appended.
+     */
+    private final LongAdder appendedEvents = new LongAdder();
+    /**
+     * Number of snapshots that were appended.
+     */
+    private final LongAdder snapshots = new LongAdder();
+    /**
+     * Number of events that were replayed to rebuild games.
+     */
+    private final LongAdder replayedEvents = new LongAdder();
+
+    /**
+     * Offsets of the latest snapshot of a game, and of the events that follow it.
+     */
+    private static class GameRecords {
+        private final long snapshotOffset;
+        private long[] eventOffsets = new long[8];
+        private int eventCount = 0;
+
+        GameRecords(long snapshotOffset) {
+            this.snapshotOffset = snapshotOffset;
+        }
+
+        void addEvent(long offset) {
+            if (eventCount == eventOffsets.length) {
+                eventOffsets = Arrays.copyOf(eventOffsets, 2 * eventCount);
+            }
+            eventOffsets[eventCount++] = offset;
+        }
+    }
+
+    @Autowired
+    private void setWordPoolRepository(WordPoolRepository wordPoolRepository) {
+        this.wordPoolRepository = wordPoolRepository;
+    }
+
+    /**
+     * Open the log file and index its records, if the event log is enabled.
+     * @throws IOException This operation may fail if the log file can not be opened or read.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) { return; }
+
+        var path = directory.isEmpty() ? Path.of(System.getProperty("java.io.tmpdir"), "hangman-events")
+                                       : Path.of(directory);
+        channel = FileChannel.open(Files.createDirectories(path).resolve(FILE_NAME), StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = scan(channel.size(), (offset, kind, input) -> {
+            long gameId = input.readLong();
+            if (kind == SNAPSHOT) {
+                index.put(gameId, new GameRecords(offset));
+            } else if (kind == REMOVED) {
+                index.remove(gameId);
+            } else if (index.containsKey(gameId)) {
+                index.get(gameId).addEvent(offset);
+            }
+        });
+        if (size < channel.size()) {
+            logger.warn("Truncating an incomplete record at the end of the event log, at " + size);
+            channel.truncate(size);
+        }
+        logger.info("Indexed " + index.size() + " games in the event log (" + size + " bytes)");
+    }
+
+    /**
+     * Close the log file.
+     */
+    @Override
+    public void destroy() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Check whether the game events are logged.
+     * @return true if the event log is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append an event of a game. If the event log is disabled, the event is discarded.
+     * @param event The game event.
+     */
+    public void append(GameEvent event) {
+        if (!enabled) { return; }
+
+        var record = newRecord(event.getType().ordinal(), event.getGameId());
+        try {
+            record.output.writeInt(event.getRevision());
+            record.output.writeUTF(event.getText());
+            record.output.writeInt(event.getNumber());
+            record.output.writeLong(event.getTimestamp());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (this) {
+            long offset = write(record);
+            var records = index.get(event.getGameId());
+            if (records != null) {
+                records.addEvent(offset);
+            }
+        }
+        appendedEvents.increment();
+    }
+
+    /**
+     * Check whether a game is due for a snapshot, because at least `snapshotInterval` events
+     * have been appended since its latest snapshot (or it has none).
+     * @param id The identifier of the game.
+     * @return true if the event log is enabled and the game should be snapshotted.
+     */
+    public synchronized boolean isSnapshotDue(Long id) {
+        if (!enabled) { return false; }
+
+        var records = index.get(id);
+        return records == null || records.eventCount >= snapshotInterval;
+    }
+
+    /**
+     * Append a snapshot of a game, which replaces its earlier events when it is rebuilt.
+     * If the event log is disabled, or the game has not been saved, nothing is appended.
+     * @param game The game state object.
+     */
+    public void snapshot(HangmanGame game) {
+        if (!enabled || game.getId() == null) { return; }
+
+        var record = newRecord(SNAPSHOT, game.getId());
+        try {
+            record.output.write(HangmanGameCodec.encode(game));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (this) {
+            index.put(game.getId(), new GameRecords(write(record)));
+        }
+        snapshots.increment();
+    }
+
+    /**
+     * Record that a game has been deleted, so that it is not rebuilt anymore. Its events are kept in the log.
+     * @param id The identifier of the game.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) { return; }
+
+        synchronized (this) {
+            if (index.remove(id) != null) {
+                write(newRecord(REMOVED, id));
+            }
+        }
+    }
+
+    /**
+     * Rebuild a game from its latest snapshot and the events that follow it.
+     * @param id The identifier of the game.
+     * @return The rebuilt game, or nothing if the event log is disabled, the game is not in the log,
+     *         or it can not be rebuilt (e.g. a word pool of the game does not exist).
+     */
+    public Optional<HangmanGame> load(Long id) {
+        if (!enabled) { return Optional.empty(); }
+
+        long snapshotOffset;
+        long[] eventOffsets;
+        synchronized (this) {
+            var records = index.get(id);
+            if (records == null) { return Optional.empty(); }
+            snapshotOffset = records.snapshotOffset;
+            eventOffsets = Arrays.copyOf(records.eventOffsets, records.eventCount);
+        }
+
+        try {
+            var snapshot = read(snapshotOffset);
+            snapshot.skipBytes(1 + Long.BYTES);
+            var game = HangmanGameCodec.decode(snapshot.readAllBytes(), wordPoolRepository::get);
+            for (long offset : eventOffsets) {
+                var input = read(offset);
+                var event = readEvent(input.readUnsignedByte(), input);
+                if (event.getRevision() > game.getRevision()) {
+                    game.replay(event, wordPoolRepository::get);
+                    replayedEvents.increment();
+                }
+            }
+            return Optional.of(game);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not rebuild game save " + id + " from the event log", e);
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replay all events in the log, in the order they were appended.
+     * @param consumer Consumer of the game events.
+     */
+    public void forEachEvent(Consumer<GameEvent> consumer) {
+        if (!enabled) { return; }
+
+        try {
+            scan(getSize(), (offset, kind, input) -> {
+                if (kind < GameEvent.Type.values().length) {
+                    consumer.accept(readEvent(kind, input));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A record of the log that is being written.
+     */
+    private static class Record {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream output = new DataOutputStream(bytes);
+    }
+
+    private static Record newRecord(int kind, Long gameId) {
+        var record = new Record();
+        try {
+            record.output.writeInt(0);
+            record.output.writeByte(kind);
+            record.output.writeLong(gameId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    /**
+     * Append a record at the end of the log. The caller has to hold the monitor of the log.
+     * @param record The record.
+     * @return The offset of the record.
+     */
+    private long write(Record record) {
+        var buffer = ByteBuffer.wrap(record.bytes.toByteArray());
+        buffer.putInt(0, buffer.capacity() - Integer.BYTES);
+        long offset = size;
+        try {
+            while (buffer.hasRemaining()) {
+                size += channel.write(buffer, size);
+            }
+        } catch (IOException e) {
+            size = offset;
+            throw new UncheckedIOException(e);
+        }
+        return offset;
+    }
+
+    /**
+     * Read the record at the given offset, without its length.
+     * @param offset The offset of the record.
+     * @return The input of the record.
+     * @throws IOException This operation may fail if the record can not be read.
+     */
+    private DataInputStream read(long offset) throws IOException {
+        var length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(length, offset);
+        var body = ByteBuffer.allocate(length.getInt(0));
+        readFully(body, offset + Integer.BYTES);
+        return new DataInputStream(new ByteArrayInputStream(body.array()));
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("truncated event log record at " + offset);
+            }
+        }
+    }
+
+    private static GameEvent readEvent(int kind, DataInputStream input) throws IOException {
+        long gameId = input.readLong();
+        int revision = input.readInt();
+        var text = input.readUTF();
+        int number = input.readInt();
+        long timestamp = input.readLong();
+        return new GameEvent(gameId, revision, GameEvent.Type.values()[kind], text, number, timestamp);
+    }
+
+    /**
+     * Visitor of the records of the log.
+     */
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(long offset, int kind, DataInputStream input) throws IOException;
+    }
+
+    /**
+     * Read the records of the log sequentially, up to the given offset. The reads do not move
+     * the position of the log file, so the log can be appended to at the same time.
+     * @param end The offset at which the scan stops.
+     * @param visitor Visitor of the records, which gets the input of the record after its kind.
+     * @return The offset of the end of the last complete record, which is before `end`
+     *         if the last record was not completely written.
+     * @throws IOException This operation may fail if the log file can not be read.
+     */
+    private long scan(long end, RecordVisitor visitor) throws IOException {
+        var input = new DataInputStream(new BufferedInputStream(new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() throws IOException {
+                var buffer = new byte[1];
+                return (read(buffer, 0, 1) < 0) ? -1 : (buffer[0] & 0xff);
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int count = channel.read(ByteBuffer.wrap(bytes, offset, length), position);
+                if (count > 0) { position += count; }
+                return count;
+            }
+        }, 64 * 1024));
+
+        long offset = 0;
+        while (offset + Integer.BYTES <= end) {
+            int length = input.readInt();
+            if (length < 1 || offset + Integer.BYTES + length > end) { break; }
+
+            var body = input.readNBytes(length);
+            var recordInput = new DataInputStream(new ByteArrayInputStream(body));
+            visitor.visit(offset, recordInput.readUnsignedByte(), recordInput);
+            offset += Integer.BYTES + length;
+        }
+        return offset;
+    }
+
+    public long getAppendedEvents() { return appendedEvents.sum(); }
+    public long getSnapshots() { return snapshots.sum(); }
+    public long getReplayedEvents() { return replayedEvents.sum(); }
+    public synchronized long getSize() { return size; }
+}
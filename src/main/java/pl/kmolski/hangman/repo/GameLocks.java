@@ -0,0 +1,133 @@
+package pl.kmolski.hangman.repo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialize the modifications of a single game.
+ *
+ * Every game ID is mapped to one of a fixed number of locks, so the modifications of one game
+ * are serialized, while most other games use different locks and proceed in parallel.
+ * The locks are reentrant, and they count how often and how long the callers had to wait.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Component
+public class GameLocks {
+    /**
+     * The locks, the number of locks is a power of two.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Number of lock acquisitions.
+     */
+    private final LongAdder acquisitions = new LongAdder();
+    /**
+     * Number of lock acquisitions that had to wait for another thread.
+     */
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    /**
+     * Total time spent waiting for the locks, in nanoseconds.
+     */
+    private final LongAdder totalWaitNanos = new LongAdder();
+    /**
+     * The longest time spent waiting for a lock, in nanoseconds.
+     */
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Create the striped locks.
+     * @param stripeCount The minimum number of locks, rounded up to a power of two.
+     */
+    public GameLocks(@Value("${hangman.gameLocks.stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripe count must be positive: " + stripeCount);
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) { size <<= 1; }
+
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; ++i) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Action that is executed while holding the lock of a game.
+     * @param <T> The type of the result.
+     * @param <E> The type of the exception thrown by the action.
+     */
+    @FunctionalInterface
+    public interface LockedAction<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private ReentrantLock stripeOf(Long id) {
+        int hash = Long.hashCode(id);
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    /**
+     * Execute the action while holding the lock of the game with the specified ID.
+     * @param id Game save ID.
+     * @param action The action.
+     * @param <T> The type of the result.
+     * @param <E> The type of the exception thrown by the action.
+     * @return The result of the action.
+     * @throws E Thrown by the action.
+     */
+    public <T, E extends Exception> T withLock(Long id, LockedAction<T, E> action) throws E {
+        var lock = stripeOf(id);
+        acquisitions.increment();
+        if (!lock.tryLock()) {
+            long startTime = System.nanoTime();
+            lock.lock();
+            long waitTime = System.nanoTime() - startTime;
+            contendedAcquisitions.increment();
+            totalWaitNanos.add(waitTime);
+            maxWaitNanos.accumulate(waitTime);
+        }
+
+        try {
+            return action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of threads that are waiting for any of the locks. The result is an estimate.
+     * @return The number of waiting threads.
+     */
+    public int getWaitingThreads() {
+        int waiting = 0;
+        for (var lock : stripes) {
+            waiting += lock.getQueueLength();
+        }
+        return waiting;
+    }
+
+    public int getStripeCount() { return stripes.length; }
+    public long getAcquisitions() { return acquisitions.sum(); }
+    public long getContendedAcquisitions() { return contendedAcquisitions.sum(); }
+    public long getTotalWaitNanos() { return totalWaitNanos.sum(); }
+    public long getMaxWaitNanos() { return maxWaitNanos.get(); }
+
+    /**
+     * Get the average time spent waiting for a lock, over the acquisitions that had to wait.
+     * @return The average wait time, in microseconds.
+     */
+    public double getAverageWaitMicros() {
+        long contended = contendedAcquisitions.sum();
+        return (contended > 0) ? totalWaitNanos.sum() / (contended * 1000.0) : 0.0;
+    }
+}
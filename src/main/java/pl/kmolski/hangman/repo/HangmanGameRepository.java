@@ -1,11 +1,14 @@
 package pl.kmolski.hangman.repo;
 
+import io.micrometer.core.annotation.Timed;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import pl.kmolski.hangman.model.GameSaveSummary;
 import pl.kmolski.hangman.model.HangmanGame;
 
+import javax.persistence.OptimisticLockException;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,14 +16,20 @@ import java.util.Optional;
  * Repository class for HangmanGame objects.
  *
  * This class provides methods that save, delete, modify and fetch
- * HangmanGame objects from the application database.
+ * HangmanGame objects from the application database. The duration of every call
+ * is recorded by the `hangman.repository` timer.
  *
  * @author Krzysztof Molski
- * @version 1.0.1
+ * @version 1.10.0
  */
 @Repository
 @Transactional
 public class HangmanGameRepository {
+    /**
+     * Name of the timer of the repository calls.
+     */
+    static final String TIMER_NAME = "hangman.repository";
+
     /**
      * The entity manager managed by the server persistence context.
      */
@@ -35,45 +44,145 @@ public class HangmanGameRepository {
      * Persist the game in the database.
      * @param model The game model that will be saved.
      */
+    @Timed(TIMER_NAME)
     public void save(HangmanGame model) {
         var session = sessionFactory.getCurrentSession();
         session.persist(model);
+        session.flush();
+        model.markSaved(model.getVersion());
+    }
+
+    /**
+     * Persist several games in the database, in a single transaction. The inserts of the games and
+     * of their collections are sent in JDBC batches (the dictionaries have identity keys, so their
+     * inserts are not batched).
+     * @param models The game models that will be saved.
+     */
+    @Timed(TIMER_NAME)
+    public void saveAll(List<HangmanGame> models) {
+        var session = sessionFactory.getCurrentSession();
+        for (var model : models) {
+            session.persist(model);
+        }
+        session.flush();
+        for (var model : models) {
+            model.markSaved(model.getVersion());
+        }
     }
 
     /**
-     * Update the save of the current game in the database.
+     * Update the save of the current game in the database. If the dictionary has not changed,
+     * the state of the game is copied to the managed instance of its save, which is usually taken
+     * from the second-level cache. Hibernate then writes only the columns of the game, with a single
+     * versioned UPDATE statement, and updates the cached save instead of evicting it.
      * @param model The game model that will be updated.
+     * @throws OptimisticLockException Thrown if the save has been modified by someone else.
      */
+    @Timed(TIMER_NAME)
     public void update(HangmanGame model) {
         var session = sessionFactory.getCurrentSession();
-        session.merge(model);
+        if (model.getId() == null || model.isDictionaryModified()) {
+            var merged = (HangmanGame) session.merge(model);
+            session.flush();
+            model.markSaved(merged.getVersion());
+            return;
+        }
+
+        var save = session.get(HangmanGame.class, model.getId());
+        if (save == null || save.getVersion() != model.getVersion()) {
+            throw new OptimisticLockException("game save " + model.getId() + " was modified or deleted", null, model);
+        }
+        model.copyStateTo(save);
+        session.flush();
+        model.markSaved(save.getVersion());
     }
 
     /**
-     * Get the save of a game with the specified ID from the database.
+     * Get the save of a game with the specified ID from the database. The games that are waiting
+     * in the pool of new games are not returned.
      * @param id Game save ID.
      * @return The saved instance of the game with the specified ID.
      */
+    @Timed(TIMER_NAME)
     public Optional<HangmanGame> get(Long id) {
         var session = sessionFactory.getCurrentSession();
-        return Optional.ofNullable(session.get(HangmanGame.class, id));
+        return Optional.ofNullable(session.get(HangmanGame.class, id)).filter(game -> !game.isPooled());
     }
 
     /**
-     * Get all game saves from the database.
-     * @return A list of all game saves.
+     * Get summaries of the game saves, ordered by their identifiers. Only the columns that are
+     * needed for the summaries are queried, the dictionaries of the games are not loaded.
+     * The games that are waiting in the pool of new games are not listed.
+     * The pages are not cached, because every game update would invalidate them.
+     * @param afterId The identifier after which the page starts, or null for the first page.
+     * @param limit The maximum number of summaries.
+     * @return A list of game save summaries.
      */
-    public List<HangmanGame> getAll() {
+    @Timed(TIMER_NAME)
+    public List<GameSaveSummary> getSummaries(Long afterId, int limit) {
         var session = sessionFactory.getCurrentSession();
-        return session.createQuery("from HangmanGame", HangmanGame.class).getResultList();
+        return session.createQuery(
+                "select new pl.kmolski.hangman.model.GameSaveSummary(g.id, g.currentWord, g.guessedLetters, " +
+                "g.misses, g.wordsGuessed, d.wordCount) from HangmanGame g join g.dictionary d " +
+                "where g.id > :afterId and g.poolOwner is null order by g.id", GameSaveSummary.class)
+                .setParameter("afterId", (afterId != null) ? afterId : Long.MIN_VALUE)
+                .setMaxResults(limit)
+                .getResultList();
     }
 
     /**
      * Delete the save of the current game from the database.
      * @param model The game model that will be deleted.
      */
+    @Timed(TIMER_NAME)
     public void delete(HangmanGame model) {
         var session = sessionFactory.getCurrentSession();
         session.remove(session.contains(model) ? model : session.merge(model));
     }
+
+    /**
+     * Delete the saves of several games from the database, in a single transaction.
+     * @param models The game models that will be deleted.
+     */
+    @Timed(TIMER_NAME)
+    public void deleteAll(List<HangmanGame> models) {
+        var session = sessionFactory.getCurrentSession();
+        for (var model : models) {
+            session.remove(session.contains(model) ? model : session.merge(model));
+        }
+    }
+
+    /**
+     * Mark the saves of games that were handed out from the pool of new games as handed out, in a single transaction.
+     * The versions of the saves do not change, so the games may be saved by their players in the meantime.
+     * The saves that have already been updated or deleted by the players are skipped.
+     * @param models The handed out games.
+     */
+    @Timed(TIMER_NAME)
+    public void releasePooled(List<HangmanGame> models) {
+        var session = sessionFactory.getCurrentSession();
+        for (var model : models) {
+            var save = session.get(HangmanGame.class, model.getId());
+            if (save != null) {
+                save.setPoolOwner(null);
+            }
+        }
+    }
+
+    /**
+     * Delete the saves of the games that are waiting in the pool of new games of an application instance,
+     * e.g. the games that were left in the pool when the instance was stopped abruptly.
+     * The pools of the other instances are not affected.
+     * @param poolOwner The application instance that owns the pool.
+     * @return The number of deleted game saves.
+     */
+    @Timed(TIMER_NAME)
+    public int deletePooled(String poolOwner) {
+        var session = sessionFactory.getCurrentSession();
+        var games = session.createQuery("from HangmanGame g where g.poolOwner = :poolOwner", HangmanGame.class)
+                           .setParameter("poolOwner", poolOwner)
+                           .getResultList();
+        games.forEach(session::remove);
+        return games.size();
+    }
 }
@@ -0,0 +1,90 @@
+package pl.kmolski.hangman.repo;
+
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kmolski.hangman.model.PlayerStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Repository class for PlayerStats objects.
+ *
+ * The statistics are changed in batches: the rows of all players in a batch are loaded
+ * with a single query, and the changed and new rows are written using JDBC batching.
+ * The duration of every call is recorded by the `hangman.repository` timer.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Repository
+@Transactional
+public class PlayerStatsRepository {
+    /**
+     * The entity manager managed by the server persistence context.
+     */
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Add the changes of the statistics of several players to the database.
+     * Statistics of players that are not in the database yet are inserted.
+     * @param changes The changes of the statistics, at most one per player.
+     * @throws javax.persistence.OptimisticLockException Thrown if the statistics were modified concurrently.
+     */
+    @Timed(HangmanGameRepository.TIMER_NAME)
+    public void addAll(Collection<PlayerStats> changes) {
+        if (changes.isEmpty()) { return; }
+
+        var session = sessionFactory.getCurrentSession();
+        var playerIds = changes.stream().map(PlayerStats::getPlayerId).collect(Collectors.toList());
+        var stored = session.createQuery("from PlayerStats where playerId in (:playerIds)", PlayerStats.class)
+                            .setParameterList("playerIds", playerIds)
+                            .getResultStream()
+                            .collect(Collectors.toMap(PlayerStats::getPlayerId, Function.identity()));
+
+        for (var change : changes) {
+            var stats = stored.get(change.getPlayerId());
+            if (stats != null) {
+                stats.add(change);
+            } else {
+                session.persist(change);
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of a player from the database.
+     * @param playerId The identifier of the player.
+     * @return The statistics of the player, if there are any.
+     */
+    @Timed(HangmanGameRepository.TIMER_NAME)
+    public Optional<PlayerStats> get(String playerId) {
+        return Optional.ofNullable(sessionFactory.getCurrentSession().get(PlayerStats.class, playerId));
+    }
+
+    /**
+     * Get the statistics of the players with the most wins. Players with the same number of wins
+     * are ordered by their losses.
+     * @param limit The maximum number of players.
+     * @return The statistics of the best players.
+     */
+    @Timed(HangmanGameRepository.TIMER_NAME)
+    public List<PlayerStats> getTopPlayers(int limit) {
+        return sessionFactory.getCurrentSession()
+                             .createQuery("from PlayerStats order by wins desc, losses asc, playerId",
+                                          PlayerStats.class)
+                             .setMaxResults(limit)
+                             .getResultList();
+    }
+}
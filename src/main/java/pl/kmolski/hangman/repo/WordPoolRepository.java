@@ -0,0 +1,252 @@
+package pl.kmolski.hangman.repo;
+
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kmolski.hangman.model.WordPool;
+
+import javax.persistence.PersistenceException;
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository class for WordPool objects.
+ *
+ * This class interns word pools: every pool is stored in the application database
+ * once, and the games that use the same words share a single WordPool instance
+ * for as long as any of them is in memory. Mapped word pools (see MappedWordList) are
+ * registered at startup and stay canonical while the application runs. Their words are
+ * also stored in the database when they are first interned, so that the saved games can
+ * still be loaded after the source of the mapped pool changes. New pools are stored in
+ * a separate transaction, so that concurrent uploads of the same words do not fail on the
+ * primary key. The duration of every call is recorded by the `hangman.repository` timer.
+ *
+ * @author Krzysztof Molski
+ * @version 1.5.0
+ */
+@Repository
+@Transactional
+public class WordPoolRepository {
+    /**
+     * The entity manager managed by the server persistence context.
+     */
+    private SessionFactory sessionFactory;
+    /**
+     * Canonical instances of the word pools, keyed by their identifiers.
+     */
+    private final Map<String, WeakReference<WordPool>> canonicalPools = new ConcurrentHashMap<>();
+    /**
+     * Mapped word pools, keyed by their identifiers.
+     */
+    private final Map<String, WordPool> mappedPools = new ConcurrentHashMap<>();
+    /**
+     * Identifiers of the mapped word pools whose words are known to be in the database.
+     */
+    private final Set<String> storedMappedPools = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Get the canonical instance of a word pool. If the pool is not in the database yet, it is persisted.
+     * @param pool The word pool.
+     * @return The canonical instance of the word pool.
+     */
+    @Timed(HangmanGameRepository.TIMER_NAME)
+    public WordPool intern(WordPool pool) {
+        var mapped = mappedPools.get(pool.getId());
+        if (mapped != null) {
+            if (!storedMappedPools.contains(mapped.getId())) {
+                insertMapped(mapped);
+                storedMappedPools.add(mapped.getId());
+            }
+            return mapped;
+        }
+
+        var cached = findCanonical(pool.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        var stored = sessionFactory.getCurrentSession().get(WordPool.class, pool.getId());
+        return putCanonical((stored != null) ? stored : insert(pool));
+    }
+
+    /**
+     * Get the canonical instance of the word pool with the specified identifier.
+     * @param id The word pool identifier.
+     * @return The canonical instance of the word pool, or null if it is not in the database.
+     */
+    @Timed(HangmanGameRepository.TIMER_NAME)
+    public WordPool get(String id) {
+        var cached = findCanonical(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        var stored = sessionFactory.getCurrentSession().get(WordPool.class, id);
+        return (stored != null) ? putCanonical(stored) : null;
+    }
+
+    /**
+     * Register a mapped word pool, which is used in place of the stored pool with the same identifier.
+     * The database is not accessed, the words of the pool are stored when the pool is first interned.
+     * @param pool The mapped word pool.
+     */
+    @Transactional(propagation=Propagation.SUPPORTS)
+    public void addMapped(WordPool pool) {
+        mappedPools.put(pool.getId(), pool);
+    }
+
+    /**
+     * Count the words of the canonical word pools that are still in memory, except for the mapped pools.
+     * The database is not accessed.
+     * @return The number of loaded words.
+     */
+    @Transactional(propagation=Propagation.SUPPORTS)
+    public long getLoadedWordCount() {
+        long wordCount = 0;
+        for (var reference : canonicalPools.values()) {
+            var pool = reference.get();
+            if (pool != null) {
+                wordCount += pool.size();
+            }
+        }
+        return wordCount;
+    }
+
+    /**
+     * Store a word pool in a separate transaction. If another thread (or application instance) stores the same
+     * pool concurrently, the failure (e.g. the primary key violation) only rolls back the separate transaction,
+     * and the pool stored by the other thread is read instead.
+     * @param pool The word pool, which is not in the database.
+     * @return The stored word pool.
+     */
+    private WordPool insert(WordPool pool) {
+        PersistenceException failure;
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            try {
+                session.persist(pool);
+                transaction.commit();
+                return pool;
+            } catch (PersistenceException e) {
+                if (transaction.getStatus().canRollback()) {
+                    transaction.rollback();
+                }
+                failure = e;
+            }
+        }
+
+        try (var session = sessionFactory.openSession()) {
+            var stored = session.get(WordPool.class, pool.getId());
+            if (stored == null) {
+                throw failure;
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * Store the words of a mapped pool in a separate transaction, unless they are in the database already.
+     * The words are written in JDBC batches straight from the mapped list, so they are not copied to the heap.
+     * Mapped pools that were stored as empty placeholders by earlier versions are completed. If another
+     * application instance stores the same words concurrently, only the separate transaction is rolled back.
+     * @param pool The mapped word pool.
+     */
+    private void insertMapped(WordPool pool) {
+        PersistenceException failure;
+        try (var session = sessionFactory.openSession()) {
+            var transaction = session.beginTransaction();
+            try {
+                boolean stored = session.createQuery("select count(p) from WordPool p where p.id = :id", Long.class)
+                                        .setParameter("id", pool.getId()).getSingleResult() > 0;
+                if (!stored) {
+                    session.persist(WordPool.placeholderOf(pool));
+                    session.flush();
+                }
+                if (!stored || countStoredWords(session, pool.getId()) == 0) {
+                    session.doWork(connection -> insertWords(connection, pool));
+                }
+                transaction.commit();
+                sessionFactory.getCache().evictEntityData(WordPool.class, pool.getId());
+                sessionFactory.getCache().evictCollectionData(WordPool.class.getName() + ".words", pool.getId());
+                return;
+            } catch (PersistenceException e) {
+                if (transaction.getStatus().canRollback()) {
+                    transaction.rollback();
+                }
+                failure = e;
+            }
+        }
+
+        try (var session = sessionFactory.openSession()) {
+            if (countStoredWords(session, pool.getId()) < pool.size()) {
+                throw failure;
+            }
+        }
+    }
+
+    private static long countStoredWords(Session session, String id) {
+        return session.createQuery("select count(w) from WordPool p join p.words w where p.id = :id", Long.class)
+                      .setParameter("id", id).getSingleResult();
+    }
+
+    private void insertWords(Connection connection, WordPool pool) throws SQLException {
+        int batchSize = Math.max(1, sessionFactory.getSessionFactoryOptions().getJdbcBatchSize());
+        try (var statement = connection.prepareStatement(
+                "insert into word_pool_words (pool_id, word_index, word) values (?, ?, ?)")) {
+            for (int i = 0; i < pool.size(); ++i) {
+                statement.setString(1, pool.getId());
+                statement.setInt(2, i);
+                statement.setString(3, pool.getWord(i));
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Find the canonical instance of a word pool that is still in memory.
+     * @param id The word pool identifier.
+     * @return The canonical instance, or null if there is none.
+     */
+    protected WordPool findCanonical(String id) {
+        var mapped = mappedPools.get(id);
+        if (mapped != null) {
+            return mapped;
+        }
+
+        var reference = canonicalPools.get(id);
+        var pool = (reference != null) ? reference.get() : null;
+        if (reference != null && pool == null) {
+            canonicalPools.remove(id, reference);
+        }
+        return pool;
+    }
+
+    /**
+     * Register the canonical instance of a word pool, unless another thread has registered one already.
+     * @param pool The word pool.
+     * @return The canonical instance of the word pool.
+     */
+    protected WordPool putCanonical(WordPool pool) {
+        var reference = canonicalPools.merge(pool.getId(), new WeakReference<>(pool),
+                (previous, current) -> previous.get() != null ? previous : current);
+        var canonical = reference.get();
+        return canonical != null ? canonical : pool;
+    }
+}
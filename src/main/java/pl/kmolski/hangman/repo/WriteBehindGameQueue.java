@@ -0,0 +1,299 @@
+package pl.kmolski.hangman.repo;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import pl.kmolski.hangman.model.HangmanGame;
+
+import javax.persistence.OptimisticLockException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Optional write-behind layer in front of the HangmanGameRepository.
+ *
+ * When enabled, game updates are kept in memory and written to the database periodically.
+ * Multiple updates of the same game between two flushes are coalesced into a single write.
+ * Finished games are written immediately, and deleting a game cancels its pending update.
+ * Updates that could not be written stay in the queue, and are retried by the next flushes,
+ * up to a limit. Updates of saves that were modified or deleted by someone else can never
+ * be written, so they are discarded at once, and the discard listeners are notified.
+ * The queue is drained when the application shuts down.
+ * When disabled, updates and deletes are passed straight to the repository.
+ * The callers are expected to hold the lock of the game (see GameLocks).
+ *
+ * @author Krzysztof Molski
+ * @version 1.4.0
+ */
+@Component
+public class WriteBehindGameQueue implements InitializingBean, DisposableBean {
+    private static final Log logger = LogFactory.getLog(WriteBehindGameQueue.class);
+
+    /**
+     * Repository of game state objects.
+     */
+    private HangmanGameRepository gameRepository;
+    /**
+     * Locks that serialize the modifications of a single game.
+     */
+    private GameLocks gameLocks;
+    /**
+     * Whether updates are written behind, or immediately.
+     */
+    @Value("${hangman.writeBehind.enabled:false}")
+    private boolean enabled = false;
+    /**
+     * Interval between flushes, in milliseconds.
+     */
+    @Value("${hangman.writeBehind.flushIntervalMs:1000}")
+    private long flushIntervalMs = 1000;
+    /**
+     * The maximum number of attempts to write an update, before it is discarded.
+     */
+    @Value("${hangman.writeBehind.maxAttempts:5}")
+    private int maxAttempts = 5;
+
+    /**
+     * Games with pending updates, keyed by their identifiers.
+     */
+    private final Map<Long, HangmanGame> pending = new ConcurrentHashMap<>();
+    /**
+     * Number of failed attempts to write the pending updates, keyed by the game identifiers.
+     */
+    private final Map<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+    /**
+     * Executor of the periodic flushes.
+     */
+    private ScheduledExecutorService flushExecutor;
+    /**
+     * Listeners that are notified after a pending update has been written.
+     */
+    private final List<Consumer<HangmanGame>> flushListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Listeners that are notified after a pending update has been discarded.
+     */
+    private final List<Consumer<Long>> discardListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of updates that were coalesced with an already pending update.
+     */
+    private final LongAdder coalescedUpdates = new LongAdder();
+    /**
+     * Number of games that were written by flushes.
+     */
+    private final LongAdder flushedGames = new LongAdder();
+    /**
+     * Number of game writes that have failed.
+     */
+    private final LongAdder failedWrites = new LongAdder();
+    /**
+     * Number of updates that were discarded, because they could not be written.
+     */
+    private final LongAdder discardedUpdates = new LongAdder();
+    /**
+     * Number of flushes that have written at least one game.
+     */
+    private final LongAdder flushCount = new LongAdder();
+    /**
+     * Total time spent on flushing, in nanoseconds.
+     */
+    private final LongAdder totalFlushNanos = new LongAdder();
+    /**
+     * Duration of the last flush, in nanoseconds.
+     */
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    /**
+     * Duration of the longest flush, in nanoseconds.
+     */
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    private void setGameRepository(HangmanGameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @Autowired
+    private void setGameLocks(GameLocks gameLocks) {
+        this.gameLocks = gameLocks;
+    }
+
+    /**
+     * Start the periodic flushes, if the write-behind mode is enabled.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) { return; }
+
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "hangman-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic flushes and write all pending updates.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        flush();
+    }
+
+    /**
+     * Register a listener that is notified after a pending update has been written by a flush.
+     * @param listener The listener, called with the written game.
+     */
+    public void addFlushListener(Consumer<HangmanGame> listener) {
+        flushListeners.add(listener);
+    }
+
+    /**
+     * Register a listener that is notified after a pending update has been discarded, because it could not
+     * be written. The discarded state of the game must not be used anymore.
+     * @param listener The listener, called with the identifier of the game.
+     */
+    public void addDiscardListener(Consumer<Long> listener) {
+        discardListeners.add(listener);
+    }
+
+    /**
+     * Update the save of a game. In the write-behind mode, the update is only queued,
+     * unless the game is over.
+     * @param model The game model that will be updated.
+     */
+    public void update(HangmanGame model) {
+        if (!enabled || model.getId() == null || model.isGameOver()) {
+            if (model.getId() != null) {
+                pending.remove(model.getId());
+            }
+            gameRepository.update(model);
+        } else if (pending.put(model.getId(), model) != null) {
+            coalescedUpdates.increment();
+        }
+    }
+
+    /**
+     * Delete the save of a game, discarding its pending update.
+     * @param model The game model that will be deleted.
+     */
+    public void delete(HangmanGame model) {
+        if (model.getId() != null) {
+            pending.remove(model.getId());
+            failedAttempts.remove(model.getId());
+        }
+        gameRepository.delete(model);
+    }
+
+    /**
+     * Find a game that has an update pending. Such games must be used instead of their saves in the database.
+     * @param id Game save ID.
+     * @return The game with the pending update, if there is one.
+     */
+    public Optional<HangmanGame> findPending(Long id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    /**
+     * Write all pending updates to the database. Every game is written while holding its lock,
+     * so that it is not modified during the write.
+     */
+    public void flush() {
+        if (pending.isEmpty()) { return; }
+
+        long startTime = System.nanoTime();
+        for (var id : pending.keySet()) {
+            gameLocks.withLock(id, () -> writePending(id));
+        }
+
+        long duration = System.nanoTime() - startTime;
+        flushCount.increment();
+        totalFlushNanos.add(duration);
+        lastFlushNanos.set(duration);
+        maxFlushNanos.accumulate(duration);
+    }
+
+    private HangmanGame writePending(Long id) {
+        var model = pending.remove(id);
+        if (model == null) { return null; }
+
+        try {
+            gameRepository.update(model);
+            failedAttempts.remove(id);
+            flushedGames.increment();
+            flushListeners.forEach(listener -> listener.accept(model));
+        } catch (OptimisticLockException | OptimisticLockingFailureException | StaleStateException e) {
+            discard(id, "it was modified or deleted by someone else", e);
+        } catch (RuntimeException e) {
+            failedWrites.increment();
+            int attempts = failedAttempts.merge(id, 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                discard(id, "the write has failed " + attempts + " times", e);
+            } else {
+                // Keep the update for the next flush, unless a newer one has been queued in the meantime.
+                pending.putIfAbsent(id, model);
+                logger.warn("Could not write game save " + id + ", retrying with the next flush", e);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Discard the pending update of a game that can not be written, together with any newer update.
+     * @param id Game save ID.
+     * @param reason The reason why the update can not be written.
+     * @param cause The exception of the last write.
+     */
+    private void discard(Long id, String reason, RuntimeException cause) {
+        pending.remove(id);
+        failedAttempts.remove(id);
+        discardedUpdates.increment();
+        logger.error("Discarding the update of game save " + id + ", " + reason, cause);
+        discardListeners.forEach(listener -> listener.accept(id));
+    }
+
+    /**
+     * Check whether updates are written behind, or immediately.
+     * @return true if the write-behind mode is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the number of games with pending updates.
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    public long getCoalescedUpdates() { return coalescedUpdates.sum(); }
+    public long getFlushedGames() { return flushedGames.sum(); }
+    public long getFailedWrites() { return failedWrites.sum(); }
+    public long getDiscardedUpdates() { return discardedUpdates.sum(); }
+    public long getFlushCount() { return flushCount.sum(); }
+    public long getTotalFlushNanos() { return totalFlushNanos.sum(); }
+    public long getLastFlushNanos() { return lastFlushNanos.get(); }
+    public long getMaxFlushNanos() { return maxFlushNanos.get(); }
+}
@@ -0,0 +1,53 @@
+package pl.kmolski.hangman.service;
+
+/**
+ * Summary of the statistics of a second-level cache region.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class CacheRegionSummary {
+    /**
+     * The name of the cache region.
+     */
+    private final String regionName;
+    /**
+     * Number of lookups that found an entry in the region.
+     */
+    private final long hitCount;
+    /**
+     * Number of lookups that did not find an entry in the region.
+     */
+    private final long missCount;
+    /**
+     * Number of entries that were put into the region.
+     */
+    private final long putCount;
+    /**
+     * Number of entries in the region, or a negative value if unknown.
+     */
+    private final long elementCount;
+
+    public CacheRegionSummary(String regionName, long hitCount, long missCount, long putCount, long elementCount) {
+        this.regionName = regionName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCount = elementCount;
+    }
+
+    public String getRegionName() { return regionName; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public long getPutCount() { return putCount; }
+    public long getElementCount() { return elementCount; }
+
+    /**
+     * Get the ratio of lookups that found an entry in the region.
+     * @return The hit ratio, between 0 and 1.
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return (lookups > 0) ? (double) hitCount / lookups : 0.0;
+    }
+}
@@ -0,0 +1,65 @@
+package pl.kmolski.hangman.service;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service class that reports the statistics of the Hibernate second-level cache.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1
+ */
+@Service
+public class CacheStatisticsService {
+    /**
+     * The session factory whose statistics are reported.
+     */
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Get the statistics of the entity and collection cache regions, ordered by region name.
+     * @return A list of cache region summaries.
+     */
+    public List<CacheRegionSummary> getRegionSummaries() {
+        var statistics = sessionFactory.getStatistics();
+        var regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        var summaries = new ArrayList<CacheRegionSummary>(regionNames.length);
+        for (var regionName : regionNames) {
+            var region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                summaries.add(new CacheRegionSummary(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Get the combined statistics of the entity and collection cache regions.
+     * @return The second-level cache summary.
+     */
+    public CacheRegionSummary getSecondLevelCacheSummary() {
+        var statistics = sessionFactory.getStatistics();
+        return new CacheRegionSummary("second-level cache", statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), -1);
+    }
+
+    /**
+     * Reset all statistics of the session factory.
+     */
+    public void clear() {
+        sessionFactory.getStatistics().clear();
+    }
+}
@@ -0,0 +1,101 @@
+package pl.kmolski.hangman.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.HangmanGameCodec;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Game state store that keeps the encoded game states in files.
+ *
+ * Every game is stored in a separate file, encoded with HangmanGameCodec. The words are not
+ * stored, they are resolved from the word pools when a game is loaded. When the directory is
+ * shared, all application instances see the same game states.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class FileGameStateStore implements GameStateStore {
+    private static final Log logger = LogFactory.getLog(FileGameStateStore.class);
+
+    /**
+     * The directory that contains the game state files.
+     */
+    private final Path directory;
+    /**
+     * Function that returns the word pool with the given identifier.
+     */
+    private final Function<String, WordPool> poolResolver;
+
+    /**
+     * Create a new file-backed store.
+     * @param directory The directory that contains the game state files, created if missing.
+     * @param poolResolver Function that returns the word pool with the given identifier.
+     * @throws IOException This operation may fail if the directory can not be created.
+     */
+    public FileGameStateStore(Path directory, Function<String, WordPool> poolResolver) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.poolResolver = poolResolver;
+    }
+
+    private Path pathOf(Long id) {
+        return directory.resolve(id + ".game");
+    }
+
+    @Override
+    public Optional<HangmanGame> load(Long id) {
+        byte[] encoded;
+        try {
+            encoded = Files.readAllBytes(pathOf(id));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            return Optional.of(HangmanGameCodec.decode(encoded, poolResolver));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Discarding unreadable state of game save " + id, e);
+            remove(id);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(HangmanGame game) {
+        if (game.getId() == null) { return; }
+
+        try {
+            var temporary = Files.createTempFile(directory, game.getId() + "-", ".tmp");
+            try {
+                Files.write(temporary, HangmanGameCodec.encode(game));
+                Files.move(temporary, pathOf(game.getId()), StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        try {
+            Files.deleteIfExists(pathOf(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pl.kmolski.hangman.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An exception that is thrown when the requested game save does not exist.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1.0
+ */
+@ResponseStatus(value=HttpStatus.NOT_FOUND, reason="The game save does not exist")
+public class GameNotFoundException extends RuntimeException {
+    /**
+     * The requested game save ID.
+     */
+    private final Long id;
+
+    /**
+     * Create a new GameNotFoundException for the requested game save.
+     * @param id The requested game save ID.
+     */
+    public GameNotFoundException(Long id) {
+        this(id, "game save ID " + id + " does not exist!");
+    }
+
+    /**
+     * Create a new GameNotFoundException for the requested game save, with a detailed message.
+     * @param id The requested game save ID.
+     * @param message The detail message.
+     */
+    protected GameNotFoundException(Long id, String message) {
+        super(message);
+        this.id = id;
+    }
+
+    /**
+     * Get the requested game save ID.
+     * @return The game save ID.
+     */
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,276 @@
+package pl.kmolski.hangman.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.repo.HangmanGameRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool of new games that are ready to be played.
+ *
+ * The games are created in the background and saved in batches, each in a single transaction,
+ * so a new player only takes a game that is already saved, instead of waiting for the inserts.
+ * The pool is refilled every `refillIntervalMs` milliseconds, by at most `batchSize` games,
+ * up to `size` games. When the pool is empty, the caller creates the game itself.
+ * The pooled games are saved with the name of the application instance (`owner`) that holds them,
+ * so they are not listed or loaded until they are handed out. Handing out a game does not access the
+ * database, the owner is cleared in the saves of the handed out games by the next refill, in a single
+ * transaction (or earlier, by the first update of the game). The games that
+ * are left in the pool are deleted when the application shuts down, and the games left by a previous run
+ * of the same instance (e.g. after a crash) are deleted when the pool starts. The pools of the other
+ * instances that share the database are not affected. The pool is disabled if its size is 0.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.0
+ */
+@Component
+public class GamePool implements DisposableBean {
+    private static final Log logger = LogFactory.getLog(GamePool.class);
+
+    /**
+     * The number of games that are kept ready, or 0 to disable the pool.
+     */
+    @Value("${hangman.gamePool.size:0}")
+    private int size = 0;
+    /**
+     * The maximum number of games that are saved by a single refill.
+     */
+    @Value("${hangman.gamePool.batchSize:50}")
+    private int batchSize = 50;
+    /**
+     * Interval between refills, in milliseconds.
+     */
+    @Value("${hangman.gamePool.refillIntervalMs:100}")
+    private long refillIntervalMs = 100;
+    /**
+     * Name of this application instance, which must be unique and stable across restarts,
+     * or an empty string for the host name.
+     */
+    @Value("${hangman.gamePool.owner:}")
+    private String owner = "";
+
+    /**
+     * Repository of game state objects.
+     */
+    private HangmanGameRepository gameRepository;
+    /**
+     * Factory of new, unsaved games.
+     */
+    private Supplier<HangmanGame> gameFactory;
+    /**
+     * The saved games that are ready to be played.
+     */
+    private final BlockingQueue<HangmanGame> games = new LinkedBlockingQueue<>();
+    /**
+     * The handed out games whose saves are still marked as pooled.
+     */
+    private final Queue<HangmanGame> unreleased = new ConcurrentLinkedQueue<>();
+    /**
+     * Executor of the periodic refills.
+     */
+    private ScheduledExecutorService refillExecutor;
+
+    /**
+     * Number of games that were taken from the pool.
+     */
+    private final LongAdder handedOut = new LongAdder();
+    /**
+     * Number of requests for a game that found the pool empty.
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * Number of games that were created by refills.
+     */
+    private final LongAdder created = new LongAdder();
+    /**
+     * Number of refills that have failed.
+     */
+    private final LongAdder failedRefills = new LongAdder();
+    /**
+     * Number of refills that have saved a batch of games.
+     */
+    private final LongAdder refillCount = new LongAdder();
+    /**
+     * Total time spent on refills, in nanoseconds.
+     */
+    private final LongAdder totalRefillNanos = new LongAdder();
+
+    @Autowired
+    private void setGameRepository(HangmanGameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    /**
+     * Start the periodic refills, if the pool is enabled. The games left in the pool by a previous run
+     * are deleted first, then the first refill starts immediately.
+     * @param gameFactory Factory of new, unsaved games.
+     */
+    public void start(Supplier<HangmanGame> gameFactory) {
+        this.gameFactory = gameFactory;
+        if (!isEnabled() || refillExecutor != null) { return; }
+
+        if (owner.isEmpty()) {
+            owner = localHostName();
+        }
+        refillExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "hangman-game-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refillExecutor.execute(this::deleteLeftovers);
+        refillExecutor.scheduleWithFixedDelay(this::refill, 0, refillIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the refills, release the saves of the handed out games and delete the games that are left in the pool.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (refillExecutor != null) {
+            refillExecutor.shutdown();
+            refillExecutor.awaitTermination(refillIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        releaseHandedOut();
+
+        var remaining = new ArrayList<HangmanGame>();
+        games.drainTo(remaining);
+        if (remaining.isEmpty()) { return; }
+        try {
+            gameRepository.deleteAll(remaining);
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete " + remaining.size() + " unused games of the pool", e);
+        }
+    }
+
+    /**
+     * Take a saved game from the pool. Its save is released by the next refill.
+     * @return The game, or an empty Optional if the pool is disabled or empty.
+     */
+    public Optional<HangmanGame> take() {
+        if (!isEnabled()) { return Optional.empty(); }
+
+        var game = games.poll();
+        if (game == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        game.setPoolOwner(null);
+        unreleased.add(game);
+        handedOut.increment();
+        return Optional.of(game);
+    }
+
+    /**
+     * Release the saves of the handed out games, then create and save a batch of games, if the pool is not full.
+     */
+    void refill() {
+        releaseHandedOut();
+
+        int missing = Math.min(size - games.size(), batchSize);
+        if (missing <= 0) { return; }
+
+        long startTime = System.nanoTime();
+        var batch = new ArrayList<HangmanGame>(missing);
+        try {
+            for (int i = 0; i < missing; ++i) {
+                var game = gameFactory.get();
+                game.setPoolOwner(owner);
+                batch.add(game);
+            }
+            gameRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            failedRefills.increment();
+            logger.warn("Could not refill the game pool", e);
+            return;
+        }
+        games.addAll(batch);
+        created.add(batch.size());
+
+        refillCount.increment();
+        totalRefillNanos.add(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Clear the owner in the saves of the games that were handed out since the last refill.
+     * If this fails, the games are released by the next refill.
+     */
+    void releaseHandedOut() {
+        var released = new ArrayList<HangmanGame>();
+        for (var game = unreleased.poll(); game != null; game = unreleased.poll()) {
+            released.add(game);
+        }
+        if (released.isEmpty()) { return; }
+
+        try {
+            gameRepository.releasePooled(released);
+        } catch (RuntimeException e) {
+            unreleased.addAll(released);
+            logger.warn("Could not release " + released.size() + " handed out games of the pool", e);
+        }
+    }
+
+    /**
+     * Delete the games that were left in the pool by a previous run of this application instance.
+     */
+    void deleteLeftovers() {
+        try {
+            int deleted = gameRepository.deletePooled(owner);
+            if (deleted > 0) {
+                logger.info("Deleted " + deleted + " unused games of the pool of a previous run");
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete the unused games of the pool of a previous run", e);
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("the host name is unknown, set hangman.gamePool.owner instead", e);
+        }
+    }
+
+    /**
+     * Check whether the pool is enabled.
+     * @return true if the size of the pool is positive.
+     */
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Get the number of games that are ready to be played.
+     * @return The number of games in the pool.
+     */
+    public int getAvailable() {
+        return games.size();
+    }
+
+    public int getSize() { return size; }
+    public long getHandedOut() { return handedOut.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getCreated() { return created.sum(); }
+    public long getFailedRefills() { return failedRefills.sum(); }
+    public long getRefillCount() { return refillCount.sum(); }
+    public long getTotalRefillNanos() { return totalRefillNanos.sum(); }
+}
@@ -0,0 +1,104 @@
+package pl.kmolski.hangman.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.HangmanGame;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the state of a game, as returned by the JSON API and kept in the HTTP session.
+ *
+ * The snapshot does not contain the dictionary, so its size does not depend on the number of words.
+ * The ID and the revision of the game identify the snapshot, e.g. in the ETags of the views.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameState implements Serializable {
+    /**
+     * The identifier of the game save.
+     */
+    private final Long id;
+    /**
+     * The revision of the game state.
+     */
+    private final int revision;
+    /**
+     * The current word, with secret characters masked out.
+     */
+    private final String maskedWord;
+    /**
+     * Letters that have been tried in the current round, separated by spaces.
+     */
+    private final String guessedLetters;
+    /**
+     * Incorrect guess count in the current round.
+     */
+    private final int misses;
+    /**
+     * Number of words that were guessed correctly.
+     */
+    private final int wordsGuessed;
+    /**
+     * Number of words left in the dictionary.
+     */
+    private final int wordsRemaining;
+    /**
+     * The difficulty band of the words of the next rounds.
+     */
+    private final Difficulty difficulty;
+    /**
+     * Whether the game is over.
+     */
+    private final boolean gameOver;
+    /**
+     * The outcome of the request's guess, if there was one.
+     */
+    private final GuessOutcome outcome;
+
+    private GameState(HangmanGame game, GuessOutcome outcome) {
+        this.id = game.getId();
+        this.revision = game.getRevision();
+        this.maskedWord = game.getMaskedWord();
+        this.guessedLetters = game.getGuessedLetters();
+        this.misses = game.getMisses();
+        this.wordsGuessed = game.getWordsGuessed();
+        this.wordsRemaining = game.getWordsRemaining();
+        this.difficulty = game.getDifficulty();
+        this.gameOver = game.isGameOver();
+        this.outcome = outcome;
+    }
+
+    /**
+     * Create the state of a game.
+     * @param game The game state object.
+     * @return The game state.
+     */
+    public static GameState of(HangmanGame game) {
+        return new GameState(game, null);
+    }
+
+    /**
+     * Create the state of a game after a guess.
+     * @param game The game state object.
+     * @param outcome The outcome of the guess.
+     * @return The game state.
+     */
+    public static GameState of(HangmanGame game, GuessOutcome outcome) {
+        return new GameState(game, outcome);
+    }
+
+    public Long getId() { return id; }
+    public int getRevision() { return revision; }
+    public String getMaskedWord() { return maskedWord; }
+    public String getGuessedLetters() { return guessedLetters; }
+    public int getMisses() { return misses; }
+    public int getMaxMisses() { return HangmanGame.MAX_MISSES; }
+    public int getWordsGuessed() { return wordsGuessed; }
+    public int getWordsRemaining() { return wordsRemaining; }
+    public Difficulty getDifficulty() { return difficulty; }
+    public boolean isGameOver() { return gameOver; }
+    public GuessOutcome getOutcome() { return outcome; }
+}
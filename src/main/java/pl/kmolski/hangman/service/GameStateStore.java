@@ -0,0 +1,36 @@
+package pl.kmolski.hangman.service;
+
+import pl.kmolski.hangman.model.HangmanGame;
+
+import java.util.Optional;
+
+/**
+ * Store of the state of the games that are being played.
+ *
+ * The HTTP sessions only hold the game IDs and a small snapshot of the game state,
+ * the complete state is kept in the store. The application database remains the
+ * authoritative copy of every game, so the store may drop games at any time.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public interface GameStateStore {
+    /**
+     * Get the state of the game with the specified ID.
+     * @param id Game save ID.
+     * @return The game state object, if the store contains it.
+     */
+    Optional<HangmanGame> load(Long id);
+
+    /**
+     * Store the current state of the game, replacing any previous state.
+     * @param game The game state object.
+     */
+    void save(HangmanGame game);
+
+    /**
+     * Remove the state of the game with the specified ID.
+     * @param id Game save ID.
+     */
+    void remove(Long id);
+}
@@ -0,0 +1,18 @@
+package pl.kmolski.hangman.service;
+
+/**
+ * An exception that is thrown when the requested game save exists, but can not be played,
+ * because the words of its dictionary are missing (e.g. the words of a mapped pool that were never stored).
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class GameUnavailableException extends GameNotFoundException {
+    /**
+     * Create a new GameUnavailableException for the requested game save.
+     * @param id The requested game save ID.
+     */
+    public GameUnavailableException(Long id) {
+        super(id, "game save ID " + id + " is unavailable, the words of its dictionary are missing!");
+    }
+}
@@ -0,0 +1,54 @@
+package pl.kmolski.hangman.service;
+
+/**
+ * The outcome of a guess submitted to the game.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public enum GuessOutcome {
+    /**
+     * The letter is in the current word.
+     */
+    CORRECT(true, false),
+    /**
+     * The letter is not in the current word.
+     */
+    WRONG(false, false),
+    /**
+     * The current word has been guessed, and the next round has started.
+     */
+    ROUND_OVER(true, false),
+    /**
+     * All words have been guessed.
+     */
+    GAME_WON(true, true),
+    /**
+     * The maximum number of misses has been reached.
+     */
+    GAME_LOST(false, true);
+
+    private final boolean guessCorrect;
+    private final boolean gameOver;
+
+    GuessOutcome(boolean guessCorrect, boolean gameOver) {
+        this.guessCorrect = guessCorrect;
+        this.gameOver = gameOver;
+    }
+
+    /**
+     * Check whether the guessed letter is in the word.
+     * @return true if the guess was correct.
+     */
+    public boolean isGuessCorrect() {
+        return guessCorrect;
+    }
+
+    /**
+     * Check whether the guess has ended the game.
+     * @return true if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
@@ -1,129 +1,468 @@
 package pl.kmolski.hangman.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.GameEvent;
+import pl.kmolski.hangman.model.GameSaveSummary;
 import pl.kmolski.hangman.model.HangmanDictionary;
 import pl.kmolski.hangman.model.HangmanGame;
 import pl.kmolski.hangman.model.InvalidGuessException;
+import pl.kmolski.hangman.model.WordPool;
+import pl.kmolski.hangman.repo.GameEventLog;
+import pl.kmolski.hangman.repo.GameLocks;
 import pl.kmolski.hangman.repo.HangmanGameRepository;
+import pl.kmolski.hangman.repo.WordPoolRepository;
+import pl.kmolski.hangman.repo.WriteBehindGameQueue;
 
-import javax.servlet.http.HttpSession;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class for the web app. Handles database operations and main game logic.
  *
+ * Games are identified by their save IDs. Every operation on a game holds the lock of that game,
+ * from loading the game until its new state is written, so concurrent requests for one game are
+ * serialized, while requests for different games run in parallel. The repository calls run in
+ * their own transactions, which are committed before the lock is released.
+ * The public operations are timed by the `hangman.service` timer, and the guesses are counted
+ * by their outcomes in the `hangman.guesses` counter. When the game event log is enabled, the changes
+ * of the games are appended to it, and the game saves are only updated when the games are snapshotted.
+ *
  * @author Krzysztof Molski
- * @version 1.0
+ * @version 1.13.0
  */
 @Service
-public class HangmanGameService {
+public class HangmanGameService implements InitializingBean {
+    /**
+     * The maximum number of words in a word pool created from a word file.
+     */
+    public static final int INGESTION_BATCH_SIZE = 4096;
+    /**
+     * Name of the timer of the service operations.
+     */
+    private static final String TIMER_NAME = "hangman.service";
+
+    /**
+     * Whether the words of word files that are already in the dictionary, or repeated in the file, are skipped.
+     */
+    @Value("${hangman.words.deduplicate:false}")
+    private boolean deduplicate = false;
 
     /**
      * Repository of game state objects.
      */
     private HangmanGameRepository gameRepository;
 
+    /**
+     * Locks that serialize the modifications of a single game.
+     */
+    private GameLocks gameLocks;
+    /**
+     * Repository of shared word pools.
+     */
+    private WordPoolRepository wordPoolRepository;
+    /**
+     * Write-behind queue of game updates.
+     */
+    private WriteBehindGameQueue writeBehindQueue;
+    /**
+     * Append-only log of the game events.
+     */
+    private GameEventLog eventLog;
+    /**
+     * Store of the state of the games that are being played.
+     */
+    private GameStateStore gameStateStore;
+    /**
+     * The built-in dictionary of the new games.
+     */
+    private SystemDictionary systemDictionary;
+    /**
+     * Pool of new games that are ready to be played.
+     */
+    private GamePool gamePool;
+    /**
+     * Reader that splits word files into batches of normalized words.
+     */
+    private final WordStreamReader wordStreamReader = new WordStreamReader(INGESTION_BATCH_SIZE);
+    /**
+     * Ingestion counters of all word files.
+     */
+    private final WordIngestionStats ingestionTotals = new WordIngestionStats();
+    /**
+     * Counters of the guesses, by their outcomes.
+     */
+    private final Map<GuessOutcome, Counter> guessCounters = new EnumMap<>(GuessOutcome.class);
+    /**
+     * Timer of the new games that were taken from the pool.
+     */
+    private Timer pooledGameTimer;
+    /**
+     * Timer of the new games that were created on request.
+     */
+    private Timer createdGameTimer;
+
     @Autowired
     private void setGameRepository(HangmanGameRepository gameRepository) {
         this.gameRepository = gameRepository;
     }
 
+    @Autowired
+    private void setGameLocks(GameLocks gameLocks) {
+        this.gameLocks = gameLocks;
+    }
+
+    @Autowired
+    private void setWriteBehindQueue(WriteBehindGameQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @Autowired
+    private void setEventLog(GameEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Autowired
+    private void setGameStateStore(GameStateStore gameStateStore) {
+        this.gameStateStore = gameStateStore;
+    }
+
+    @Autowired
+    private void setWordPoolRepository(WordPoolRepository wordPoolRepository) {
+        this.wordPoolRepository = wordPoolRepository;
+    }
+
+    @Autowired
+    private void setSystemDictionary(SystemDictionary systemDictionary) {
+        this.systemDictionary = systemDictionary;
+    }
+
+    @Autowired
+    private void setGamePool(GamePool gamePool) {
+        this.gamePool = gamePool;
+    }
+
+    @Autowired
+    private void setMeterRegistry(MeterRegistry meterRegistry) {
+        for (var outcome : GuessOutcome.values()) {
+            guessCounters.put(outcome, Counter.builder("hangman.guesses")
+                                              .description("Guesses submitted by the players")
+                                              .tag("outcome", outcome.name())
+                                              .register(meterRegistry));
+        }
+        pooledGameTimer = Timer.builder("hangman.gamePool.handOut")
+                               .description("Latency of getting a new game")
+                               .tag("source", "pool")
+                               .register(meterRegistry);
+        createdGameTimer = Timer.builder("hangman.gamePool.handOut")
+                                .description("Latency of getting a new game")
+                                .tag("source", "created")
+                                .register(meterRegistry);
+    }
+
     /**
-     * Create the game state object and persist it in the database.
-     * The new game state contains the default dictionary words.
+     * Keep the game state store and the snapshots in the event log up to date with the versions of the games
+     * written by the write-behind queue, evict the games whose updates were discarded from the store,
+     * and start filling the pool of new games.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        writeBehindQueue.addFlushListener(gameStateStore::save);
+        writeBehindQueue.addFlushListener(eventLog::snapshot);
+        writeBehindQueue.addDiscardListener(gameStateStore::remove);
+        gamePool.start(() -> createGameModel(Difficulty.ANY));
+    }
+
+    /**
+     * Create the game state object that uses words of any difficulty, and persist it in the database.
      * @return The game state object
      */
     public HangmanGame createAndSaveGameModel() {
+        return createAndSaveGameModel(Difficulty.ANY);
+    }
+
+    /**
+     * Get a new game state object that is persisted in the database. Games that use words of any difficulty
+     * are taken from the pool of new games, if it is not empty, otherwise the game is created and saved.
+     * @param difficulty The difficulty band of the words
+     * @return The game state object
+     */
+    @Timed(TIMER_NAME)
+    public HangmanGame createAndSaveGameModel(Difficulty difficulty) {
+        long startTime = System.nanoTime();
+        var pooledModel = (difficulty == Difficulty.ANY) ? gamePool.take() : Optional.<HangmanGame>empty();
+        var model = pooledModel.orElseGet(() -> {
+            var newModel = createGameModel(difficulty);
+            gameRepository.save(newModel);
+            return newModel;
+        });
+        eventLog.append(GameEvent.gameCreated(model));
+        eventLog.snapshot(model);
+        gameStateStore.save(model);
+
+        var timer = pooledModel.isPresent() ? pooledGameTimer : createdGameTimer;
+        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return model;
+    }
+
+    /**
+     * Create a new game state object, without saving it. The new game state references the mapped pool
+     * of the system dictionary, or the shared pool of default dictionary words if there is no system dictionary.
+     * The words are not copied.
+     * @param difficulty The difficulty band of the words
+     * @return The game state object
+     */
+    private HangmanGame createGameModel(Difficulty difficulty) {
         var model = new HangmanGame(new HangmanDictionary());
-        model.addWords(HangmanDictionary.DEFAULT_WORDS);
+        model.setDifficulty(difficulty);
+        var systemPool = systemDictionary.getPool();
+        var pool = (systemPool != null) ? systemPool : WordPool.of(HangmanDictionary.DEFAULT_WORDS);
+        model.addWordPool(wordPoolRepository.intern(pool));
         model.nextRound();
-        gameRepository.save(model);
         return model;
     }
 
     /**
-     * Load a game state from the database. The previous game state should be provided
-     * as an argument to this method to ensure that no progress is lost.
-     * @param prevModel The previous game state object
-     * @param id The ID of the game state object that will be loaded
+     * Get a snapshot of the current state of a game.
+     * @param id The ID of the game state object
+     * @return The snapshot of the game state
+     * @throws GameNotFoundException Thrown if the game save does not exist
+     */
+    @Timed(TIMER_NAME)
+    public GameState getGameState(Long id) {
+        return gameLocks.withLock(id, () -> GameState.of(getGame(id)));
+    }
+
+    /**
+     * Get the revision of a game, which identifies the current version of its state. This is cheaper
+     * than getting a snapshot of the game, and the game is usually found in the game state store.
+     * @param id The ID of the game state object
+     * @return The revision of the game
+     * @throws GameNotFoundException Thrown if the game save does not exist
+     */
+    @Timed(TIMER_NAME)
+    public int getRevision(Long id) {
+        return gameLocks.withLock(id, () -> getGame(id).getRevision());
+    }
+
+    /**
+     * Get the current state of a game. Games with a pending update are taken from the
+     * write-behind queue, then the game state store is checked. The remaining games are rebuilt
+     * from the event log, or loaded from the database, and put into the store.
+     * The caller has to hold the lock of the game.
+     * @param id The ID of the game state object
      * @return The requested game state object
+     * @throws GameNotFoundException Thrown if the game save does not exist, or its words are missing
      */
-    @Transactional
-    public HangmanGame loadGameSave(HangmanGame prevModel, Long id) {
-        if (prevModel != null) {
-            gameRepository.update(prevModel);
+    private HangmanGame getGame(Long id) {
+        var pendingModel = writeBehindQueue.findPending(id);
+        if (pendingModel.isPresent()) {
+            return pendingModel.get();
         }
 
-        var newModel = gameRepository.get(id);
-        if (newModel.isEmpty()) {
-            throw new RuntimeException("game save ID " + id + " does not exist!");
+        var storedModel = gameStateStore.load(id);
+        if (storedModel.isPresent()) {
+            return storedModel.get();
         }
-        return newModel.get();
+
+        var loggedModel = eventLog.load(id);
+        if (loggedModel.isPresent()) {
+            gameStateStore.save(loggedModel.get());
+            return loggedModel.get();
+        }
+
+        var model = gameRepository.get(id).orElseThrow(() -> new GameNotFoundException(id));
+        model.internWordPools(wordPoolRepository::intern);
+        if (!model.hasAllWords()) {
+            throw new GameUnavailableException(id);
+        }
+        gameStateStore.save(model);
+        return model;
     }
 
     /**
-     * Get all game state object from the database
-     * @return A list of game state objects
+     * Get a page of game save summaries. The page starts after the given game save ID,
+     * and contains one summary more than requested if there are further pages.
+     * @param afterId The ID after which the page starts, or null for the first page
+     * @param pageSize The number of summaries on a page
+     * @return A list of game save summaries
      */
-    public List<HangmanGame> getAllGameSaves() {
-        return gameRepository.getAll();
+    @Timed(TIMER_NAME)
+    public List<GameSaveSummary> getGameSavePage(Long afterId, int pageSize) {
+        return gameRepository.getSummaries(afterId, pageSize + 1);
     }
 
     /**
-     * Add words from the file to the game state object
+     * Add words from the file to the game. The file is read as a stream, and the words
+     * are stored in shared word pools of at most `INGESTION_BATCH_SIZE` words each.
+     * The pools are added to the game after the whole file has been read.
+     * @param id The ID of the game state object
      * @param wordFile The word file
-     * @param gameModel The game state object
+     * @return The snapshot of the game state
      * @throws IOException This operation may fail if the word file can not be opened
+     * @throws GameNotFoundException Thrown if the game save does not exist
      */
-    public void addWords(MultipartFile wordFile, HangmanGame gameModel) throws IOException {
-        try (var reader = new BufferedReader(new InputStreamReader(wordFile.getInputStream()))) {
-            gameModel.addWords(reader.lines().collect(Collectors.toList()));
+    @Timed(TIMER_NAME)
+    public GameState addWords(Long id, MultipartFile wordFile) throws IOException {
+        return gameLocks.withLock(id, () -> {
+            var gameModel = getGame(id);
+            addWords(wordFile, gameModel);
+            return GameState.of(gameModel);
+        });
+    }
+
+    private WordIngestionStats addWords(MultipartFile wordFile, HangmanGame gameModel) throws IOException {
+        var stats = new WordIngestionStats();
+        var pools = new ArrayList<WordPool>();
+        try (var input = wordFile.getInputStream()) {
+            wordStreamReader.read(input, batch -> internWordBatch(batch, gameModel, pools, stats), stats);
+        } finally {
+            ingestionTotals.addAll(stats);
         }
-        gameRepository.update(gameModel);
+
+        // The pools are only added once the whole file has been read, so a failed upload leaves the game unchanged.
+        for (var pool : pools) {
+            gameModel.addWordPool(pool);
+            eventLog.append(GameEvent.wordsAdded(gameModel, pool));
+        }
+        saveGame(gameModel);
+        return stats;
+    }
+
+    private void internWordBatch(List<String> batch, HangmanGame gameModel, List<WordPool> pools,
+                                 WordIngestionStats stats) {
+        var words = batch;
+        if (deduplicate) {
+            words = new ArrayList<>(batch.size());
+            for (var word : gameModel.removeDuplicates(batch)) {
+                if (!containsWord(pools, word)) { words.add(word); }
+            }
+            stats.addDuplicatesRejected(batch.size() - words.size());
+        }
+        if (!words.isEmpty()) {
+            pools.add(wordPoolRepository.intern(WordPool.of(words)));
+        }
+    }
+
+    private static boolean containsWord(List<WordPool> pools, String word) {
+        for (var pool : pools) {
+            if (pool.contains(word)) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Get the ingestion counters of all word files that were added so far.
+     * @return The total ingestion counters
+     */
+    public WordIngestionStats getIngestionTotals() {
+        return ingestionTotals;
     }
 
     /**
      * Skip the current word in the game. If this causes the player to lose
      * the game, delete the game state object from the database.
-     * @param gameModel The game state object
+     * @param id The ID of the game state object
+     * @return The snapshot of the game state
+     * @throws GameNotFoundException Thrown if the game save does not exist
      */
-    public void skipWord(HangmanGame gameModel) {
-        gameModel.nextRound();
-        if (gameModel.isGameOver()) {
-            gameRepository.delete(gameModel);
-        } else {
-            gameRepository.update(gameModel);
-        }
+    public GameState skipWord(Long id) {
+        return skipWord(id, null);
     }
 
     /**
-     * Try the given letter. If the guess causes the player to lose the game,
-     * the game state object will be removed from the DB and the HTTP session.
-     * @param session The HTTP session that contains the game state
-     * @param gameModel The game state object
+     * Skip the current word in the game, and take the next words from the given difficulty band.
+     * If this causes the player to lose the game, delete the game state object from the database.
+     * @param id The ID of the game state object
+     * @param difficulty The difficulty band of the next words, or null to keep the current band
+     * @return The snapshot of the game state
+     * @throws GameNotFoundException Thrown if the game save does not exist
+     */
+    @Timed(TIMER_NAME)
+    public GameState skipWord(Long id, Difficulty difficulty) {
+        return gameLocks.withLock(id, () -> {
+            var gameModel = getGame(id);
+            if (difficulty != null) {
+                gameModel.setDifficulty(difficulty);
+            }
+            eventLog.append(GameEvent.wordSkipped(gameModel));
+            gameModel.nextRound();
+            if (gameModel.isGameOver()) {
+                deleteGame(gameModel);
+            } else {
+                eventLog.append(GameEvent.roundStarted(gameModel));
+                saveGame(gameModel);
+            }
+            return GameState.of(gameModel);
+        });
+    }
+
+    /**
+     * Try the given letter. If the guess completes the current word, the next round is started.
+     * If the guess ends the game, the game state object is deleted from the database.
+     * @param id The ID of the game state object
      * @param guess The guessed letter
-     * @return true if the guess is correct
+     * @return The snapshot of the game state, with the outcome of the guess
      * @throws InvalidGuessException May be thrown if the guess is not a single letter
+     * @throws GameNotFoundException Thrown if the game save does not exist
      */
-    @Transactional
-    public boolean tryLetter(HttpSession session, HangmanGame gameModel, String guess) throws InvalidGuessException {
+    @Timed(TIMER_NAME)
+    public GameState submitGuess(Long id, String guess) throws InvalidGuessException {
+        var gameState = gameLocks.withLock(id, () -> {
+            var gameModel = getGame(id);
+            return GameState.of(gameModel, submitGuess(gameModel, guess));
+        });
+        guessCounters.get(gameState.getOutcome()).increment();
+        return gameState;
+    }
+
+    private GuessOutcome submitGuess(HangmanGame gameModel, String guess) throws InvalidGuessException {
         boolean isGuessCorrect = gameModel.tryLetter(guess);
-        gameRepository.update(gameModel);
+        eventLog.append(GameEvent.letterGuessed(gameModel, guess));
 
         if (gameModel.isGameOver()) {
-            gameRepository.delete(gameModel);
-            session.removeAttribute("gameModel");
-        } else if (gameModel.isRoundOver()) {
+            deleteGame(gameModel);
+            return gameModel.didWin() ? GuessOutcome.GAME_WON : GuessOutcome.GAME_LOST;
+        }
+
+        var outcome = isGuessCorrect ? GuessOutcome.CORRECT : GuessOutcome.WRONG;
+        if (gameModel.isRoundOver()) {
             gameModel.nextRound();
+            eventLog.append(GameEvent.roundStarted(gameModel));
+            outcome = GuessOutcome.ROUND_OVER;
         }
+        saveGame(gameModel);
+        return outcome;
+    }
+
+    /**
+     * Save the state of a game. If the event log is enabled, the changes of the game have already been
+     * appended to it, and its save in the database is only updated when the game is snapshotted.
+     */
+    private void saveGame(HangmanGame gameModel) {
+        if (!eventLog.isEnabled() || eventLog.isSnapshotDue(gameModel.getId())) {
+            writeBehindQueue.update(gameModel);
+            eventLog.snapshot(gameModel);
+        }
+        gameStateStore.save(gameModel);
+    }
 
-        return isGuessCorrect;
+    private void deleteGame(HangmanGame gameModel) {
+        gameStateStore.remove(gameModel.getId());
+        eventLog.remove(gameModel.getId());
+        writeBehindQueue.delete(gameModel);
     }
 }
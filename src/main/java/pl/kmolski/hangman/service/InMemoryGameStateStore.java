@@ -0,0 +1,55 @@
+package pl.kmolski.hangman.service;
+
+import pl.kmolski.hangman.model.HangmanGame;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Game state store that keeps the game state objects in memory.
+ *
+ * The store holds at most `capacity` games, the least recently used games are dropped first.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class InMemoryGameStateStore implements GameStateStore {
+    /**
+     * The stored games, in access order.
+     */
+    private final Map<Long, HangmanGame> games;
+
+    /**
+     * Create a new in-memory store.
+     * @param capacity The maximum number of stored games.
+     */
+    public InMemoryGameStateStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HangmanGame> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<HangmanGame> load(Long id) {
+        return Optional.ofNullable(games.get(id));
+    }
+
+    @Override
+    public synchronized void save(HangmanGame game) {
+        if (game.getId() != null) {
+            games.put(game.getId(), game);
+        }
+    }
+
+    @Override
+    public synchronized void remove(Long id) {
+        games.remove(id);
+    }
+}
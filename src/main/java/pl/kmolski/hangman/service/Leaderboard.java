@@ -0,0 +1,36 @@
+package pl.kmolski.hangman.service;
+
+import pl.kmolski.hangman.model.PlayerStats;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the players with the most wins.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class Leaderboard {
+    /**
+     * The statistics of the best players, in order.
+     */
+    private final List<PlayerStats> entries;
+    /**
+     * The time when the snapshot was taken.
+     */
+    private final Instant generatedAt;
+
+    /**
+     * Create a snapshot of the leaderboard.
+     * @param entries The statistics of the best players, in order.
+     * @param generatedAt The time when the snapshot was taken.
+     */
+    public Leaderboard(List<PlayerStats> entries, Instant generatedAt) {
+        this.entries = List.copyOf(entries);
+        this.generatedAt = generatedAt;
+    }
+
+    public List<PlayerStats> getEntries() { return entries; }
+    public Instant getGeneratedAt() { return generatedAt; }
+}
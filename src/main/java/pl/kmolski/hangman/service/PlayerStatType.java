@@ -0,0 +1,14 @@
+package pl.kmolski.hangman.service;
+
+/**
+ * Events that are counted in the statistics of a player.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public enum PlayerStatType {
+    WIN,
+    LOSS,
+    CORRECT_GUESS,
+    WRONG_GUESS
+}
@@ -0,0 +1,267 @@
+package pl.kmolski.hangman.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pl.kmolski.hangman.model.PlayerStats;
+import pl.kmolski.hangman.repo.PlayerStatsRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service that aggregates the statistics of the players.
+ *
+ * The events are counted in memory, in LongAdder counters of every player, so recording an event
+ * does not access the database. The counters are periodically flushed to the database in batches,
+ * and the counters of the players that have been idle for two flushes are dropped. After every flush,
+ * a snapshot of the leaderboard is read from the database, and the leaderboard requests are served
+ * from that snapshot. The counters that were not flushed are written when the application shuts down.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Service
+public class PlayerStatsService implements InitializingBean, DisposableBean {
+    private static final Log logger = LogFactory.getLog(PlayerStatsService.class);
+
+    /**
+     * The maximum number of players whose statistics are written in a single transaction.
+     */
+    static final int FLUSH_BATCH_SIZE = 500;
+
+    /**
+     * Repository of player statistics.
+     */
+    private PlayerStatsRepository playerStatsRepository;
+    /**
+     * Interval between flushes, in milliseconds.
+     */
+    @Value("${hangman.playerStats.flushIntervalMs:5000}")
+    private long flushIntervalMs = 5000;
+    /**
+     * The number of players on the leaderboard.
+     */
+    @Value("${hangman.playerStats.leaderboardSize:10}")
+    private int leaderboardSize = 10;
+
+    /**
+     * Counters of the events that have not been flushed yet, keyed by the player identifiers.
+     */
+    private final Map<String, PlayerCounters> pending = new ConcurrentHashMap<>();
+    /**
+     * Executor of the periodic flushes.
+     */
+    private ScheduledExecutorService flushExecutor;
+    /**
+     * The latest snapshot of the leaderboard.
+     */
+    private volatile Leaderboard leaderboard = new Leaderboard(List.of(), Instant.EPOCH);
+    /**
+     * Number of player statistics that could not be written, and were put back into the counters.
+     */
+    private final LongAdder failedWrites = new LongAdder();
+
+    /**
+     * Event counters of a single player.
+     */
+    private static final class PlayerCounters {
+        /**
+         * The counters, indexed by the ordinals of the event types.
+         */
+        private final LongAdder[] counts = new LongAdder[PlayerStatType.values().length];
+        /**
+         * Whether the counters have been removed from the pending counters, only written by the flushes.
+         */
+        private volatile boolean retired = false;
+        /**
+         * Number of consecutive flushes that found no events, only accessed by the flushes.
+         */
+        private int idleFlushes = 0;
+
+        PlayerCounters() {
+            for (int i = 0; i < counts.length; ++i) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Take the counts of the events, and reset the counters.
+         * @param playerId The identifier of the player.
+         * @return The counted events.
+         */
+        PlayerStats drain(String playerId) {
+            return new PlayerStats(playerId,
+                    counts[PlayerStatType.WIN.ordinal()].sumThenReset(),
+                    counts[PlayerStatType.LOSS.ordinal()].sumThenReset(),
+                    counts[PlayerStatType.CORRECT_GUESS.ordinal()].sumThenReset(),
+                    counts[PlayerStatType.WRONG_GUESS.ordinal()].sumThenReset());
+        }
+
+        void add(PlayerStats stats) {
+            counts[PlayerStatType.WIN.ordinal()].add(stats.getWins());
+            counts[PlayerStatType.LOSS.ordinal()].add(stats.getLosses());
+            counts[PlayerStatType.CORRECT_GUESS.ordinal()].add(stats.getCorrectGuesses());
+            counts[PlayerStatType.WRONG_GUESS.ordinal()].add(stats.getWrongGuesses());
+        }
+    }
+
+    @Autowired
+    private void setPlayerStatsRepository(PlayerStatsRepository playerStatsRepository) {
+        this.playerStatsRepository = playerStatsRepository;
+    }
+
+    /**
+     * Start the periodic flushes. The first flush reads the initial leaderboard.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "hangman-player-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushAndRefresh, 0, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic flushes and write all counted events.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        flush();
+    }
+
+    /**
+     * Count an event in the statistics of a player.
+     * @param playerId The identifier of the player.
+     * @param type The type of the event.
+     */
+    public void record(String playerId, PlayerStatType type) {
+        var counters = pending.computeIfAbsent(playerId, id -> new PlayerCounters());
+        counters.counts[type.ordinal()].increment();
+        if (counters.retired) {
+            // The counters were dropped by a flush, which might have missed the event.
+            moveToPending(playerId, counters.drain(playerId));
+        }
+    }
+
+    private void moveToPending(String playerId, PlayerStats stats) {
+        if (stats.isEmpty()) { return; }
+
+        var counters = pending.computeIfAbsent(playerId, id -> new PlayerCounters());
+        counters.add(stats);
+        if (counters.retired) {
+            moveToPending(playerId, counters.drain(playerId));
+        }
+    }
+
+    /**
+     * Get the statistics of a player, including the events that have not been flushed yet.
+     * @param playerId The identifier of the player.
+     * @return The statistics of the player.
+     */
+    public PlayerStats getStats(String playerId) {
+        var stats = new PlayerStats(playerId, 0, 0, 0, 0);
+        playerStatsRepository.get(playerId).ifPresent(stats::add);
+
+        var counters = pending.get(playerId);
+        if (counters != null) {
+            stats.add(new PlayerStats(playerId,
+                    counters.counts[PlayerStatType.WIN.ordinal()].sum(),
+                    counters.counts[PlayerStatType.LOSS.ordinal()].sum(),
+                    counters.counts[PlayerStatType.CORRECT_GUESS.ordinal()].sum(),
+                    counters.counts[PlayerStatType.WRONG_GUESS.ordinal()].sum()));
+        }
+        return stats;
+    }
+
+    /**
+     * Get the latest snapshot of the leaderboard. The database is not accessed.
+     * @return The leaderboard.
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Write the counted events to the database, in batches of at most `FLUSH_BATCH_SIZE` players.
+     * The events of a batch that could not be written are put back into the counters.
+     * @return The number of players whose statistics were written.
+     */
+    public synchronized int flush() {
+        var changes = new ArrayList<PlayerStats>();
+        for (var entry : pending.entrySet()) {
+            var playerId = entry.getKey();
+            var counters = entry.getValue();
+            var change = counters.drain(playerId);
+
+            if (change.isEmpty() && ++counters.idleFlushes >= 2) {
+                counters.retired = true;
+                pending.remove(playerId, counters);
+                // Events that were counted before the counters were retired.
+                change = counters.drain(playerId);
+            }
+            if (!change.isEmpty()) {
+                counters.idleFlushes = 0;
+                changes.add(change);
+            }
+        }
+
+        int written = 0;
+        for (int start = 0; start < changes.size(); start += FLUSH_BATCH_SIZE) {
+            var batch = changes.subList(start, Math.min(start + FLUSH_BATCH_SIZE, changes.size()));
+            try {
+                playerStatsRepository.addAll(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                failedWrites.add(batch.size());
+                logger.warn("Could not write the statistics of " + batch.size() + " players", e);
+                batch.forEach(stats -> moveToPending(stats.getPlayerId(), stats));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Take a new snapshot of the leaderboard from the database.
+     */
+    public void refreshLeaderboard() {
+        leaderboard = new Leaderboard(playerStatsRepository.getTopPlayers(leaderboardSize), Instant.now());
+    }
+
+    private void flushAndRefresh() {
+        try {
+            if (flush() > 0 || leaderboard.getGeneratedAt().equals(Instant.EPOCH)) {
+                refreshLeaderboard();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh the leaderboard", e);
+        }
+    }
+
+    /**
+     * Get the number of players with counters in memory.
+     * @return The number of players.
+     */
+    public int getPendingPlayers() {
+        return pending.size();
+    }
+
+    public long getFailedWrites() { return failedWrites.sum(); }
+}
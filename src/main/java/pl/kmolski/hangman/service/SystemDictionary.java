@@ -0,0 +1,157 @@
+package pl.kmolski.hangman.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import pl.kmolski.hangman.model.MappedWordList;
+import pl.kmolski.hangman.model.WordPool;
+import pl.kmolski.hangman.repo.WordPoolRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The built-in dictionary of the new games.
+ *
+ * At startup, the words of the source file are normalized in the same way as uploaded word files,
+ * and written to an index file, which is memory-mapped and registered as a mapped word pool.
+ * The index is only rebuilt when the length or the modification time of the source file changes,
+ * so the following startups only map the index file. If no source file is configured, the new
+ * games use the default words instead.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@Component
+public class SystemDictionary implements InitializingBean {
+    private static final Log logger = LogFactory.getLog(SystemDictionary.class);
+
+    /**
+     * The number of words that are passed from the word file reader to the index writer at once.
+     */
+    private static final int READ_BATCH_SIZE = 4096;
+
+    /**
+     * Location of the source file, e.g. `classpath:dictionary.txt`, or an empty string to disable the dictionary.
+     */
+    @Value("${hangman.systemDictionary.source:}")
+    private String source = "";
+    /**
+     * Path of the index file, or an empty string for a file in the temporary directory.
+     */
+    @Value("${hangman.systemDictionary.indexFile:}")
+    private String indexFile = "";
+
+    /**
+     * Loader of the source file.
+     */
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+    /**
+     * Repository of shared word pools.
+     */
+    private WordPoolRepository wordPoolRepository;
+    /**
+     * The mapped word pool, or null if the dictionary is disabled.
+     */
+    private WordPool pool;
+
+    @Autowired
+    private void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Autowired
+    private void setWordPoolRepository(WordPoolRepository wordPoolRepository) {
+        this.wordPoolRepository = wordPoolRepository;
+    }
+
+    /**
+     * Map the index of the source file, building it first if it is missing or out of date.
+     * @throws IOException Thrown if the source file can not be read, or the index can not be written.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (source.isEmpty()) { return; }
+
+        var resource = resourceLoader.getResource(source);
+        var path = indexFile.isEmpty() ? Path.of(System.getProperty("java.io.tmpdir"), "hangman-dictionary.idx")
+                                       : Path.of(indexFile);
+        var words = load(resource, path);
+        if (words.isEmpty()) {
+            logger.warn("The system dictionary " + source + " is empty, the default words are used instead");
+            return;
+        }
+
+        pool = WordPool.ofMapped(words);
+        wordPoolRepository.addMapped(pool);
+        logger.info("Mapped " + words.size() + " words of " + source + " from " + path);
+    }
+
+    /**
+     * Map the index file, if it was built from the current version of the source file, otherwise rebuild it.
+     * @param resource The source file.
+     * @param path The index file.
+     * @return The mapped words.
+     * @throws IOException Thrown if the source file can not be read, or the index can not be written.
+     */
+    static MappedWordList load(Resource resource, Path path) throws IOException {
+        long sourceLength = resource.contentLength();
+        long sourceLastModified = lastModified(resource);
+        if (Files.exists(path)) {
+            try {
+                var words = MappedWordList.open(path);
+                if (words.getSourceLength() == sourceLength && words.getSourceLastModified() == sourceLastModified
+                        && sourceLastModified != 0) {
+                    return words;
+                }
+            } catch (IOException e) {
+                logger.warn("Rebuilding unreadable word index " + path, e);
+            }
+        }
+
+        var stats = new WordIngestionStats();
+        try (var writer = new MappedWordList.Writer(path); var input = resource.getInputStream()) {
+            new WordStreamReader(READ_BATCH_SIZE).read(input, batch -> {
+                try {
+                    for (var word : batch) { writer.add(word); }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, stats);
+            logger.info("Indexed " + stats.getWordsAccepted() + " words of " + resource.getDescription()
+                        + ", rejected " + stats.getLinesRejected() + " lines");
+            return writer.finish(sourceLength, sourceLastModified);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get the modification time of the source file.
+     * @param resource The source file.
+     * @return The modification time, or 0 if it is not known, so that the index is always rebuilt.
+     */
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Get the mapped word pool of the dictionary.
+     * @return The word pool, or null if the dictionary is disabled.
+     */
+    public WordPool getPool() {
+        return pool;
+    }
+}
@@ -0,0 +1,94 @@
+package pl.kmolski.hangman.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress and throughput counters for word file ingestion.
+ *
+ * The counters can be read by other threads while the words are being ingested.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1.0
+ */
+public class WordIngestionStats {
+    /**
+     * Number of bytes read from the word files.
+     */
+    private final LongAdder bytesRead = new LongAdder();
+    /**
+     * Number of lines read from the word files.
+     */
+    private final LongAdder linesRead = new LongAdder();
+    /**
+     * Number of words that were added to the dictionary.
+     */
+    private final LongAdder wordsAccepted = new LongAdder();
+    /**
+     * Number of lines that were rejected (blank or too long).
+     */
+    private final LongAdder linesRejected = new LongAdder();
+    /**
+     * Number of words that were skipped, because they were already in the dictionary.
+     */
+    private final LongAdder duplicatesRejected = new LongAdder();
+    /**
+     * Number of word batches that were written to storage.
+     */
+    private final LongAdder batchesWritten = new LongAdder();
+    /**
+     * Time spent on ingestion, in nanoseconds.
+     */
+    private final LongAdder elapsedNanos = new LongAdder();
+
+    void addBytesRead(long count) { bytesRead.add(count); }
+    void addLineRead() { linesRead.increment(); }
+    void addWordAccepted() { wordsAccepted.increment(); }
+    void addLineRejected() { linesRejected.increment(); }
+    void addDuplicatesRejected(long count) { duplicatesRejected.add(count); }
+    void addBatchWritten() { batchesWritten.increment(); }
+    void addElapsedNanos(long nanos) { elapsedNanos.add(nanos); }
+
+    /**
+     * Add the counters of another ingestion to these counters.
+     * @param other The counters of the other ingestion.
+     */
+    void addAll(WordIngestionStats other) {
+        bytesRead.add(other.getBytesRead());
+        linesRead.add(other.getLinesRead());
+        wordsAccepted.add(other.getWordsAccepted());
+        linesRejected.add(other.getLinesRejected());
+        duplicatesRejected.add(other.getDuplicatesRejected());
+        batchesWritten.add(other.getBatchesWritten());
+        elapsedNanos.add(other.getElapsedNanos());
+    }
+
+    public long getBytesRead() { return bytesRead.sum(); }
+    public long getLinesRead() { return linesRead.sum(); }
+    public long getWordsAccepted() { return wordsAccepted.sum(); }
+    public long getLinesRejected() { return linesRejected.sum(); }
+    public long getDuplicatesRejected() { return duplicatesRejected.sum(); }
+    public long getBatchesWritten() { return batchesWritten.sum(); }
+    public long getElapsedNanos() { return elapsedNanos.sum(); }
+
+    /**
+     * Get the ingestion throughput.
+     * @return The number of accepted words per second, or 0 if no time has been recorded.
+     */
+    public double getWordsPerSecond() {
+        long nanos = getElapsedNanos();
+        return (nanos == 0) ? 0.0 : getWordsAccepted() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * toString() implementation for the WordIngestionStats class.
+     * @return String representation the WordIngestionStats object.
+     */
+    @Override
+    public String toString() {
+        return "WordIngestionStats { bytes=" + getBytesRead() + ", lines=" + getLinesRead()
+                + ", words=" + getWordsAccepted() + ", rejected=" + getLinesRejected()
+                + ", duplicates=" + getDuplicatesRejected()
+                + ", batches=" + getBatchesWritten() + ", wordsPerSecond=" + getWordsPerSecond() + " }";
+    }
+}
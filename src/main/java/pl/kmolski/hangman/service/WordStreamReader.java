@@ -0,0 +1,148 @@
+package pl.kmolski.hangman.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for word files.
+ *
+ * Word files contain one word (or phrase) per line. The words are normalized in a single pass
+ * over the input: surrounding whitespace is removed, inner whitespace is collapsed to single
+ * spaces and the letters are lowercased. Blank lines and lines that are too long are skipped.
+ * The words are passed on in fixed-size batches, so the memory used for reading does not depend
+ * on the file size (the accepted words are kept by the consumer of the batches).
+ *
+ * @author Krzysztof Molski
+ * @version 1.1.0
+ */
+public class WordStreamReader {
+    /**
+     * The maximum length of a word, in UTF-16 characters. Longer lines are rejected.
+     */
+    public static final int MAX_WORD_LENGTH = 255;
+
+    /**
+     * Size of the character buffer used for decoding the input.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The number of words in a full batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Create a new word file reader.
+     * @param batchSize The number of words in a full batch.
+     */
+    public WordStreamReader(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Read all words from the UTF-8 encoded input stream. The batch passed to the consumer
+     * is reused afterwards, so the consumer has to copy the words that it wants to keep.
+     * @param input The input stream of the word file.
+     * @param batchConsumer The consumer that receives the batches of words.
+     * @param stats The counters that are updated during reading.
+     * @throws IOException This operation may fail if the input stream can not be read.
+     */
+    public void read(InputStream input, Consumer<List<String>> batchConsumer, WordIngestionStats stats)
+            throws IOException {
+        long startTime = System.nanoTime();
+        var batch = new ArrayList<String>(batchSize);
+        var word = new StringBuilder();
+        var buffer = new char[BUFFER_SIZE];
+
+        boolean pendingSpace = false;
+        boolean overflow = false;
+        boolean lineStarted = false;
+        char previous = 0;
+
+        try (Reader reader = new InputStreamReader(new CountingInputStream(input, stats), StandardCharsets.UTF_8)) {
+            for (int count = reader.read(buffer); count != -1; count = reader.read(buffer)) {
+                for (int i = 0; i < count; ++i) {
+                    char c = buffer[i];
+                    if (c == '\n' || c == '\r') {
+                        // Treat "\r\n" as a single line break.
+                        if (!(c == '\n' && previous == '\r')) {
+                            endLine(word, overflow, batch, stats);
+                            if (batch.size() == batchSize) { flush(batch, batchConsumer, stats); }
+                        }
+                        word.setLength(0);
+                        pendingSpace = overflow = lineStarted = false;
+                    } else if (c <= ' ') {
+                        pendingSpace = (word.length() > 0);
+                        lineStarted = true;
+                    } else if (!overflow) {
+                        if (pendingSpace) { word.append(' '); pendingSpace = false; }
+                        word.append(Character.toLowerCase(c));
+                        overflow = word.length() > MAX_WORD_LENGTH;
+                        lineStarted = true;
+                    }
+                    previous = c;
+                }
+            }
+        }
+
+        if (lineStarted || word.length() > 0) {
+            endLine(word, overflow, batch, stats);
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, batchConsumer, stats);
+        }
+        stats.addElapsedNanos(System.nanoTime() - startTime);
+    }
+
+    private static void endLine(StringBuilder word, boolean overflow, List<String> batch, WordIngestionStats stats) {
+        stats.addLineRead();
+        if (overflow || word.length() == 0) {
+            stats.addLineRejected();
+        } else {
+            batch.add(word.toString());
+            stats.addWordAccepted();
+        }
+    }
+
+    private static void flush(List<String> batch, Consumer<List<String>> batchConsumer, WordIngestionStats stats) {
+        batchConsumer.accept(batch);
+        batch.clear();
+        stats.addBatchWritten();
+    }
+
+    /**
+     * Input stream that counts the bytes that were read.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final WordIngestionStats stats;
+
+        CountingInputStream(InputStream input, WordIngestionStats stats) {
+            super(input);
+            this.stats = stats;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) { stats.addBytesRead(1); }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) { stats.addBytesRead(count); }
+            return count;
+        }
+    }
+}
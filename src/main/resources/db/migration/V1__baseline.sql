@@ -0,0 +1,28 @@
+-- The schema of the game saves before the word pools (version 1.x of the application).
+-- Existing databases already have it; it is only applied to create a new database.
+
+create table dictionary_saves (
+    dict_id bigint not null auto_increment,
+    wordCount integer not null,
+    primary key (dict_id)
+) engine=InnoDB;
+
+create table HangmanDictionary_words (
+    HangmanDictionary_dict_id bigint not null,
+    words varchar(255)
+) engine=InnoDB;
+
+create table game_saves (
+    id bigint not null,
+    currentWord varchar(255),
+    guessedLetters varchar(255),
+    misses integer not null,
+    wordsGuessed integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table hibernate_sequence (next_val bigint) engine=InnoDB;
+insert into hibernate_sequence values (1);
+
+alter table HangmanDictionary_words add constraint fk_dictionary_words_dict
+    foreign key (HangmanDictionary_dict_id) references dictionary_saves (dict_id);
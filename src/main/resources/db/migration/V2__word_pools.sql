@@ -0,0 +1,69 @@
+-- The words of the dictionaries are stored in shared, immutable word pools. A dictionary refers to its pools in order
+-- and stores its draws: the number of words taken, and the words displaced by the draws.
+
+create table word_pools (
+    pool_id varchar(64) not null,
+    primary key (pool_id)
+) engine=InnoDB;
+
+create table word_pool_words (
+    pool_id varchar(64) not null,
+    word_index integer not null,
+    word varchar(255),
+    primary key (pool_id, word_index)
+) engine=InnoDB;
+
+create table dictionary_pools (
+    dict_id bigint not null,
+    pool_order integer not null,
+    pool_id varchar(64) not null,
+    primary key (dict_id, pool_order)
+) engine=InnoDB;
+
+create table dictionary_draws (
+    dict_id bigint not null,
+    position integer not null,
+    word_index integer,
+    primary key (dict_id, position)
+) engine=InnoDB;
+
+alter table dictionary_saves add column drawnCount integer not null default 0;
+
+alter table word_pool_words add constraint fk_word_pool_words_pool
+    foreign key (pool_id) references word_pools (pool_id);
+alter table dictionary_pools add constraint fk_dictionary_pools_dict
+    foreign key (dict_id) references dictionary_saves (dict_id);
+alter table dictionary_pools add constraint fk_dictionary_pools_pool
+    foreign key (pool_id) references word_pools (pool_id);
+alter table dictionary_draws add constraint fk_dictionary_draws_dict
+    foreign key (dict_id) references dictionary_saves (dict_id);
+
+-- Every existing dictionary gets its own pool, identified by the dictionary ID padded with zeros to the 64 hexadecimal
+-- digits of a pool hash. The pool holds the current word of the game (already taken, at index 0), followed by the words
+-- that have not been taken yet. The words taken before the current one are not stored in the old schema, so they are
+-- left out: the word count of the dictionary becomes the size of the pool, and the guessed words of the game are reset,
+-- so that the game can still be won by guessing all words of the dictionary.
+
+insert into word_pools (pool_id)
+    select lpad(dict_id, 64, '0') from dictionary_saves;
+
+insert into word_pool_words (pool_id, word_index, word)
+    select lpad(id, 64, '0'), 0, currentWord from game_saves where currentWord is not null;
+
+insert into word_pool_words (pool_id, word_index, word)
+    select lpad(w.HangmanDictionary_dict_id, 64, '0'),
+           row_number() over (partition by w.HangmanDictionary_dict_id order by w.words)
+               - case when g.currentWord is null then 1 else 0 end,
+           w.words
+    from HangmanDictionary_words w left join game_saves g on g.id = w.HangmanDictionary_dict_id;
+
+insert into dictionary_pools (dict_id, pool_order, pool_id)
+    select dict_id, 0, lpad(dict_id, 64, '0') from dictionary_saves;
+
+update dictionary_saves set
+    wordCount = (select count(*) from word_pool_words w where w.pool_id = lpad(dict_id, 64, '0')),
+    drawnCount = (select count(*) from game_saves g where g.id = dict_id and g.currentWord is not null);
+
+update game_saves set wordsGuessed = 0;
+
+drop table HangmanDictionary_words;
@@ -0,0 +1,3 @@
+-- The game saves are updated with an optimistic lock on their version.
+
+alter table game_saves add column version integer not null default 0;
@@ -0,0 +1,11 @@
+-- The wins, losses and guesses of the players, identified by their playerId cookie.
+
+create table player_stats (
+    player_id varchar(36) not null,
+    wins bigint not null,
+    losses bigint not null,
+    correctGuesses bigint not null,
+    wrongGuesses bigint not null,
+    version integer not null,
+    primary key (player_id)
+) engine=InnoDB;
@@ -0,0 +1,14 @@
+-- The words taken from every difficulty bucket of a dictionary, and the difficulty band of the game.
+-- The draws of the existing dictionaries are converted to the buckets when they are loaded.
+
+create table dictionary_bucket_draws (
+    dict_id bigint not null,
+    bucket integer not null,
+    drawn_count integer,
+    primary key (dict_id, bucket)
+) engine=InnoDB;
+
+alter table dictionary_bucket_draws add constraint fk_dictionary_bucket_draws_dict
+    foreign key (dict_id) references dictionary_saves (dict_id);
+
+alter table game_saves add column difficulty varchar(16);
@@ -0,0 +1,3 @@
+-- The revision of a game is incremented by every change, and identifies the views of the game (ETags).
+
+alter table game_saves add column revision integer not null default 0;
@@ -0,0 +1,3 @@
+-- The games that are waiting in the pool of new games, which are not listed or loaded until they are handed out.
+
+alter table game_saves add column pooled bit not null default 0;
@@ -0,0 +1,6 @@
+-- The games in the pool of new games are saved with the name of the application instance that holds them, so that
+-- every instance only deletes the unused games of its own pool. The games left in a pool before the migration have
+-- no known owner, so they are kept as ordinary, unplayed game saves.
+
+alter table game_saves add column poolOwner varchar(255);
+alter table game_saves drop column pooled;
@@ -0,0 +1,77 @@
+package pl.kmolski.hangman.config;
+
+import org.apache.tomcat.dbcp.dbcp2.DelegatingPreparedStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MonitoredDataSource class.
+ *
+ * This class contains unit tests for the statistics of the connection requests and
+ * for the prepared statement pool, with an in-memory H2 database.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class MonitoredDataSourceTest {
+    private MonitoredDataSource dataSource;
+
+    /**
+     * Sets up a pool of at most 1 connection, which waits for a connection for 50 ms.
+     */
+    @BeforeEach
+    void setUp() {
+        dataSource = new MonitoredDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:monitored;DB_CLOSE_DELAY=-1");
+        dataSource.setMaxTotal(1);
+        dataSource.setMaxWaitMillis(50);
+        dataSource.setPoolPreparedStatements(true);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        dataSource.close();
+    }
+
+    /**
+     * Verify that the connection requests, and the requests that have timed out, are counted.
+     */
+    @Test
+    void testAcquisitions() throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(1), "The connection is not valid!");
+            assertEquals(1, dataSource.getNumActive(), "Wrong number of active connections!");
+            assertThrows(SQLException.class, dataSource::getConnection, "The pool has exceeded its size!");
+        }
+
+        assertEquals(2, dataSource.getAcquisitions(), "Wrong number of connection requests!");
+        assertEquals(1, dataSource.getFailedAcquisitions(), "Wrong number of failed requests!");
+        assertTrue(dataSource.getTotalAcquireNanos() >= 50_000_000L, "The wait was not timed!");
+        assertEquals(0, dataSource.getNumActive(), "The connection was not returned!");
+        assertEquals(1, dataSource.getNumIdle(), "The connection was not kept in the pool!");
+        assertEquals(0, dataSource.getNumWaiters(), "Wrong number of waiting threads!");
+    }
+
+    /**
+     * Verify that a statement that is prepared again on the same connection is taken from the pool.
+     */
+    @Test
+    void testPreparedStatementPool() throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            Object first, second;
+            try (var statement = connection.prepareStatement("select ?")) {
+                first = ((DelegatingPreparedStatement) statement).getInnermostDelegate();
+            }
+            try (var statement = connection.prepareStatement("select ?")) {
+                second = ((DelegatingPreparedStatement) statement).getInnermostDelegate();
+            }
+            assertSame(first, second, "The prepared statement was not pooled!");
+        }
+    }
+}
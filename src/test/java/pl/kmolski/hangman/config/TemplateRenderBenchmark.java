@@ -0,0 +1,113 @@
+package pl.kmolski.hangman.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.FileSystemResourceLoader;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
+import pl.kmolski.hangman.model.GameSaveSummary;
+import pl.kmolski.hangman.model.InvalidGuessException;
+import pl.kmolski.hangman.model.PlayerStats;
+import pl.kmolski.hangman.service.GameServiceFixture;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the rendering of the "home", "stats" and "saves" views.
+ *
+ * This class measures the renders per second of the templates, with the template engine
+ * that is configured by HangmanConfig, with and without the template cache and the compilation
+ * of the Spring EL expressions. The templates are read from `src/main/webapp/templates`.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    /**
+     * The number of game saves on the rendered page.
+     */
+    private static final int SAVES_PAGE_SIZE = 20;
+
+    @Param({"false", "true"})
+    private boolean cacheable;
+    @Param({"false", "true"})
+    private boolean springElCompiler;
+
+    /**
+     * The template engine that is used during the benchmark.
+     */
+    private SpringTemplateEngine templateEngine;
+    /**
+     * The contexts of the rendered views.
+     */
+    private WebContext homeContext, statsContext, savesContext;
+
+    /**
+     * Sets up the template engine and the models of the views once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidGuessException {
+        var servletContext = new MockServletContext("src/main/webapp", new FileSystemResourceLoader());
+        var applicationContext = new GenericWebApplicationContext(servletContext);
+        applicationContext.refresh();
+
+        var config = new HangmanConfig();
+        ReflectionTestUtils.setField(config, "templatesCacheable", cacheable);
+        ReflectionTestUtils.setField(config, "templatesSpringElCompiler", springElCompiler);
+        templateEngine = config.templateEngine();
+        for (var templateResolver : templateEngine.getTemplateResolvers()) {
+            ((SpringResourceTemplateResolver) templateResolver).setApplicationContext(applicationContext);
+        }
+
+        var gameService = GameServiceFixture.createGameService();
+        var gameId = gameService.createAndSaveGameModel().getId();
+        gameService.submitGuess(gameId, "a");
+        var gameState = gameService.submitGuess(gameId, "x");
+
+        var saves = new ArrayList<GameSaveSummary>(SAVES_PAGE_SIZE);
+        for (int i = 0; i < SAVES_PAGE_SIZE; ++i) {
+            saves.add(new GameSaveSummary((long) i, "samochód", " ao", i % 6, i, 100));
+        }
+
+        homeContext = createContext(servletContext, Map.of("gameModel", gameState));
+        statsContext = createContext(servletContext, Map.of(
+                "gameModel", gameState, "playerStats", new PlayerStats("player", 10, 5, 40, 20)));
+        savesContext = createContext(servletContext, Map.of(
+                "saves", saves, "pageSize", SAVES_PAGE_SIZE, "isFirstPage", false, "nextCursor", 19L));
+    }
+
+    private static WebContext createContext(MockServletContext servletContext, Map<String, Object> variables) {
+        var request = new MockHttpServletRequest(servletContext);
+        return new WebContext(request, new MockHttpServletResponse(), servletContext, Locale.ENGLISH, variables);
+    }
+
+    @Benchmark
+    public void home() {
+        templateEngine.process("home", homeContext, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void stats() {
+        templateEngine.process("stats", statsContext, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void saves() {
+        templateEngine.process("saves", savesContext, Writer.nullWriter());
+    }
+}
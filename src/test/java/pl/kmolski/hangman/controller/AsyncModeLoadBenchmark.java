@@ -0,0 +1,214 @@
+package pl.kmolski.hangman.controller;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.context.support.StandardServletEnvironment;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import pl.kmolski.hangman.config.RequestExecutors;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.repo.InMemoryGameRepository;
+import pl.kmolski.hangman.service.GameServiceFixture;
+import pl.kmolski.hangman.service.InMemoryGameStateStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH load test of the synchronous and the async request modes.
+ *
+ * This class starts an embedded Tomcat server with a small pool of `CONTAINER_THREADS` threads, which
+ * serves the JSON API. The game repository waits for `DB_LATENCY_MS` milliseconds on every read, like
+ * a database server, and the game state store only holds a single game, so most requests read from the
+ * repository. Every invocation sends `CLIENTS` concurrent requests for different games, and the result
+ * is the number of completed requests per second. In the synchronous mode, the throughput is limited
+ * by the container threads, in the async mode by the request executor (see RequestExecutors).
+ *
+ * @author Krzysztof Molski
+ * @version 1.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@OperationsPerInvocation(AsyncModeLoadBenchmark.CLIENTS)
+public class AsyncModeLoadBenchmark {
+    /**
+     * The number of concurrent clients.
+     */
+    static final int CLIENTS = 128;
+    /**
+     * The number of servlet container threads.
+     */
+    private static final int CONTAINER_THREADS = 8;
+    /**
+     * The number of threads of the request executor, if virtual threads are not used.
+     */
+    private static final int EXECUTOR_THREADS = 64;
+    /**
+     * The simulated latency of a database read, in milliseconds.
+     */
+    private static final long DB_LATENCY_MS = 20;
+
+    /**
+     * Whether the async mode is enabled.
+     */
+    @Param({"false", "true"})
+    private boolean asyncEnabled;
+
+    /**
+     * The embedded server.
+     */
+    private Tomcat tomcat;
+    /**
+     * The HTTP client of the simulated players.
+     */
+    private HttpClient client;
+    /**
+     * The requests for the games of the simulated players.
+     */
+    private List<HttpRequest> requests;
+
+    /**
+     * Game repository that simulates the latency of database reads.
+     */
+    static class SlowGameRepository extends InMemoryGameRepository {
+        @Override
+        public Optional<HangmanGame> get(Long id) {
+            try {
+                Thread.sleep(DB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.get(id);
+        }
+    }
+
+    /**
+     * Web configuration of the load test: the JSON API and the request executor.
+     * The game service is registered as a singleton, because it is wired by the GameServiceFixture.
+     * The profile keeps this configuration out of the component scan of the application.
+     */
+    @Configuration
+    @Profile(LoadTestConfig.PROFILE)
+    @EnableWebMvc
+    static class LoadTestConfig implements WebMvcConfigurer {
+        static final String PROFILE = "loadTest";
+
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setTaskExecutor(requestExecutor());
+        }
+
+        @Bean
+        public AsyncTaskExecutor requestExecutor() {
+            return RequestExecutors.create(true, EXECUTOR_THREADS);
+        }
+
+        @Bean
+        public RequestRunner requestRunner(@Value("${hangman.async.enabled}") boolean asyncEnabled) {
+            return new RequestRunner(asyncEnabled);
+        }
+
+        @Bean
+        public HangmanGameApiController apiController() {
+            return new HangmanGameApiController();
+        }
+    }
+
+    /**
+     * Starts the embedded server and creates the games of the simulated players before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, LifecycleException {
+        var environment = new StandardServletEnvironment();
+        environment.setActiveProfiles(LoadTestConfig.PROFILE);
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("loadTest", Map.of("hangman.async.enabled", asyncEnabled)));
+        var gameService = GameServiceFixture.gameService().gameRepository(new SlowGameRepository()).build();
+        ReflectionTestUtils.invokeMethod(gameService, "setGameStateStore", new InMemoryGameStateStore(1));
+
+        var appContext = new AnnotationConfigWebApplicationContext();
+        appContext.setEnvironment(environment);
+        appContext.register(LoadTestConfig.class);
+        appContext.addBeanFactoryPostProcessor(beanFactory -> beanFactory.registerSingleton("gameService", gameService));
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("hangman-tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("maxThreads", Integer.toString(CONTAINER_THREADS));
+        var context = tomcat.addContext("", null);
+        var servlet = Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(appContext));
+        servlet.setAsyncSupported(true);
+        servlet.setLoadOnStartup(1);
+        context.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+
+        var baseUri = "http://localhost:" + tomcat.getConnector().getLocalPort() + "/api/games/";
+        requests = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; ++i) {
+            var id = gameService.createAndSaveGameModel().getId();
+            requests.add(HttpRequest.newBuilder(URI.create(baseUri + id)).GET().build());
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    /**
+     * Stops the embedded server after each trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+        deleteRecursively(Path.of(tomcat.getServer().getCatalinaBase().getPath()));
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (var paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            // The temporary directory is left behind.
+        }
+    }
+
+    @Benchmark
+    public int getGames() {
+        var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>(CLIENTS);
+        for (var request : requests) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        int completed = 0;
+        for (var response : responses) {
+            if (response.join().statusCode() != 200) {
+                throw new IllegalStateException("request failed: " + response.join().body());
+            }
+            ++completed;
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,185 @@
+package pl.kmolski.hangman.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pl.kmolski.hangman.service.GameServiceFixture;
+import pl.kmolski.hangman.service.GuessOutcome;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for the HangmanGameApiController class.
+ *
+ * This class contains unit tests for the JSON API, which is invoked through
+ * the Spring MVC test framework with in-memory stand-ins for the repositories.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.0
+ */
+public class HangmanGameApiControllerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockMvc mockMvc;
+
+    private static MockMvc createMockMvc(boolean asyncEnabled) {
+        return createMockMvc(asyncEnabled, false);
+    }
+
+    private static MockMvc createMockMvc(boolean asyncEnabled, boolean deduplicate) {
+        var gameService = GameServiceFixture.createGameService();
+        ReflectionTestUtils.setField(gameService, "deduplicate", deduplicate);
+        var controller = new HangmanGameApiController();
+        ReflectionTestUtils.invokeMethod(controller, "setGameService", gameService);
+        ReflectionTestUtils.invokeMethod(controller, "setRequestRunner", new RequestRunner(asyncEnabled));
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = createMockMvc(false);
+    }
+
+    private JsonNode readJson(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode createGame() throws Exception {
+        return readJson(mockMvc.perform(post("/api/games")).andExpect(status().isCreated()));
+    }
+
+    /**
+     * Verify that a new game can be created and fetched by its ID.
+     */
+    @Test
+    void testCreateGame() throws Exception {
+        var created = createGame();
+        var id = created.get("id").asLong();
+
+        var state = readJson(mockMvc.perform(get("/api/games/" + id)).andExpect(status().isOk()));
+        assertEquals(created.get("maskedWord"), state.get("maskedWord"), "Wrong masked word!");
+        assertEquals(0, state.get("misses").asInt(), "Wrong miss count!");
+        assertFalse(state.get("gameOver").asBoolean(), "The new game is over!");
+        assertFalse(state.has("outcome"), "The state contains a guess outcome!");
+    }
+
+    /**
+     * Verify that each guess returns the outcome and the new game state, until the game is over.
+     */
+    @Test
+    void testGuessUntilGameOver() throws Exception {
+        var id = createGame().get("id").asLong();
+        var letters = "aąbcćdeęfghijklłmnńoóprsśtuwyzźż";
+
+        JsonNode state = null;
+        for (int i = 0; i < letters.length() && (state == null || !state.get("gameOver").asBoolean()); ++i) {
+            var guess = letters.substring(i, i + 1);
+            state = readJson(mockMvc.perform(post("/api/games/" + id + "/guess").param("guess", guess))
+                                    .andExpect(status().isOk()));
+            var outcome = GuessOutcome.valueOf(state.get("outcome").asText());
+            assertEquals(outcome.isGameOver(), state.get("gameOver").asBoolean(), "Wrong game over flag!");
+        }
+
+        assertNotNull(state);
+        assertTrue(state.get("gameOver").asBoolean(), "The game is not over!");
+        mockMvc.perform(get("/api/games/" + id)).andExpect(status().isNotFound());
+    }
+
+    /**
+     * Verify that skipping the last word of the dictionary ends the game, and that the game is deleted.
+     */
+    @Test
+    void testSkipUntilDictionaryExhausted() throws Exception {
+        var created = createGame();
+        var id = created.get("id").asLong();
+
+        JsonNode state = created;
+        for (int i = 0; i < created.get("wordsRemaining").asInt(); ++i) {
+            assertFalse(state.get("gameOver").asBoolean(), "The game is over before all words were skipped!");
+            state = readJson(mockMvc.perform(post("/api/games/" + id + "/skip")).andExpect(status().isOk()));
+        }
+
+        assertTrue(state.get("gameOver").asBoolean(), "The game is not over after skipping the last word!");
+        assertEquals("", state.get("maskedWord").asText(), "Wrong masked word after skipping the last word!");
+        mockMvc.perform(get("/api/games/" + id)).andExpect(status().isNotFound());
+    }
+
+    /**
+     * Verify that invalid guesses are rejected with a 400 response.
+     * @param guess An invalid guess.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "ab", "xyz"})
+    void testInvalidGuess(String guess) throws Exception {
+        var id = createGame().get("id").asLong();
+
+        var error = readJson(mockMvc.perform(post("/api/games/" + id + "/guess").param("guess", guess))
+                                    .andExpect(status().isBadRequest()));
+        assertTrue(error.has("error"), "The response does not contain an error message!");
+    }
+
+    /**
+     * Verify that the words of a word file that are already in the dictionary, or repeated in the file, are skipped
+     * when the deduplication is enabled.
+     */
+    @Test
+    void testAddDuplicateWords() throws Exception {
+        mockMvc = createMockMvc(false, true);
+        var created = createGame();
+        var id = created.get("id").asLong();
+        var wordFile = new MockMultipartFile("wordFile", "words.txt", "text/plain",
+                                             "kot\npies\n  KOT \nkoło\n".getBytes(StandardCharsets.UTF_8));
+
+        var state = readJson(mockMvc.perform(multipart("/api/games/" + id + "/words").file(wordFile))
+                                    .andExpect(status().isOk()));
+        // "koło" is one of the default words.
+        assertEquals(created.get("wordsRemaining").asInt() + 2, state.get("wordsRemaining").asInt(),
+                     "The duplicate words were added!");
+
+        state = readJson(mockMvc.perform(multipart("/api/games/" + id + "/words").file(wordFile))
+                                .andExpect(status().isOk()));
+        assertEquals(created.get("wordsRemaining").asInt() + 2, state.get("wordsRemaining").asInt(),
+                     "The words of a repeated upload were added!");
+    }
+
+    /**
+     * Verify that requests for games that do not exist are rejected with a 404 response.
+     */
+    @Test
+    void testGameNotFound() throws Exception {
+        mockMvc.perform(get("/api/games/12345")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/games/12345/skip")).andExpect(status().isNotFound());
+    }
+
+    /**
+     * Verify that in the async mode, the requests are completed asynchronously
+     * and their results are the same as in the synchronous mode.
+     */
+    @Test
+    void testAsyncMode() throws Exception {
+        mockMvc = createMockMvc(true);
+
+        var created = mockMvc.perform(post("/api/games")).andExpect(request().asyncStarted()).andReturn();
+        var state = readJson(mockMvc.perform(asyncDispatch(created)).andExpect(status().isCreated()));
+        var id = state.get("id").asLong();
+
+        var guessed = mockMvc.perform(post("/api/games/" + id + "/guess").param("guess", "a"))
+                             .andExpect(request().asyncStarted()).andReturn();
+        state = readJson(mockMvc.perform(asyncDispatch(guessed)).andExpect(status().isOk()));
+        assertTrue(state.has("outcome"), "The response does not contain the guess outcome!");
+
+        var missing = mockMvc.perform(get("/api/games/12345")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(missing)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,80 @@
+package pl.kmolski.hangman.controller;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import pl.kmolski.hangman.repo.InMemoryPlayerStatsRepository;
+import pl.kmolski.hangman.service.GameServiceFixture;
+
+import javax.servlet.http.Cookie;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the HangmanGameController class.
+ *
+ * This class measures the guess submission endpoint, invoked directly with mock
+ * servlet objects and an in-memory stand-in for the game repository.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HangmanGameControllerBenchmark {
+    /**
+     * Letters that are tried in turn by the `submitGuess` benchmark.
+     */
+    private static final String[] LETTERS = {"a", "e", "o", "n", "s", "ł", "ń", "z", "k", "x", "q"};
+    /**
+     * The identifier of the simulated player.
+     */
+    private static final String PLAYER_ID = UUID.randomUUID().toString();
+
+    /**
+     * The controller that is used during the benchmark.
+     */
+    private HangmanGameController controller;
+    /**
+     * The HTTP session that contains the game state.
+     */
+    private MockHttpSession session;
+    /**
+     * Index of the next letter tried by the `submitGuess` benchmark.
+     */
+    private int letterIndex = 0;
+
+    /**
+     * Sets up the controller and its service before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        var gameService = GameServiceFixture.createGameService();
+        controller = new HangmanGameController();
+        ReflectionTestUtils.invokeMethod(controller, "setGameService", gameService);
+        ReflectionTestUtils.invokeMethod(controller, "setRequestRunner", new RequestRunner(false));
+        ReflectionTestUtils.invokeMethod(controller, "setPlayerStatsService",
+                GameServiceFixture.createPlayerStatsService(new InMemoryPlayerStatsRepository()));
+        ReflectionTestUtils.invokeMethod(controller, "setResourceUrlProvider", new ResourceUrlProvider());
+        session = new MockHttpSession();
+    }
+
+    @Benchmark
+    public Object submitGuess() throws Exception {
+        if (session.getAttribute("gameModel") == null) {
+            controller.home(null, null, session, null);
+        }
+
+        var request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("playerId", PLAYER_ID));
+        letterIndex = (letterIndex + 1) % LETTERS.length;
+        return controller.submitGuess(LETTERS[letterIndex], request, new MockHttpServletResponse(), session);
+    }
+}
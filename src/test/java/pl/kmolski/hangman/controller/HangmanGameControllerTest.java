@@ -0,0 +1,173 @@
+package pl.kmolski.hangman.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.view.InternalResourceViewResolver;
+import pl.kmolski.hangman.repo.InMemoryPlayerStatsRepository;
+import pl.kmolski.hangman.service.GameServiceFixture;
+import pl.kmolski.hangman.service.GameState;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Unit tests for the HangmanGameController class.
+ *
+ * This class contains unit tests for the ETags of the views and for skipping words. The controller is invoked
+ * through the Spring MVC test framework with in-memory stand-ins for the repositories.
+ * The views are not rendered, only the paths of their templates are checked.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.0
+ */
+public class HangmanGameControllerTest {
+    private final MockHttpSession session = new MockHttpSession();
+    private MockMvc mockMvc;
+
+    private void createMockMvc(boolean asyncEnabled) {
+        var gameService = GameServiceFixture.createGameService();
+        var controller = new HangmanGameController();
+        ReflectionTestUtils.invokeMethod(controller, "setGameService", gameService);
+        ReflectionTestUtils.invokeMethod(controller, "setRequestRunner", new RequestRunner(asyncEnabled));
+        ReflectionTestUtils.invokeMethod(controller, "setPlayerStatsService",
+                GameServiceFixture.createPlayerStatsService(new InMemoryPlayerStatsRepository()));
+        ReflectionTestUtils.invokeMethod(controller, "setResourceUrlProvider", new ResourceUrlProvider());
+        var apiController = new HangmanGameApiController();
+        ReflectionTestUtils.invokeMethod(apiController, "setGameService", gameService);
+        ReflectionTestUtils.invokeMethod(apiController, "setRequestRunner", new RequestRunner(asyncEnabled));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller, apiController)
+                                 .setViewResolvers(new InternalResourceViewResolver("/templates/", ".html"))
+                                 .addMappedInterceptors(ManagementEndpointInterceptor.PATHS,
+                                                        new ManagementEndpointInterceptor(false))
+                                 .build();
+    }
+
+    /**
+     * Perform a request in the session of the test, and wait for it if it is asynchronous.
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        var result = mockMvc.perform(request.session(session)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+
+    private MockHttpServletResponse revalidate(String path, String etag) throws Exception {
+        return perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+    /**
+     * Verify that the home screen is not rendered while the game has not changed,
+     * and that it is rendered with a new ETag after a guess.
+     */
+    @Test
+    void testHomeETag() throws Exception {
+        createMockMvc(false);
+        assertEquals("/add_words.html", perform(get("/home")).getRedirectedUrl(), "Wrong redirect of a new game!");
+
+        var home = perform(get("/home"));
+        var etag = home.getHeader(HttpHeaders.ETAG);
+        assertEquals(200, home.getStatus(), "Wrong status of the home screen!");
+        assertEquals("/templates/home.html", home.getForwardedUrl(), "The home screen was not rendered!");
+        assertNotNull(etag, "The home screen has no ETag!");
+        assertEquals("private, no-cache", home.getHeader(HttpHeaders.CACHE_CONTROL), "Wrong Cache-Control header!");
+
+        var notModified = revalidate("/home", etag);
+        assertEquals(304, notModified.getStatus(), "The unchanged home screen was sent again!");
+        assertNull(notModified.getForwardedUrl(), "The unchanged home screen was rendered!");
+
+        perform(get("/submitGuess").param("guess", "a"));
+        var modified = revalidate("/home", etag);
+        assertEquals(200, modified.getStatus(), "The changed home screen was not sent!");
+        assertNotEquals(etag, modified.getHeader(HttpHeaders.ETAG), "The ETag has not changed!");
+    }
+
+    /**
+     * Verify that the home screen is rendered again after the game was changed through the API,
+     * although the snapshot in the session was not changed, and that the snapshot is refreshed.
+     * @param asyncEnabled Whether the requests are run asynchronously.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testHomeETagAfterApiChange(boolean asyncEnabled) throws Exception {
+        createMockMvc(asyncEnabled);
+        perform(get("/home"));
+        var etag = perform(get("/home")).getHeader(HttpHeaders.ETAG);
+        var gameState = (GameState) session.getAttribute("gameModel");
+
+        var skip = perform(post("/api/games/" + gameState.getId() + "/skip"));
+        assertEquals(200, skip.getStatus(), "The word was not skipped through the API!");
+
+        var modified = revalidate("/home", etag);
+        assertEquals(200, modified.getStatus(), "The home screen of the changed game was not sent!");
+        assertNotEquals(etag, modified.getHeader(HttpHeaders.ETAG), "The ETag has not changed!");
+        var refreshed = (GameState) session.getAttribute("gameModel");
+        assertTrue(refreshed.getRevision() > gameState.getRevision(), "The snapshot in the session is stale!");
+        assertEquals(304, revalidate("/home", modified.getHeader(HttpHeaders.ETAG)).getStatus(),
+                     "The unchanged home screen was sent again!");
+    }
+
+    /**
+     * Verify that a page of game saves is not rendered while its summaries have not changed,
+     * in the synchronous and in the asynchronous mode.
+     * @param asyncEnabled Whether the requests are run asynchronously.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testSavesETag(boolean asyncEnabled) throws Exception {
+        createMockMvc(asyncEnabled);
+        perform(get("/home"));
+
+        var saves = perform(get("/saves"));
+        var etag = saves.getHeader(HttpHeaders.ETAG);
+        assertEquals("/templates/saves.html", saves.getForwardedUrl(), "The page of game saves was not rendered!");
+        assertNotNull(etag, "The page of game saves has no ETag!");
+
+        var notModified = revalidate("/saves", etag);
+        assertEquals(304, notModified.getStatus(), "The unchanged page was sent again!");
+        assertNull(notModified.getForwardedUrl(), "The unchanged page was rendered!");
+        assertEquals(200, revalidate("/saves?size=5", etag).getStatus(), "A different page was not sent!");
+
+        perform(get("/submitGuess").param("guess", "a"));
+        var modified = revalidate("/saves", etag);
+        assertEquals(200, modified.getStatus(), "The changed page was not sent!");
+        assertNotEquals(etag, modified.getHeader(HttpHeaders.ETAG), "The ETag has not changed!");
+    }
+
+    /**
+     * Verify that skipping the last word of the dictionary redirects to the lost game page,
+     * and that a new game is started afterwards.
+     */
+    @Test
+    void testSkipUntilDictionaryExhausted() throws Exception {
+        createMockMvc(false);
+        perform(get("/home"));
+
+        String redirect = "/home";
+        for (int i = 0; i < 100 && "/home".equals(redirect); ++i) {
+            redirect = perform(get("/skipWord")).getRedirectedUrl();
+        }
+        assertEquals("/game_lost.html", redirect, "The game is not lost after skipping the last word!");
+        assertEquals("/add_words.html", perform(get("/home")).getRedirectedUrl(), "A new game was not started!");
+    }
+
+    /**
+     * Verify that the cache statistics are neither shown nor reset if the management endpoints are disabled.
+     */
+    @Test
+    void testCacheStatsDisabled() throws Exception {
+        createMockMvc(false);
+        assertEquals(404, perform(get("/cacheStats")).getStatus(), "The statistics were shown!");
+        assertEquals(404, perform(post("/cacheStats/reset")).getStatus(), "The statistics were reset!");
+    }
+}
@@ -0,0 +1,108 @@
+package pl.kmolski.hangman.controller;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pl.kmolski.hangman.service.GameServiceFixture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for the MetricsController, RequestMetricsInterceptor and ManagementEndpointInterceptor classes.
+ *
+ * This class contains unit tests for the scrape endpoint, which is invoked through
+ * the Spring MVC test framework together with the JSON API.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1
+ */
+public class MetricsControllerTest {
+    private PrometheusMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        createMockMvc(true);
+    }
+
+    private void createMockMvc(boolean managementEnabled) {
+        meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        var gameService = GameServiceFixture.createGameService();
+        ReflectionTestUtils.invokeMethod(gameService, "setMeterRegistry", meterRegistry);
+
+        var apiController = new HangmanGameApiController();
+        ReflectionTestUtils.invokeMethod(apiController, "setGameService", gameService);
+        ReflectionTestUtils.invokeMethod(apiController, "setRequestRunner", new RequestRunner(false));
+        var metricsController = new MetricsController();
+        ReflectionTestUtils.invokeMethod(metricsController, "setMeterRegistry", meterRegistry);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(apiController, metricsController)
+                                 .addInterceptors(new RequestMetricsInterceptor(meterRegistry))
+                                 .addMappedInterceptors(ManagementEndpointInterceptor.PATHS,
+                                                        new ManagementEndpointInterceptor(managementEnabled))
+                                 .build();
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/metrics"))
+                      .andExpect(status().isOk())
+                      .andExpect(content().contentType(TextFormat.CONTENT_TYPE_004))
+                      .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Verify that the requests are timed by their URI patterns and response statuses.
+     */
+    @Test
+    void testRequestTimers() throws Exception {
+        mockMvc.perform(post("/api/games")).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/games/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/games/12345")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/games/23456")).andExpect(status().isNotFound());
+
+        var metrics = scrape();
+        assertTrue(metrics.contains("hangman_http_requests_seconds_count{exception=\"none\",method=\"POST\","
+                                    + "status=\"201\",uri=\"/api/games\",} 1.0"), "The create request was not timed!");
+        assertTrue(metrics.contains("hangman_http_requests_seconds_count{exception=\"none\",method=\"GET\","
+                                    + "status=\"200\",uri=\"/api/games/{id}\",} 1.0"), "The get request was not timed!");
+        assertTrue(metrics.contains("hangman_http_requests_seconds_count{exception=\"none\",method=\"GET\","
+                                    + "status=\"404\",uri=\"/api/games/{id}\",} 2.0"), "The failed requests were not timed!");
+    }
+
+    /**
+     * Verify that the guesses are counted by their outcomes.
+     */
+    @Test
+    void testGuessCounters() throws Exception {
+        mockMvc.perform(post("/api/games")).andExpect(status().isCreated());
+        mockMvc.perform(post("/api/games/1/guess").param("guess", "ą")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/games/1/guess").param("guess", "ą")).andExpect(status().isOk());
+
+        var metrics = scrape();
+        double guesses = meterRegistry.find("hangman.guesses").counters().stream()
+                                      .mapToDouble(counter -> counter.count()).sum();
+        assertEquals(2.0, guesses, "Wrong guess count!");
+        assertTrue(metrics.contains("hangman_guesses_total{outcome=\"WRONG\",}"), "The guess counter was not scraped!");
+    }
+
+    /**
+     * Verify that the metrics are not served if the management endpoints are disabled,
+     * while the other endpoints are still timed.
+     */
+    @Test
+    void testMetricsDisabled() throws Exception {
+        createMockMvc(false);
+        mockMvc.perform(post("/api/games")).andExpect(status().isCreated());
+        mockMvc.perform(get("/metrics")).andExpect(status().isNotFound());
+
+        assertEquals(1, meterRegistry.find("hangman.http.requests").tag("uri", "/api/games").timer().count(),
+                     "The create request was not timed!");
+    }
+}
@@ -0,0 +1,52 @@
+package pl.kmolski.hangman.controller;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the StaticResourceCacheInterceptor class.
+ *
+ * This class contains unit tests for the cache headers of the static resources,
+ * with and without a content hash in their URLs.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class StaticResourceCacheInterceptorTest {
+    private final StaticResourceCacheInterceptor interceptor = new StaticResourceCacheInterceptor();
+
+    /**
+     * Verify that only the resources with a content hash are cached without revalidation.
+     * @param path The request path.
+     * @param versioned Whether the path has a content hash.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "/game_won-8d777f385d3dfec8815d20f7496026dc.html, true",
+            "/images/3-0cc175b9c0f1b6a831c399e269772661.png, true",
+            "/game_won.html, false",
+            "/images/3.png, false",
+            "/game_won-8d777f385d3dfec8815d20f7496026dx.html, false",
+            "/game_won-8d777f385d3dfec8815d20f749602.html, false",
+            "/8d777f385d3dfec8815d20f7496026dc-/a.html, false"
+    })
+    void testCacheControl(String path, boolean versioned) {
+        assertEquals(versioned, StaticResourceCacheInterceptor.isVersioned(path), "Wrong content hash check!");
+
+        var request = new MockHttpServletRequest("GET", path);
+        var response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(request, response, new ResourceHttpRequestHandler()), "The request was stopped!");
+        assertEquals(versioned ? StaticResourceCacheInterceptor.IMMUTABLE : StaticResourceCacheInterceptor.REVALIDATE,
+                     response.getHeader(HttpHeaders.CACHE_CONTROL), "Wrong Cache-Control header!");
+
+        var otherResponse = new MockHttpServletResponse();
+        interceptor.preHandle(request, otherResponse, new Object());
+        assertNull(otherResponse.getHeader(HttpHeaders.CACHE_CONTROL), "An endpoint got the resource headers!");
+    }
+}
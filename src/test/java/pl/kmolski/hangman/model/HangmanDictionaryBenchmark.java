@@ -0,0 +1,88 @@
+package pl.kmolski.hangman.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the HangmanDictionary class.
+ *
+ * This class measures taking random words from, and adding new words to
+ * dictionaries that contain between 10 and 10 million words.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HangmanDictionaryBenchmark {
+    /**
+     * The number of words added by a single `addWords` call.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The number of words in the dictionary at the start of each iteration.
+     */
+    @Param({"10", "1000", "100000", "10000000"})
+    private int dictionarySize;
+
+    /**
+     * The words that are used to fill the dictionary.
+     */
+    private List<String> words;
+    /**
+     * The words that are added by the `addWords` benchmark.
+     */
+    private List<String> batch;
+    /**
+     * The dictionary that is used during the benchmark.
+     */
+    private HangmanDictionary dictionary;
+
+    /**
+     * Generates the word lists once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUpWords() {
+        words = generateWords(dictionarySize);
+        batch = generateWords(BATCH_SIZE);
+    }
+
+    /**
+     * Fills a new dictionary before each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUpDictionary() {
+        dictionary = new HangmanDictionary();
+        dictionary.addWords(words);
+    }
+
+    private static List<String> generateWords(int count) {
+        var generated = new ArrayList<String>(count);
+        for (int i = 0; i < count; ++i) {
+            generated.add("słowo" + i);
+        }
+        return generated;
+    }
+
+    @Benchmark
+    public String takeWord() {
+        if (dictionary.isEmpty()) {
+            dictionary.addWords(words);
+        }
+        return dictionary.takeWord();
+    }
+
+    @Benchmark
+    public int addWords() {
+        dictionary.addWords(batch);
+        return dictionary.getWordCount();
+    }
+}
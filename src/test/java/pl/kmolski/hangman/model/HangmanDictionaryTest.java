@@ -3,12 +3,14 @@ package pl.kmolski.hangman.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EmptySource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,10 +18,11 @@ import static org.junit.jupiter.api.Assertions.*;
  * Unit tests for the HangmanDictionary class.
  *
  * This class contains unit tests for the following operations:
- * adding new words, taking a random word, checking if the dictionary is empty.
+ * adding new words, taking a random word, checking if the dictionary is empty,
+ * sharing word pools between dictionaries, taking words of a difficulty band, removing duplicates.
  *
  * @author Krzysztof Molski
- * @version 1.0.3
+ * @version 1.2.0
  */
 public class HangmanDictionaryTest {
     /**
@@ -107,4 +110,138 @@ public class HangmanDictionaryTest {
         // Words taken from an empty dictionary _must_ be null.
         assertNull(dictionary.takeWord(), "Got non-null String from empty dictionary!");
     }
-}
\ No newline at end of file
+
+    /**
+     * Verify that dictionaries that share a word pool take words from it independently.
+     * @param words A list of words in the shared pool.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "boat,apple,orange",
+            "green,blue,yellow,green",
+            "ok"
+    })
+    void testSharedWordPool(String words) {
+        var pool = WordPool.of(Arrays.asList(words.split(",")));
+        var otherDictionary = new HangmanDictionary();
+        dictionary.addWordPool(pool);
+        otherDictionary.addWordPool(pool);
+        dictionary.addWords(List.of("extra"));
+
+        var taken = new ArrayList<String>();
+        while (!dictionary.isEmpty()) {
+            taken.add(dictionary.takeWord());
+        }
+        var otherTaken = new ArrayList<String>();
+        while (!otherDictionary.isEmpty()) {
+            otherTaken.add(otherDictionary.takeWord());
+        }
+
+        // Every word of the pool must be taken exactly once from each dictionary.
+        var expected = new ArrayList<>(pool.getWords());
+        expected.sort(null);
+        otherTaken.sort(null);
+        assertEquals(expected, otherTaken, "The words taken from the dictionary do not match the pool!");
+
+        expected.add("extra");
+        expected.sort(null);
+        taken.sort(null);
+        assertEquals(expected, taken, "The words taken from the dictionary do not match the pool!");
+        assertEquals(pool.size() + 1, dictionary.getWordCount(), "The word count does not include all pools!");
+    }
+
+    /**
+     * Verify that the words of a difficulty band are taken first, and that the other words
+     * are taken once the band is exhausted.
+     * @param difficulty The difficulty band.
+     */
+    @ParameterizedTest
+    @EnumSource(Difficulty.class)
+    void testTakeWordByDifficulty(Difficulty difficulty) {
+        var words = List.of("ul", "kot", "jeż", "źdźbło", "samolot", "ogrodnik", "rzeczywistość",
+                            "konstantynopolitańczykowianeczka", "pies", "lodówka", "mama", "zjeżdżalnia",
+                            "samochód");
+        dictionary.addWordPool(WordPool.of(words));
+        long inBand = words.stream().filter(word -> difficulty.includes(WordBuckets.bucketOf(word))).count();
+        assertTrue(inBand > 0, "The test words do not cover the difficulty band!");
+
+        var taken = new ArrayList<String>();
+        while (!dictionary.isEmpty()) {
+            var word = dictionary.takeWord(difficulty);
+            assertEquals(taken.size() < inBand, difficulty.includes(WordBuckets.bucketOf(word)),
+                         "The word " + word + " was taken in the wrong order!");
+            taken.add(word);
+        }
+        taken.sort(null);
+        var expected = new ArrayList<>(words);
+        expected.sort(null);
+        assertEquals(expected, taken, "The words taken from the dictionary do not match the pool!");
+    }
+
+    /**
+     * Verify that the words of a pool that is added after words were taken can be taken.
+     * @param taken The number of words that are taken before the second pool is added.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2, 5})
+    void testAddPoolAfterTaking(int taken) {
+        var first = List.of("koło", "drzwi", "drzewo", "powóz", "pole");
+        var second = List.of("słońce", "ul", "rzeczywistość");
+        dictionary.addWordPool(WordPool.of(first));
+
+        var remaining = new ArrayList<String>();
+        for (int i = 0; i < taken; ++i) { dictionary.takeWord(); }
+        dictionary.addWordPool(WordPool.of(second));
+        while (!dictionary.isEmpty()) { remaining.add(dictionary.takeWord()); }
+
+        assertEquals(first.size() - taken + second.size(), remaining.size(), "Wrong number of remaining words!");
+        assertTrue(remaining.containsAll(second), "The words of the second pool were not taken!");
+    }
+
+    /**
+     * Verify that the draws of a dictionary saved before the words were bucketed are converted,
+     * so that the words that were taken are not taken again.
+     * @param taken The number of words that were taken, from the start of the virtual word array.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 7})
+    void testLegacyDraws(int taken) {
+        var first = WordPool.of(List.of("koło", "drzwi", "drzewo", "powóz", "pole"));
+        var second = WordPool.of(List.of("słońce", "ul", "rzeczywistość"));
+        // The first word that was taken was the last one, which was swapped with the word at position 0.
+        var legacyDisplaced = Map.of(0, 7, 7, 0);
+        var legacy = new HangmanDictionary(null, List.of(first, second), taken, legacyDisplaced, Map.of());
+
+        var all = new ArrayList<>(first.getWords());
+        all.addAll(second.getWords());
+        var expected = new ArrayList<String>();
+        for (int position = taken; position < all.size(); ++position) {
+            expected.add(all.get(legacyDisplaced.getOrDefault(position, position)));
+        }
+
+        var remaining = new ArrayList<String>();
+        while (!legacy.isEmpty()) { remaining.add(legacy.takeWord()); }
+        expected.sort(null);
+        remaining.sort(null);
+        assertEquals(expected, remaining, "The legacy draws were not converted correctly!");
+    }
+
+    /**
+     * Verify that the words that are in any pool of the dictionary, including the taken words,
+     * and the repeated words are removed from the new words.
+     * @param taken The number of words that are taken before the duplicates are removed.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 3, 8})
+    void testRemoveDuplicates(int taken) {
+        dictionary.addWordPool(WordPool.of(List.of("koło", "drzwi", "drzewo", "powóz", "pole")));
+        dictionary.addWordPool(WordPool.of(List.of("słońce", "ul", "rzeczywistość")));
+        for (int i = 0; i < taken; ++i) { dictionary.takeWord(); }
+
+        var newWords = List.of("kot", "pole", "pies", "kot", "ul", "koło ", "mama", "pies");
+        assertEquals(List.of("kot", "pies", "koło ", "mama"), dictionary.removeDuplicates(newWords),
+                     "Wrong words were removed!");
+        assertTrue(dictionary.contains("rzeczywistość"), "The dictionary does not contain its word!");
+        assertFalse(dictionary.contains("kot"), "The dictionary contains a word that was not added!");
+    }
+}
@@ -0,0 +1,124 @@
+package pl.kmolski.hangman.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * JMH benchmarks for the HangmanGame class.
+ *
+ * This class measures guessing letters, masking the current word, listing the guessed
+ * letters and compares the masking and round completion checks of the game with
+ * the previous, regular expression based implementation.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HangmanGameBenchmark {
+    /**
+     * Letters that are tried in turn by the `tryLetter` benchmark.
+     */
+    private static final String[] LETTERS = {"a", "e", "o", "n", "s", "ł", "ń", "z", "k", "x", "q"};
+
+    /**
+     * The word that is being guessed during the benchmark.
+     */
+    @Param({"słońce", "konstantynopolitańczykowianeczka"})
+    private String word;
+
+    /**
+     * The model that is used during the benchmark.
+     */
+    private HangmanGame model;
+    /**
+     * The model that is played by the `tryLetter` benchmark.
+     */
+    private HangmanGame playedModel;
+    /**
+     * Index of the next letter tried by the `tryLetter` benchmark.
+     */
+    private int letterIndex = 0;
+
+    /**
+     * Sets up a model in the middle of a round before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidGuessException {
+        model = new HangmanGame(new HangmanDictionary());
+        model.addWords(List.of(word));
+        model.nextRound();
+        model.tryLetter("o");
+        model.tryLetter("n");
+        model.tryLetter("x");
+        playedModel = newPlayedModel();
+    }
+
+    private HangmanGame newPlayedModel() {
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWords(HangmanDictionary.DEFAULT_WORDS);
+        game.nextRound();
+        return game;
+    }
+
+    @Benchmark
+    public boolean tryLetter() throws InvalidGuessException {
+        if (playedModel.isGameOver()) {
+            playedModel = newPlayedModel();
+        } else if (playedModel.isRoundOver()) {
+            playedModel.nextRound();
+        }
+
+        letterIndex = (letterIndex + 1) % LETTERS.length;
+        return playedModel.tryLetter(LETTERS[letterIndex]);
+    }
+
+    @Benchmark
+    public String guessedLetters() {
+        return model.getGuessedLetters();
+    }
+
+    @Benchmark
+    public String maskedWord() {
+        return model.getMaskedWord();
+    }
+
+    @Benchmark
+    public String maskedWordRegex() {
+        return RegexMasking.getMaskedWord(model.getCurrentWord(), " onx");
+    }
+
+    @Benchmark
+    public boolean gameOver() {
+        return model.isGameOver();
+    }
+
+    @Benchmark
+    public boolean gameOverRegex() {
+        return RegexMasking.isRoundOver(model.getCurrentWord(), " onx");
+    }
+
+    /**
+     * The previous implementation of masking and round completion, kept as the baseline.
+     */
+    private static final class RegexMasking {
+        static String getMaskedWord(String currentWord, String guessedLetters) {
+            String pattern = "[^" + Pattern.quote(guessedLetters) + "]";
+            String word = currentWord.replaceAll(pattern, "_");
+            return word.chars().mapToObj(Character::toString).collect(Collectors.joining(" "));
+        }
+
+        static boolean isRoundOver(String currentWord, String guessedLetters) {
+            String pattern = "[" + Pattern.quote(guessedLetters) + "]";
+            return currentWord.replaceAll(pattern, "").isEmpty();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package pl.kmolski.hangman.model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HangmanGameCodec class.
+ *
+ * This class contains unit tests for encoding and decoding game states,
+ * and for the size of the encoded states.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.0
+ */
+public class HangmanGameCodecTest {
+
+    private static List<String> generateWords(int count) {
+        var words = new ArrayList<String>(count);
+        for (int i = 0; i < count; ++i) {
+            words.add("słowo" + i);
+        }
+        return words;
+    }
+
+    private static HangmanGame createGame(Map<String, WordPool> pools, List<String> words) {
+        var pool = WordPool.of(words);
+        pools.put(pool.getId(), pool);
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(pool);
+        game.nextRound();
+        return game;
+    }
+
+    /**
+     * Verify that the decoded game has the same state, and the same remaining words, as the encoded game.
+     * @param rounds The number of rounds that are played before the game is encoded.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 5, 20})
+    void testRoundTrip(int rounds) {
+        var pools = new HashMap<String, WordPool>();
+        var game = createGame(pools, generateWords(50));
+        for (int i = 0; i < rounds; ++i) {
+            game.nextRound();
+        }
+        assertDoesNotThrow(() -> game.tryLetter("s"), "An exception has occurred:");
+        assertDoesNotThrow(() -> game.tryLetter("x"), "An exception has occurred:");
+
+        var decoded = HangmanGameCodec.decode(HangmanGameCodec.encode(game), pools::get);
+        assertEquals(game.getCurrentWord(), decoded.getCurrentWord(), "Wrong current word!");
+        assertEquals(game.getMaskedWord(), decoded.getMaskedWord(), "Wrong masked word!");
+        assertEquals(game.getGuessedLetters(), decoded.getGuessedLetters(), "Wrong guessed letters!");
+        assertEquals(game.getMisses(), decoded.getMisses(), "Wrong miss count!");
+        assertEquals(game.getWordsRemaining(), decoded.getWordsRemaining(), "Wrong remaining word count!");
+        assertEquals(game.isDictionaryModified(), decoded.isDictionaryModified(), "Wrong modification flag!");
+        assertEquals(game.getRevision(), decoded.getRevision(), "Wrong revision!");
+
+        var remaining = new ArrayList<String>();
+        var decodedRemaining = new ArrayList<String>();
+        for (int i = rounds + 1; i < 50; ++i) {
+            game.nextRound();
+            decoded.nextRound();
+            remaining.add(game.getCurrentWord());
+            decodedRemaining.add(decoded.getCurrentWord());
+        }
+        remaining.sort(null);
+        decodedRemaining.sort(null);
+        assertEquals(remaining, decodedRemaining, "The decoded game has different remaining words!");
+    }
+
+    /**
+     * Verify that the decoded game takes the remaining words of the same difficulty band as the encoded game.
+     * @param difficulty The difficulty band.
+     */
+    @ParameterizedTest
+    @EnumSource(Difficulty.class)
+    void testDifficultyRoundTrip(Difficulty difficulty) {
+        var pools = new HashMap<String, WordPool>();
+        var game = createGame(pools, generateWords(10));
+        game.setDifficulty(difficulty);
+        var extraPool = WordPool.of(List.of("ul", "kot", "rzeczywistość", "źdźbło"));
+        pools.put(extraPool.getId(), extraPool);
+        game.addWordPool(extraPool);
+        game.nextRound();
+
+        // The game has taken 2 of its 14 words.
+        var decoded = HangmanGameCodec.decode(HangmanGameCodec.encode(game), pools::get);
+        assertEquals(difficulty, decoded.getDifficulty(), "Wrong difficulty!");
+        assertEquals(game.getWordsRemaining(), decoded.getWordsRemaining(), "Wrong remaining word count!");
+        for (int i = 2; i < 14; ++i) {
+            game.nextRound();
+            decoded.nextRound();
+            assertEquals(difficulty.includes(WordBuckets.bucketOf(game.getCurrentWord())),
+                         difficulty.includes(WordBuckets.bucketOf(decoded.getCurrentWord())),
+                         "The decoded game has taken a word of a different band!");
+        }
+    }
+
+    /**
+     * Verify that the size of the encoded game is bounded, regardless of the number of words.
+     * @param wordCount The number of words in the dictionary.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000, 100_000})
+    void testEncodedSize(int wordCount) {
+        var game = createGame(new HashMap<>(), generateWords(wordCount));
+
+        // The current word and the word indices take a few more bytes in a larger dictionary.
+        assertTrue(HangmanGameCodec.encode(game).length <= 72, "The encoded size depends on the number of words!");
+    }
+
+    /**
+     * Verify that a game can not be decoded when its word pool is missing, or resolves to a pool
+     * without its words (e.g. an empty placeholder of a mapped pool), or the state is truncated.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void testMissingPool(int wordCount) {
+        var encoded = HangmanGameCodec.encode(createGame(new HashMap<>(), generateWords(wordCount)));
+
+        assertThrows(IllegalArgumentException.class, () -> HangmanGameCodec.decode(encoded, id -> null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> HangmanGameCodec.decode(encoded, id -> WordPool.placeholderOf(WordPool.of(List.of(id)))));
+        assertThrows(IllegalArgumentException.class,
+                     () -> HangmanGameCodec.decode(new byte[] {1}, id -> null));
+    }
+}
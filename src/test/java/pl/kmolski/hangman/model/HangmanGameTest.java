@@ -4,12 +4,15 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,10 +21,11 @@ import static org.junit.jupiter.api.Assertions.*;
  * Unit tests for the HangmanGame class.
  *
  * This class contains unit tests for the game's logic - starting the next round,
- * guessing letters, managing the dictionary and win/lose conditions.
+ * guessing letters, managing the dictionary, normalizing words, win/lose conditions
+ * the revisions of the game state and the replay of game events.
  *
  * @author Krzysztof Molski
- * @version 1.0.3
+ * @version 1.3.0
  */
 public class HangmanGameTest {
     /**
@@ -101,6 +105,34 @@ public class HangmanGameTest {
         }
     }
 
+    /**
+     * Verify that `getMaskedWord()` and `getGuessedLetters()` produce the expected, space-separated format.
+     * @param word    The only word in the dictionary.
+     * @param guesses The letters that are tried, in order.
+     * @param masked  The expected masked word.
+     * @param letters The expected guessed letters.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "'drzewo', 'ozx', '_ _ z _ _ o', '  o x z'",
+            "'słońce', 'ńsłx', 's ł _ ń _ _', '  s x ł ń'",
+            "'pole', 'eopl', 'p o l e', '  e l o p'"
+    })
+    void testMaskedWordFormat(String word, String guesses, String masked, String letters) {
+        model.addWords(List.of(word));
+        model.nextRound();
+
+        assertDoesNotThrow(() -> {
+            for (char c : guesses.toCharArray()) {
+                model.tryLetter(Character.toString(c));
+            }
+        }, "An exception has occurred:");
+
+        assertEquals(masked, model.getMaskedWord(), "maskedWord has an unexpected format!");
+        assertEquals(letters, model.getGuessedLetters(), "guessedLetters has an unexpected format!");
+        assertEquals(masked.indexOf('_') < 0, model.isRoundOver(), "isRoundOver() does not match maskedWord!");
+    }
+
     /**
      * Verify that the `isRoundOver()` condition is correct.
      * @param words A list of words to add.
@@ -165,6 +197,7 @@ public class HangmanGameTest {
         // After skipping all the words, the game should be over and we should've lost.
         assertTrue(model.isGameOver(), "The game is not over after skipping all words!");
         assertFalse(model.didWin(), "The game should be lost after skipping all words!");
+        assertEquals("", model.getMaskedWord(), "Wrong masked word after skipping all words!");
     }
 
     /**
@@ -185,6 +218,63 @@ public class HangmanGameTest {
         }, "An exception has occurred:");
     }
 
+    /**
+     * Verify that every change of the game, and only a change, increments its revision.
+     * @param letter A letter that is passed to `tryLetter()`.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "x"})
+    void testRevision(String letter) {
+        model.addWords(HangmanDictionary.DEFAULT_WORDS);
+        model.nextRound();
+        assertEquals(2, model.getRevision(), "Adding words and starting a round are 2 changes!");
+
+        assertDoesNotThrow(() -> model.tryLetter(letter), "An exception has occurred:");
+        assertEquals(3, model.getRevision(), "The guess did not change the revision!");
+        assertThrows(InvalidGuessException.class, () -> model.tryLetter("ab"), "A long guess was not rejected!");
+        assertEquals(3, model.getRevision(), "A rejected guess changed the revision!");
+
+        model.setDifficulty(Difficulty.ANY);
+        assertEquals(3, model.getRevision(), "Keeping the difficulty changed the revision!");
+        model.setDifficulty(Difficulty.HARD);
+        assertEquals(4, model.getRevision(), "Changing the difficulty did not change the revision!");
+    }
+
+    /**
+     * Verify that replaying the events of a game on its earlier state gives the same state,
+     * and that a draw can not be replayed twice.
+     * @param difficulty The difficulty band that is chosen when the word is skipped.
+     */
+    @ParameterizedTest
+    @EnumSource(Difficulty.class)
+    void testReplay(Difficulty difficulty) {
+        model.addWords(HangmanDictionary.DEFAULT_WORDS);
+        model.nextRound();
+        var pools = new HashMap<String, WordPool>();
+        model.getDictionary().getPools().forEach(pool -> pools.put(pool.getId(), pool));
+        var replica = HangmanGameCodec.decode(HangmanGameCodec.encode(model), pools::get);
+
+        var events = new ArrayList<GameEvent>();
+        model.setDifficulty(difficulty);
+        events.add(GameEvent.wordSkipped(model));
+        model.nextRound();
+        events.add(GameEvent.roundStarted(model));
+        var letter = model.getCurrentWord().substring(0, 1);
+        assertDoesNotThrow(() -> model.tryLetter(letter), "An exception has occurred:");
+        events.add(GameEvent.letterGuessed(model, letter));
+        model.nextRound();
+        events.add(GameEvent.roundStarted(model));
+
+        events.forEach(event -> replica.replay(event, pools::get));
+        assertEquals(model.getCurrentWord(), replica.getCurrentWord(), "Wrong replayed word!");
+        assertEquals(model.getTriedLetters(), replica.getTriedLetters(), "Wrong replayed guesses!");
+        assertEquals(model.getDifficulty(), replica.getDifficulty(), "Wrong replayed difficulty!");
+        assertEquals(model.getWordsRemaining(), replica.getWordsRemaining(), "Wrong replayed dictionary!");
+        assertEquals(model.getRevision(), replica.getRevision(), "Wrong replayed revision!");
+        assertThrows(IllegalArgumentException.class, () -> replica.replay(events.get(1), pools::get),
+                     "A draw was replayed twice!");
+    }
+
     /**
      * Verify that trying an empty or null letter fails.
      * @param letter An empty/null letter that is passed to `tryLetter()`.
@@ -223,4 +313,21 @@ public class HangmanGameTest {
         assertThrows(InvalidGuessException.class, () -> model.tryLetter(tooLong),
                 "A multi-letter guess was not rejected!");
     }
-}
\ No newline at end of file
+
+    /**
+     * Verify that words are normalized in the same way as by trimming, collapsing whitespace with a regex
+     * and lowercasing, and that normalized words are not copied.
+     * @param word A word to normalize.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "koło", "Koło", "  DRZWI\t", "czerwony   \t kapturek", "czerwony kapturek", "ŁÓDŹ", " a ", "a\nb", ""
+    })
+    void testNormalizeWord(String word) {
+        var expected = word.trim().replaceAll("\\s+", " ").toLowerCase();
+        var normalized = HangmanGame.normalizeWord(word);
+
+        assertEquals(expected, normalized, "The word was not normalized correctly!");
+        assertSame(normalized, HangmanGame.normalizeWord(normalized), "A normalized word was copied!");
+    }
+}
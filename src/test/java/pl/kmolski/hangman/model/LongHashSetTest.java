@@ -0,0 +1,59 @@
+package pl.kmolski.hangman.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LongHashSet class.
+ *
+ * This class contains unit tests for adding and finding elements, and for the word hashes.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class LongHashSetTest {
+
+    /**
+     * Verify that the set contains the same elements as a HashSet, while it grows.
+     * @param expectedSize The expected size that the set is created with.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 100, 100_000})
+    void testAddAndContains(int expectedSize) {
+        var set = new LongHashSet(expectedSize);
+        var reference = new HashSet<Long>();
+        var random = new SplittableRandom(42);
+        for (int i = 0; i < 50_000; ++i) {
+            // A small range of values, so that some of them are added more than once.
+            long value = random.nextLong(-20_000, 20_000) * 0x9e3779b97f4a7c15L;
+            assertEquals(reference.add(value), set.add(value), "Wrong result of add() for " + value);
+        }
+
+        assertEquals(reference.size(), set.size(), "Wrong set size!");
+        for (long value = -20_000; value < 20_000; ++value) {
+            long element = value * 0x9e3779b97f4a7c15L;
+            assertEquals(reference.contains(element), set.contains(element), "Wrong result of contains()!");
+        }
+        assertTrue(set.contains(0), "The set does not contain 0!");
+    }
+
+    /**
+     * Verify that equal words have equal hashes, and that similar words have different hashes.
+     */
+    @Test
+    void testHash() {
+        assertEquals(LongHashSet.hash("koło"), LongHashSet.hash(new StringBuilder("koło")), "Equal words have different hashes!");
+
+        var hashes = new LongHashSet();
+        for (int i = 0; i < 100_000; ++i) {
+            assertTrue(hashes.add(LongHashSet.hash("słowo" + i)), "Two words have the same hash!");
+        }
+        assertFalse(hashes.add(LongHashSet.hash("słowo0")), "A word was added twice!");
+    }
+}
@@ -0,0 +1,104 @@
+package pl.kmolski.hangman.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MappedWordList class.
+ *
+ * This class contains unit tests for the following operations:
+ * writing index files, reading words from the mapped index, rejecting invalid index files.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class MappedWordListTest {
+    /**
+     * The directory of the index files.
+     */
+    @TempDir
+    Path directory;
+
+    private MappedWordList write(List<String> words, long sourceLength, long sourceLastModified) throws IOException {
+        try (var writer = new MappedWordList.Writer(directory.resolve("words.idx"))) {
+            for (var word : words) { writer.add(word); }
+            return writer.finish(sourceLength, sourceLastModified);
+        }
+    }
+
+    /**
+     * Verify that the mapped words are the written words, and that the list has the identifier
+     * of a word pool with the same words.
+     * @param words A list of words.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "boat,apple,orange",
+            "koło,drzwi,drzewo,powóz,pole,słońce",
+            "ok,ok,ok",
+            "żółć"
+    })
+    void testWriteAndMap(String words) throws IOException {
+        var wordList = Arrays.asList(words.split(","));
+        var mapped = write(wordList, 123, 456);
+
+        assertEquals(wordList, mapped, "Wrong mapped words!");
+        assertEquals(WordPool.of(wordList).getId(), mapped.getId(), "Wrong word list ID!");
+        assertEquals(WordPool.of(wordList), WordPool.ofMapped(mapped), "The mapped pool is not equal to the pool!");
+        assertEquals(123, mapped.getSourceLength(), "Wrong source length!");
+        assertEquals(456, mapped.getSourceLastModified(), "Wrong source modification time!");
+
+        var reopened = MappedWordList.open(directory.resolve("words.idx"));
+        assertEquals(wordList, reopened, "Wrong words after reopening!");
+        assertEquals(List.of("words.idx"), listFiles(), "The temporary files were not deleted!");
+    }
+
+    /**
+     * Verify that the offset table grows past its initial capacity.
+     */
+    @Test
+    void testManyWords() throws IOException {
+        var words = new ArrayList<String>();
+        for (int i = 0; i < 5000; ++i) { words.add("słowo" + i); }
+        var mapped = write(words, 0, 0);
+
+        assertEquals(words.size(), mapped.size(), "Wrong word count!");
+        assertEquals("słowo0", mapped.get(0), "Wrong first word!");
+        assertEquals("słowo4999", mapped.get(4999), "Wrong last word!");
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(5000), "No exception for a missing word!");
+    }
+
+    /**
+     * Verify that files that are not valid index files are rejected.
+     */
+    @Test
+    void testInvalidIndex() throws IOException {
+        write(List.of("boat", "apple"), 0, 0);
+        var file = directory.resolve("words.idx");
+        var bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedWordList.open(file), "A truncated index was opened!");
+        Files.writeString(file, "boat\napple\n".repeat(10));
+        assertThrows(IOException.class, () -> MappedWordList.open(file), "A word file was opened as an index!");
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            var names = new ArrayList<String>();
+            files.forEach(path -> names.add(path.getFileName().toString()));
+            return names;
+        }
+    }
+}
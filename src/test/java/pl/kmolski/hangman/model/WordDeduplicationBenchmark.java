@@ -0,0 +1,83 @@
+package pl.kmolski.hangman.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH benchmarks of the normalization and deduplication of new words.
+ *
+ * This class measures normalizing a million words (compared with the former stream and regex
+ * implementation), and removing the duplicates of a million new words, half of which are
+ * already in a dictionary of a million words.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class WordDeduplicationBenchmark {
+    /**
+     * The number of words in the input and in the dictionary.
+     */
+    private static final int WORD_COUNT = 1_000_000;
+
+    /**
+     * The raw words, with mixed case and extra whitespace.
+     */
+    private List<String> rawWords;
+    /**
+     * The normalized new words.
+     */
+    private List<String> newWords;
+    /**
+     * The dictionary that contains the first half of the new words.
+     */
+    private HangmanDictionary dictionary;
+
+    /**
+     * Generates the words and fills the dictionary once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        rawWords = new ArrayList<>(WORD_COUNT);
+        newWords = new ArrayList<>(WORD_COUNT);
+        var dictionaryWords = new ArrayList<String>(WORD_COUNT);
+        for (int i = 0; i < WORD_COUNT; ++i) {
+            rawWords.add(" Czerwony\t  KAPTUREK " + i);
+            newWords.add("słowo" + (i + WORD_COUNT / 2));
+            dictionaryWords.add("słowo" + i);
+        }
+
+        dictionary = new HangmanDictionary();
+        dictionary.addWords(dictionaryWords);
+        // Index the word hashes of the pool before the measurement.
+        dictionary.contains("słowo0");
+    }
+
+    @Benchmark
+    public List<String> normalizeWords() {
+        return HangmanGame.normalizeWords(rawWords);
+    }
+
+    @Benchmark
+    public List<String> normalizeWordsRegex() {
+        return rawWords.stream()
+                       .map(String::trim)
+                       .map(s -> s.replaceAll("\\s+", " "))
+                       .map(String::toLowerCase)
+                       .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> removeDuplicates() {
+        return dictionary.removeDuplicates(newWords);
+    }
+}
@@ -0,0 +1,57 @@
+package pl.kmolski.hangman.model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WordPool class.
+ *
+ * This class contains unit tests for the following operations:
+ * creating word pools, identifying word pools by their contents.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class WordPoolTest {
+    /**
+     * Verify that pools with the same words have the same identifier, and keep the word order.
+     * @param words A list of words in the pool.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "boat,apple,orange",
+            "koło,drzwi,drzewo",
+            "ok,ok,ok"
+    })
+    void testSameContents(String words) {
+        var first = WordPool.of(Arrays.asList(words.split(",")));
+        var second = WordPool.of(Arrays.asList(words.split(",")));
+
+        assertEquals(first.getId(), second.getId(), "Pools with the same words have different IDs!");
+        assertEquals(first, second, "Pools with the same words are not equal!");
+        assertEquals(Arrays.asList(words.split(",")), first.getWords(), "The pool does not keep the word order!");
+    }
+
+    /**
+     * Verify that pools with different words have different identifiers.
+     * @param first  The words in the first pool.
+     * @param second The words in the second pool.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "'boat,apple', 'apple,boat'",
+            "'ab,c', 'a,bc'",
+            "'koło', 'koło,koło'"
+    })
+    void testDifferentContents(String first, String second) {
+        var firstPool = WordPool.of(Arrays.asList(first.split(",")));
+        var secondPool = WordPool.of(Arrays.asList(second.split(",")));
+
+        assertNotEquals(firstPool.getId(), secondPool.getId(), "Pools with different words have the same ID!");
+    }
+}
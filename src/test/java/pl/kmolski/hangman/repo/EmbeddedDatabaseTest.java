@@ -0,0 +1,104 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.DatabaseBackend;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.config.MonitoredDataSource;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the embedded H2 database backend.
+ *
+ * This class stores the game saves in an H2 database file in a temporary directory,
+ * with the data source and Hibernate settings of the application.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class EmbeddedDatabaseTest {
+    @TempDir
+    Path databaseDir;
+
+    private MonitoredDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private HangmanGameRepository repository;
+
+    private void open() {
+        var config = new HangmanConfig();
+        ReflectionTestUtils.setField(config, "dbBackend", "h2");
+        ReflectionTestUtils.setField(config, "dbUrl", "jdbc:h2:file:" + databaseDir.resolve("hangman"));
+        dataSource = config.dataSource();
+
+        var configuration = new Configuration();
+        configuration.addProperties(config.hibernateProperties());
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+
+        sessionFactory = configuration.buildSessionFactory();
+        repository = new HangmanGameRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+    }
+
+    private void close() throws SQLException {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        var result = action.get();
+        transaction.commit();
+        return result;
+    }
+
+    /**
+     * Verify that the H2 backend is selected by name and creates its schema, instead of validating it.
+     */
+    @Test
+    void testBackend() {
+        assertEquals(DatabaseBackend.H2, DatabaseBackend.of("h2"), "Wrong backend!");
+        assertEquals("update", DatabaseBackend.H2.getSchemaAction(), "The schema of H2 is not created!");
+        assertEquals("validate", DatabaseBackend.MARIADB.getSchemaAction(), "The schema of MariaDB is not validated!");
+        assertThrows(IllegalArgumentException.class, () -> DatabaseBackend.of("sqlite"), "Unknown backend accepted!");
+    }
+
+    /**
+     * Verify that the game saves (and their updates) are kept in the database file after the application is restarted.
+     */
+    @Test
+    void testGameSavesPersisted() throws SQLException {
+        open();
+        var wordPoolRepository = new WordPoolRepository();
+        ReflectionTestUtils.invokeMethod(wordPoolRepository, "setSessionFactory", sessionFactory);
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(inTransaction(() -> wordPoolRepository.intern(WordPool.of(HangmanDictionary.DEFAULT_WORDS))));
+        game.nextRound();
+        inTransaction(() -> { repository.save(game); return null; });
+        assertDoesNotThrow(() -> game.tryLetter(game.getCurrentWord().substring(0, 1)), "An exception has occurred:");
+        inTransaction(() -> { repository.update(game); return null; });
+        close();
+
+        open();
+        var saved = inTransaction(() -> repository.get(game.getId())).orElseThrow();
+        assertEquals(game.getCurrentWord(), saved.getCurrentWord(), "Wrong saved game!");
+        assertEquals(game.getTriedLetters(), saved.getTriedLetters(), "The update was not saved!");
+        assertEquals(game.getWordsRemaining(), saved.getWordsRemaining(), "Wrong saved dictionary!");
+        close();
+    }
+}
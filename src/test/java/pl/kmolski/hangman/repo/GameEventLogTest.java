@@ -0,0 +1,180 @@
+package pl.kmolski.hangman.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.GameEvent;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.InvalidGuessException;
+import pl.kmolski.hangman.service.GameServiceFixture;
+import pl.kmolski.hangman.service.HangmanGameService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GameEventLog class.
+ *
+ * This class contains unit tests for the rebuilding of games from their snapshots and events
+ * after a restart, for the removal of finished games and for the recovery of a log with
+ * an incomplete record. The games are played through the HangmanGameService.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0.1
+ */
+public class GameEventLogTest {
+    @TempDir
+    Path directory;
+
+    private final InMemoryWordPoolRepository wordPoolRepository = new InMemoryWordPoolRepository();
+    private int updatedSaves = 0;
+    private final InMemoryGameRepository gameRepository = new InMemoryGameRepository() {
+        @Override
+        public void update(HangmanGame model) {
+            ++updatedSaves;
+            super.update(model);
+        }
+    };
+    private GameEventLog eventLog;
+    private HangmanGameService gameService;
+
+    private GameEventLog openLog(int snapshotInterval) throws IOException {
+        var log = new GameEventLog();
+        ReflectionTestUtils.setField(log, "enabled", true);
+        ReflectionTestUtils.setField(log, "directory", directory.toString());
+        ReflectionTestUtils.setField(log, "snapshotInterval", snapshotInterval);
+        ReflectionTestUtils.invokeMethod(log, "setWordPoolRepository", wordPoolRepository);
+        log.afterPropertiesSet();
+        return log;
+    }
+
+    private void createGameService(int snapshotInterval) throws IOException {
+        eventLog = openLog(snapshotInterval);
+        gameService = GameServiceFixture.gameService().gameRepository(gameRepository)
+                .wordPoolRepository(wordPoolRepository).gameLocks(new GameLocks(16)).eventLog(eventLog).build();
+    }
+
+    /**
+     * Restart the event log, like after a restart of the application.
+     */
+    private GameEventLog restart() throws IOException {
+        eventLog.destroy();
+        eventLog = openLog(1);
+        return eventLog;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        eventLog.destroy();
+    }
+
+    /**
+     * Guess a letter of the current word that has not been tried yet.
+     */
+    private void guessCorrectly(HangmanGame game) throws InvalidGuessException {
+        var word = game.getCurrentWord();
+        for (int i = 0; i < word.length(); ++i) {
+            var letter = word.substring(i, i + 1);
+            if (!game.getTriedLetters().contains(letter)) {
+                gameService.submitGuess(game.getId(), letter);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Verify that a game that was played is rebuilt in the same state after a restart,
+     * and that the game save is only updated when the game is snapshotted.
+     * @param snapshotInterval The number of events after which a game is snapshotted.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 100})
+    void testRebuild(int snapshotInterval) throws Exception {
+        createGameService(snapshotInterval);
+        var game = gameService.createAndSaveGameModel();
+        gameService.submitGuess(game.getId(), "x");
+        for (int i = 0; i < 6; ++i) {
+            guessCorrectly(game);
+        }
+        gameService.skipWord(game.getId(), Difficulty.EASY);
+        guessCorrectly(game);
+
+        long appendedEvents = eventLog.getAppendedEvents();
+        assertTrue(appendedEvents >= 10, "The events were not appended!");
+        if (snapshotInterval == 100) {
+            assertEquals(1, eventLog.getSnapshots(), "The game was snapshotted too often!");
+            assertEquals(0, updatedSaves, "The game save was updated without a snapshot!");
+        } else {
+            assertTrue(updatedSaves > 0, "The game save was not updated with the snapshots!");
+            assertTrue(updatedSaves < appendedEvents, "The game save was updated after every event!");
+        }
+
+        var log = restart();
+        var rebuilt = log.load(game.getId()).orElseThrow();
+        assertEquals(game.getCurrentWord(), rebuilt.getCurrentWord(), "Wrong rebuilt word!");
+        assertEquals(game.getTriedLetters(), rebuilt.getTriedLetters(), "Wrong rebuilt guesses!");
+        assertEquals(game.getMisses(), rebuilt.getMisses(), "Wrong rebuilt misses!");
+        assertEquals(game.getWordsGuessed(), rebuilt.getWordsGuessed(), "Wrong rebuilt word count!");
+        assertEquals(game.getWordsRemaining(), rebuilt.getWordsRemaining(), "Wrong rebuilt dictionary!");
+        assertEquals(game.getDifficulty(), rebuilt.getDifficulty(), "Wrong rebuilt difficulty!");
+        assertEquals(game.getRevision(), rebuilt.getRevision(), "Wrong rebuilt revision!");
+    }
+
+    /**
+     * Verify that a finished game is not rebuilt, while its events are kept for the analytics.
+     */
+    @Test
+    void testRemovedGame() throws Exception {
+        createGameService(50);
+        var game = gameService.createAndSaveGameModel();
+        for (int i = 0; i < HangmanGame.MAX_MISSES; ++i) {
+            gameService.submitGuess(game.getId(), "x");
+        }
+        assertTrue(game.isGameOver(), "The game is not over!");
+
+        var log = restart();
+        assertTrue(log.load(game.getId()).isEmpty(), "A finished game was rebuilt!");
+
+        var types = new ArrayList<GameEvent.Type>();
+        log.forEachEvent(event -> types.add(event.getType()));
+        assertEquals(GameEvent.Type.GAME_CREATED, types.get(0), "Wrong first event!");
+        assertEquals(1 + HangmanGame.MAX_MISSES, types.size(), "Wrong number of events!");
+        assertEquals(HangmanGame.MAX_MISSES, types.stream().filter(GameEvent.Type.LETTER_GUESSED::equals).count(),
+                     "Wrong number of guesses!");
+    }
+
+    /**
+     * Verify that a record that was not completely written is truncated when the log is opened,
+     * and that the log can be appended to afterwards.
+     */
+    @Test
+    void testIncompleteRecord() throws Exception {
+        createGameService(50);
+        var game = gameService.createAndSaveGameModel();
+        gameService.submitGuess(game.getId(), "x");
+        eventLog.destroy();
+
+        var file = directory.resolve(GameEventLog.FILE_NAME);
+        long size = Files.size(file);
+        Files.write(file, ByteBuffer.allocate(6).putInt(100).array(), StandardOpenOption.APPEND);
+
+        var log = openLog(50);
+        eventLog = log;
+        assertEquals(size, Files.size(file), "The incomplete record was not truncated!");
+        assertEquals(1, log.load(game.getId()).orElseThrow().getMisses(), "Wrong rebuilt game!");
+
+        assertDoesNotThrow(() -> game.tryLetter("q"), "An exception has occurred:");
+        log.append(GameEvent.letterGuessed(game, "q"));
+        assertEquals(2, restart().load(game.getId()).orElseThrow().getMisses(), "The new event was not replayed!");
+    }
+}
@@ -0,0 +1,138 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.config.MonitoredDataSource;
+import pl.kmolski.hangman.model.GameSaveSummary;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * JMH benchmarks of the HangmanGameRepository operations on the database backends.
+ *
+ * This class measures the average latency of saving, updating and loading a game save, and of loading
+ * a page of game save summaries, with the data source and Hibernate settings of the selected backend.
+ * The second-level cache is disabled, so every operation reaches the database. By default, the embedded
+ * H2 backend stores its data in a new temporary directory. MariaDB can be benchmarked with `-p backend=h2,mariadb`
+ * passed to the JMH runner, if a database server with the default credentials is running on localhost.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameRepositoryBackendBenchmark {
+    /**
+     * The number of game saves on a page of summaries.
+     */
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"h2"})
+    private String backend;
+
+    private MonitoredDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private HangmanGameRepository repository;
+    /**
+     * The pool of words of the saved games.
+     */
+    private WordPool wordPool;
+    /**
+     * The game save that is updated and loaded during the benchmark.
+     */
+    private HangmanGame game;
+
+    /**
+     * Sets up the database, the repository and a saved game before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var config = new HangmanConfig();
+        ReflectionTestUtils.setField(config, "dbBackend", backend);
+        if (backend.equals("h2")) {
+            var databaseDir = Files.createTempDirectory("hangman-benchmark");
+            ReflectionTestUtils.setField(config, "dbUrl", "jdbc:h2:file:" + databaseDir.resolve("hangman"));
+        }
+        dataSource = config.dataSource();
+
+        var configuration = new Configuration();
+        configuration.addProperties(config.hibernateProperties());
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        configuration.setProperty("hibernate.cache.use_second_level_cache", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+
+        sessionFactory = configuration.buildSessionFactory();
+        repository = new HangmanGameRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+        var wordPoolRepository = new WordPoolRepository();
+        ReflectionTestUtils.invokeMethod(wordPoolRepository, "setSessionFactory", sessionFactory);
+
+        wordPool = inTransaction(() -> wordPoolRepository.intern(WordPool.of(HangmanDictionary.DEFAULT_WORDS)));
+        game = newGame();
+        inTransaction(() -> { repository.save(game); return null; });
+    }
+
+    /**
+     * Closes the database after each trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    private HangmanGame newGame() {
+        var newGame = new HangmanGame(new HangmanDictionary());
+        newGame.addWordPool(wordPool);
+        newGame.nextRound();
+        return newGame;
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        var result = action.get();
+        transaction.commit();
+        return result;
+    }
+
+    @Benchmark
+    public HangmanGame save() {
+        var newGame = newGame();
+        return inTransaction(() -> { repository.save(newGame); return newGame; });
+    }
+
+    @Benchmark
+    public HangmanGame update() {
+        return inTransaction(() -> { repository.update(game); return game; });
+    }
+
+    @Benchmark
+    public Optional<HangmanGame> get() {
+        return inTransaction(() -> repository.get(game.getId()));
+    }
+
+    @Benchmark
+    public List<GameSaveSummary> getSummaries() {
+        return inTransaction(() -> repository.getSummaries(null, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,198 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level cache of the HangmanGameRepository class.
+ *
+ * This class uses an in-memory H2 database with the cache settings of the application.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.0
+ */
+public class HangmanGameRepositoryCacheTest {
+    private SessionFactory sessionFactory;
+    private HangmanGameRepository repository;
+    private WordPoolRepository wordPoolRepository;
+
+    @BeforeEach
+    void setUp() {
+        var configuration = new Configuration();
+        configuration.addProperties(new HangmanConfig().hibernateProperties());
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:cache-test;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+
+        sessionFactory = configuration.buildSessionFactory();
+        repository = new HangmanGameRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+        wordPoolRepository = new WordPoolRepository();
+        ReflectionTestUtils.invokeMethod(wordPoolRepository, "setSessionFactory", sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        var result = action.get();
+        transaction.commit();
+        return result;
+    }
+
+    /**
+     * Verify that a game save that was loaded once is loaded again from the second-level cache,
+     * without any SQL statements.
+     */
+    @Test
+    void testGameSaveCache() {
+        var saved = inTransaction(this::saveGame);
+        var id = saved.getId();
+        inTransaction(() -> repository.get(id));
+
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        var game = inTransaction(() -> repository.get(id)).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "The game save was loaded from the database!");
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0, "The second-level cache was not used!");
+        assertEquals(saved.getCurrentWord(), game.getCurrentWord(), "Wrong cached game save!");
+        assertEquals(saved.getWordsRemaining(), game.getWordsRemaining(), "Wrong cached dictionary!");
+    }
+
+    /**
+     * Verify that updating a game save updates its cached entry, instead of evicting it,
+     * so that the updated save is loaded again without any SQL statements.
+     */
+    @Test
+    void testUpdateKeepsCachedSave() {
+        var game = inTransaction(this::saveGame);
+        inTransaction(() -> repository.get(game.getId()));
+
+        assertDoesNotThrow(() -> game.tryLetter(game.getCurrentWord().substring(0, 1)), "An exception has occurred:");
+        inTransaction(() -> { repository.update(game); return null; });
+
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        var saved = inTransaction(() -> repository.get(game.getId())).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount(), "The updated save was evicted from the cache!");
+        assertEquals(game.getTriedLetters(), saved.getTriedLetters(), "The cached save is stale!");
+        assertEquals(game.getVersion(), saved.getVersion(), "Wrong version of the cached save!");
+    }
+
+    /**
+     * Verify that the pages of game save summaries are not cached, so that an updated
+     * game save is listed immediately.
+     */
+    @Test
+    void testSummariesNotCached() {
+        var game = inTransaction(this::saveGame);
+        inTransaction(() -> repository.getSummaries(null, 10));
+
+        assertDoesNotThrow(() -> game.tryLetter(game.getCurrentWord().substring(0, 1)), "An exception has occurred:");
+        inTransaction(() -> { repository.update(game); return null; });
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        var summaries = inTransaction(() -> repository.getSummaries(null, 10));
+        assertEquals(0, statistics.getQueryCachePutCount() + statistics.getQueryCacheHitCount(),
+                     "The page was cached!");
+        assertEquals(game.getMaskedWord(), summaries.get(0).getMaskedWord(), "The page is stale!");
+        var saved = inTransaction(() -> repository.get(game.getId())).orElseThrow();
+        assertEquals(game.getRevision(), saved.getRevision(), "The revision was not updated!");
+    }
+
+    /**
+     * Verify that games saved in a batch can be loaded and deleted in a batch.
+     */
+    @Test
+    void testSaveAndDeleteAll() {
+        var pool = inTransaction(() -> wordPoolRepository.intern(WordPool.of(HangmanDictionary.DEFAULT_WORDS)));
+        var games = new ArrayList<HangmanGame>();
+        for (int i = 0; i < 3; ++i) {
+            var game = new HangmanGame(new HangmanDictionary());
+            game.addWordPool(pool);
+            game.nextRound();
+            games.add(game);
+        }
+        inTransaction(() -> { repository.saveAll(games); return null; });
+
+        for (var game : games) {
+            assertNotNull(game.getId(), "The game was not saved!");
+            assertFalse(game.isDictionaryModified(), "The game was not marked as saved!");
+            var loaded = inTransaction(() -> repository.get(game.getId())).orElseThrow();
+            assertEquals(game.getCurrentWord(), loaded.getCurrentWord(), "Wrong saved game!");
+        }
+
+        inTransaction(() -> { repository.deleteAll(games); return null; });
+        assertTrue(inTransaction(() -> repository.getSummaries(null, 10)).isEmpty(), "The games were not deleted!");
+    }
+
+    /**
+     * Verify that the games waiting in the pool of new games are not listed or loaded until they are
+     * handed out, and that only the games left in the pool of the given instance are deleted.
+     */
+    @Test
+    void testPooledGames() {
+        var pool = inTransaction(() -> wordPoolRepository.intern(WordPool.of(HangmanDictionary.DEFAULT_WORDS)));
+        var games = new ArrayList<HangmanGame>();
+        for (var owner : List.of("instance-a", "instance-a", "instance-b")) {
+            var game = new HangmanGame(new HangmanDictionary());
+            game.addWordPool(pool);
+            game.nextRound();
+            game.setPoolOwner(owner);
+            games.add(game);
+        }
+        inTransaction(() -> { repository.saveAll(games); return null; });
+        var handedOut = games.get(0);
+        var leftover = games.get(1);
+        var otherPool = games.get(2);
+
+        assertTrue(inTransaction(() -> repository.getSummaries(null, 10)).isEmpty(), "The pooled games were listed!");
+        assertTrue(inTransaction(() -> repository.get(handedOut.getId())).isEmpty(), "A pooled game was loaded!");
+
+        handedOut.setPoolOwner(null);
+        inTransaction(() -> { repository.releasePooled(List.of(handedOut)); return null; });
+        assertEquals(1, inTransaction(() -> repository.getSummaries(null, 10)).size(), "The game was not listed!");
+        assertTrue(inTransaction(() -> repository.get(handedOut.getId())).isPresent(), "The game was not loaded!");
+        assertDoesNotThrow(() -> handedOut.tryLetter(handedOut.getCurrentWord().substring(0, 1)), "An exception has occurred:");
+        assertDoesNotThrow(() -> inTransaction(() -> { repository.update(handedOut); return null; }),
+                           "The release conflicts with the update of the player:");
+
+        assertEquals(1, inTransaction(() -> repository.deletePooled("instance-a")), "Wrong number of deleted games!");
+        assertTrue(inTransaction(() -> repository.get(handedOut.getId())).isPresent(), "A handed out game was deleted!");
+        assertNull(inTransaction(() -> sessionFactory.getCurrentSession().get(HangmanGame.class, leftover.getId())),
+                   "The pooled game was not deleted!");
+        assertNotNull(inTransaction(() -> sessionFactory.getCurrentSession().get(HangmanGame.class, otherPool.getId())),
+                      "The pooled game of another instance was deleted!");
+    }
+
+    private HangmanGame saveGame() {
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(wordPoolRepository.intern(WordPool.of(HangmanDictionary.DEFAULT_WORDS)));
+        game.nextRound();
+        repository.save(game);
+        return game;
+    }
+}
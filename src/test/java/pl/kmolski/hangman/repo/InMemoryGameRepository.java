@@ -0,0 +1,106 @@
+package pl.kmolski.hangman.repo;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.GameSaveSummary;
+import pl.kmolski.hangman.model.HangmanGame;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory stand-in for the HangmanGameRepository class.
+ *
+ * This class keeps the saved games in memory instead of the application database,
+ * so that the services can be tested and benchmarked without a database server.
+ * Saved games get consecutive identifiers, like in the database.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.0
+ */
+public class InMemoryGameRepository extends HangmanGameRepository {
+    /**
+     * The saved games. Unsaved games have no identifiers, so they are compared by identity.
+     */
+    private final Set<HangmanGame> games = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    /**
+     * The identifier of the next saved game.
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @Override
+    public void save(HangmanGame model) {
+        if (model.getId() == null) {
+            ReflectionTestUtils.setField(model, "id", nextId.getAndIncrement());
+        }
+        games.add(model);
+    }
+
+    @Override
+    public void saveAll(List<HangmanGame> models) {
+        models.forEach(this::save);
+    }
+
+    @Override
+    public void update(HangmanGame model) {
+        games.add(model);
+    }
+
+    @Override
+    public Optional<HangmanGame> get(Long id) {
+        synchronized (games) {
+            return games.stream().filter(game -> id.equals(game.getId()) && !game.isPooled()).findFirst();
+        }
+    }
+
+    @Override
+    public List<GameSaveSummary> getSummaries(Long afterId, int limit) {
+        long after = (afterId != null) ? afterId : Long.MIN_VALUE;
+        synchronized (games) {
+            return games.stream()
+                        .filter(game -> game.getId() != null && game.getId() > after && !game.isPooled())
+                        .sorted(Comparator.comparing(HangmanGame::getId))
+                        .limit(limit)
+                        .map(game -> new GameSaveSummary(game.getId(), game.getCurrentWord(), game.getTriedLetters(),
+                                game.getMisses(), game.getWordsGuessed(), game.getWordsGuessed() + game.getWordsRemaining()))
+                        .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public void delete(HangmanGame model) {
+        games.remove(model);
+    }
+
+    @Override
+    public void deleteAll(List<HangmanGame> models) {
+        models.forEach(this::delete);
+    }
+
+    @Override
+    public void releasePooled(List<HangmanGame> models) {
+        // The saved games are the handed out instances, which are no longer pooled.
+    }
+
+    @Override
+    public int deletePooled(String poolOwner) {
+        synchronized (games) {
+            int size = games.size();
+            games.removeIf(game -> poolOwner.equals(game.getPoolOwner()));
+            return size - games.size();
+        }
+    }
+
+    /**
+     * Get the number of saved games.
+     * @return The number of games.
+     */
+    public int size() {
+        return games.size();
+    }
+}
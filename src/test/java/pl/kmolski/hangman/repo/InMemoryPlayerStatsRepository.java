@@ -0,0 +1,65 @@
+package pl.kmolski.hangman.repo;
+
+import pl.kmolski.hangman.model.PlayerStats;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory stand-in for the PlayerStatsRepository class.
+ *
+ * This class keeps the player statistics in memory instead of the application database.
+ * The stored statistics are copies, so they are not changed by the callers.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class InMemoryPlayerStatsRepository extends PlayerStatsRepository {
+    /**
+     * The stored statistics, keyed by the player identifiers.
+     */
+    private final Map<String, PlayerStats> stats = new HashMap<>();
+    /**
+     * Number of calls of `addAll()`.
+     */
+    private int batchCount = 0;
+
+    private static PlayerStats copy(PlayerStats stats) {
+        var copy = new PlayerStats(stats.getPlayerId(), 0, 0, 0, 0);
+        copy.add(stats);
+        return copy;
+    }
+
+    @Override
+    public synchronized void addAll(Collection<PlayerStats> changes) {
+        ++batchCount;
+        for (var change : changes) {
+            stats.computeIfAbsent(change.getPlayerId(), id -> new PlayerStats(id, 0, 0, 0, 0)).add(change);
+        }
+    }
+
+    @Override
+    public synchronized Optional<PlayerStats> get(String playerId) {
+        return Optional.ofNullable(stats.get(playerId)).map(InMemoryPlayerStatsRepository::copy);
+    }
+
+    @Override
+    public synchronized List<PlayerStats> getTopPlayers(int limit) {
+        return stats.values().stream()
+                    .sorted(Comparator.comparingLong(PlayerStats::getWins).reversed()
+                                      .thenComparingLong(PlayerStats::getLosses)
+                                      .thenComparing(PlayerStats::getPlayerId))
+                    .limit(limit)
+                    .map(InMemoryPlayerStatsRepository::copy)
+                    .collect(Collectors.toList());
+    }
+
+    public synchronized int getBatchCount() {
+        return batchCount;
+    }
+}
@@ -0,0 +1,25 @@
+package pl.kmolski.hangman.repo;
+
+import pl.kmolski.hangman.model.WordPool;
+
+/**
+ * In-memory stand-in for the WordPoolRepository class.
+ *
+ * This class interns word pools without storing them in the application database.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class InMemoryWordPoolRepository extends WordPoolRepository {
+
+    @Override
+    public WordPool intern(WordPool pool) {
+        var cached = findCanonical(pool.getId());
+        return (cached != null) ? cached : putCanonical(pool);
+    }
+
+    @Override
+    public WordPool get(String id) {
+        return findCanonical(id);
+    }
+}
@@ -0,0 +1,94 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.model.PlayerStats;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the PlayerStatsRepository class.
+ *
+ * This class uses an in-memory H2 database with the settings of the application.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class PlayerStatsRepositoryTest {
+    private SessionFactory sessionFactory;
+    private PlayerStatsRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        var configuration = new Configuration();
+        configuration.addProperties(new HangmanConfig().hibernateProperties());
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:player-stats-test;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(PlayerStats.class);
+
+        sessionFactory = configuration.buildSessionFactory();
+        repository = new PlayerStatsRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        var result = action.get();
+        transaction.commit();
+        return result;
+    }
+
+    private void addAll(PlayerStats... changes) {
+        inTransaction(() -> { repository.addAll(List.of(changes)); return null; });
+    }
+
+    /**
+     * Verify that a batch of changes inserts the statistics of new players and updates the existing ones.
+     */
+    @Test
+    void testAddAll() {
+        addAll(new PlayerStats("alice", 1, 0, 3, 1));
+        addAll(new PlayerStats("alice", 0, 1, 2, 6), new PlayerStats("bob", 1, 0, 4, 0));
+
+        var alice = inTransaction(() -> repository.get("alice")).orElseThrow();
+        assertEquals(1, alice.getWins(), "Wrong win count!");
+        assertEquals(1, alice.getLosses(), "Wrong loss count!");
+        assertEquals(5, alice.getCorrectGuesses(), "Wrong correct guess count!");
+        assertEquals(7, alice.getWrongGuesses(), "Wrong wrong guess count!");
+        assertTrue(inTransaction(() -> repository.get("bob")).isPresent(), "The new player was not inserted!");
+        assertTrue(inTransaction(() -> repository.get("carol")).isEmpty(), "An unknown player was found!");
+    }
+
+    /**
+     * Verify that the best players are ordered by their wins, and then by their losses.
+     */
+    @Test
+    void testGetTopPlayers() {
+        addAll(new PlayerStats("alice", 2, 3, 0, 0),
+               new PlayerStats("bob", 5, 0, 0, 0),
+               new PlayerStats("carol", 2, 1, 0, 0),
+               new PlayerStats("dave", 0, 0, 1, 0));
+
+        var top = inTransaction(() -> repository.getTopPlayers(3)).stream()
+                                                                  .map(PlayerStats::getPlayerId)
+                                                                  .collect(Collectors.toList());
+        assertEquals(List.of("bob", "carol", "alice"), top, "Wrong order of the best players!");
+    }
+}
@@ -0,0 +1,132 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.PlayerStats;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the schema migration scripts in `src/main/resources/db/migration`.
+ *
+ * This class applies the scripts to an in-memory H2 database in the MySQL compatibility mode,
+ * and validates the resulting schema against the entities with the MariaDB dialect, like the application does at startup.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class SchemaMigrationTest {
+    private static final String URL = "jdbc:h2:mem:migration-test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (sessionFactory != null) { sessionFactory.close(); }
+        connection.createStatement().execute("drop all objects");
+        connection.close();
+    }
+
+    private static List<Resource> migrations() throws IOException {
+        var scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+        Arrays.sort(scripts, Comparator.comparingInt(SchemaMigrationTest::migrationVersion));
+        return List.of(scripts);
+    }
+
+    private static int migrationVersion(Resource script) {
+        var name = script.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private void validateSchema() {
+        var configuration = new Configuration();
+        configuration.addProperties(new HangmanConfig().hibernateProperties());
+        configuration.setProperty("hibernate.connection.url", URL);
+        configuration.setProperty("hibernate.hbm2ddl.auto", "validate");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+        configuration.addAnnotatedClass(PlayerStats.class);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    /**
+     * Verify that the scripts are numbered without gaps and create the schema of the entities.
+     */
+    @Test
+    void testMigrationsCreateSchema() throws IOException {
+        var scripts = migrations();
+        for (int i = 0; i < scripts.size(); ++i) {
+            assertEquals(i + 1, migrationVersion(scripts.get(i)), "Missing migration script!");
+            ScriptUtils.executeSqlScript(connection, scripts.get(i));
+        }
+        assertDoesNotThrow(this::validateSchema, "The migrated schema does not match the entities:");
+    }
+
+    /**
+     * Verify that the words of a game saved before the word pools are migrated to a word pool,
+     * and that the game can be loaded and played after the migration.
+     */
+    @Test
+    void testLegacyGameMigrated() throws IOException, SQLException {
+        var scripts = migrations();
+        ScriptUtils.executeSqlScript(connection, scripts.get(0));
+        var statement = connection.createStatement();
+        statement.execute("insert into dictionary_saves (dict_id, wordCount) values (7, 6)");
+        statement.execute("insert into HangmanDictionary_words values (7, 'gamma'), (7, 'alpha'), (7, 'beta')");
+        statement.execute("insert into game_saves values (7, 'delta', 'de', 0, 2)");
+        for (var script : scripts.subList(1, scripts.size())) {
+            ScriptUtils.executeSqlScript(connection, script);
+        }
+        validateSchema();
+
+        var repository = new HangmanGameRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        var game = repository.get(7L).orElseThrow();
+        transaction.commit();
+
+        assertEquals("delta", game.getCurrentWord(), "Wrong current word!");
+        assertEquals("de", game.getTriedLetters(), "Wrong guessed letters!");
+        assertEquals(4, game.getWordsRemaining(), "Wrong number of remaining words!");
+        HangmanDictionary dictionary = ReflectionTestUtils.invokeMethod(game, "getDictionary");
+        dictionary.internWordPools(pool -> {
+            assertEquals(64, pool.getId().length(), "Invalid word pool ID!");
+            return pool;
+        });
+        Set<String> taken = new HashSet<>();
+        while (!dictionary.isEmpty()) {
+            taken.add(dictionary.takeWord());
+        }
+        assertEquals(Set.of("alpha", "beta", "gamma"), taken, "Wrong remaining words!");
+    }
+}
@@ -0,0 +1,125 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+import pl.kmolski.hangman.service.HangmanGameService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the WordPoolRepository class.
+ *
+ * This class measures how many word rows per second are written when a 100k word file is stored
+ * as word pools, with and without JDBC batching. By default, the words are stored in an in-memory
+ * H2 database, which has no network round-trips. Another database can be selected with the
+ * `benchmark.jdbc.url`, `benchmark.jdbc.user`, `benchmark.jdbc.password` and `benchmark.dialect`
+ * system properties of the forked JVM (e.g. `-jvmArgsAppend -Dbenchmark.jdbc.url=...`).
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@OperationsPerInvocation(WordPoolRepositoryBenchmark.UPLOAD_SIZE)
+public class WordPoolRepositoryBenchmark {
+    /**
+     * The number of words in a single upload.
+     */
+    static final int UPLOAD_SIZE = 100_000;
+
+    /**
+     * The JDBC batch size, 1 disables batching.
+     */
+    @Param({"1", "" + HangmanConfig.JDBC_BATCH_SIZE})
+    private int batchSize;
+
+    /**
+     * The session factory of the in-memory database.
+     */
+    private SessionFactory sessionFactory;
+    /**
+     * The repository that is used during the benchmark.
+     */
+    private WordPoolRepository repository;
+    /**
+     * The batches of words that are stored by the next invocation.
+     */
+    private List<List<String>> batches;
+    /**
+     * The number of uploads so far, used to make the words of every upload unique.
+     */
+    private int uploadCount = 0;
+
+    /**
+     * Sets up the in-memory database and the repository before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        var configuration = new Configuration();
+        configuration.addProperties(new HangmanConfig().hibernateProperties());
+        configuration.setProperty("hibernate.connection.url",
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:hangman;DB_CLOSE_DELAY=-1"));
+        configuration.setProperty("hibernate.connection.username", System.getProperty("benchmark.jdbc.user", "sa"));
+        configuration.setProperty("hibernate.connection.password", System.getProperty("benchmark.jdbc.password", ""));
+        configuration.setProperty("hibernate.dialect",
+                System.getProperty("benchmark.dialect", "org.hibernate.dialect.H2Dialect"));
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.setProperty("hibernate.jdbc.batch_size", Integer.toString(batchSize));
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+
+        sessionFactory = configuration.buildSessionFactory();
+        repository = new WordPoolRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+    }
+
+    /**
+     * Closes the in-memory database after each trial.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * Generates the words of the next upload, split like the batches of an uploaded word file.
+     */
+    @Setup(Level.Invocation)
+    public void setUpUpload() {
+        ++uploadCount;
+        batches = new ArrayList<>();
+        for (int start = 0; start < UPLOAD_SIZE; start += HangmanGameService.INGESTION_BATCH_SIZE) {
+            var batch = new ArrayList<String>();
+            for (int i = start; i < Math.min(start + HangmanGameService.INGESTION_BATCH_SIZE, UPLOAD_SIZE); ++i) {
+                batch.add("słowo" + uploadCount + "-" + i);
+            }
+            batches.add(batch);
+        }
+    }
+
+    @Benchmark
+    public int storeUpload() {
+        int size = 0;
+        for (var batch : batches) {
+            var transaction = sessionFactory.getCurrentSession().beginTransaction();
+            size += repository.intern(WordPool.of(batch)).size();
+            transaction.commit();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,188 @@
+package pl.kmolski.hangman.repo;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.config.HangmanConfig;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.MappedWordList;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the WordPoolRepository class.
+ *
+ * This class uses an in-memory H2 database with the settings of the application.
+ *
+ * @author Krzysztof Molski
+ * @version 1.1.0
+ */
+public class WordPoolRepositoryTest {
+    private static final int THREADS = 4;
+    private static final int POOLS = 20;
+
+    private SessionFactory sessionFactory;
+
+    /**
+     * The directory of the index files.
+     */
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        var configuration = new Configuration();
+        configuration.addProperties(new HangmanConfig().hibernateProperties());
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:word-pool-test;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.current_session_context_class", "thread");
+        configuration.addAnnotatedClass(HangmanGame.class);
+        configuration.addAnnotatedClass(HangmanDictionary.class);
+        configuration.addAnnotatedClass(WordPool.class);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        var transaction = sessionFactory.getCurrentSession().beginTransaction();
+        try {
+            var result = action.get();
+            transaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            transaction.rollback();
+            throw e;
+        }
+    }
+
+    private WordPoolRepository newRepository() {
+        var repository = new WordPoolRepository();
+        ReflectionTestUtils.invokeMethod(repository, "setSessionFactory", sessionFactory);
+        return repository;
+    }
+
+    private WordPool mapWords(String fileName, List<String> words) throws IOException {
+        try (var writer = new MappedWordList.Writer(directory.resolve(fileName))) {
+            for (var word : words) { writer.add(word); }
+            return WordPool.ofMapped(writer.finish(0, 0));
+        }
+    }
+
+    /**
+     * Verify that a game that uses a mapped pool can be loaded and played to the end after a restart
+     * with a different source file of the mapped pool, because the mapped words were stored in the database.
+     */
+    @Test
+    void testMappedPoolOutlivesSource() throws IOException {
+        var words = List.of("pałac", "polowanie", "ogród", "zamek");
+        var repository = newRepository();
+        var mapped = mapWords("old.idx", words);
+        repository.addMapped(mapped);
+        var gameRepository = new HangmanGameRepository();
+        ReflectionTestUtils.invokeMethod(gameRepository, "setSessionFactory", sessionFactory);
+
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(inTransaction(() -> repository.intern(mapped)));
+        game.nextRound();
+        inTransaction(() -> { gameRepository.save(game); return null; });
+        sessionFactory.getCache().evictAllRegions();
+
+        var restarted = newRepository();
+        restarted.addMapped(mapWords("new.idx", List.of("ratusz")));
+        var loaded = inTransaction(() -> {
+            var model = gameRepository.get(game.getId()).orElseThrow();
+            model.internWordPools(restarted::intern);
+            return model;
+        });
+
+        assertTrue(loaded.hasAllWords(), "The words of the mapped pool were not stored!");
+        Set<String> taken = new HashSet<>(Set.of(loaded.getCurrentWord()));
+        while (!loaded.isGameOver()) {
+            loaded.nextRound();
+            if (!loaded.isGameOver()) { taken.add(loaded.getCurrentWord()); }
+        }
+        assertEquals(Set.copyOf(words), taken, "Wrong words of the stored mapped pool!");
+    }
+
+    /**
+     * Verify that the empty placeholder of a mapped pool, stored by an earlier version, is completed
+     * with the words of the pool when the pool is interned.
+     */
+    @Test
+    void testMappedPlaceholderCompleted() throws IOException {
+        var mapped = mapWords("words.idx", List.of("pałac", "polowanie", "ogród"));
+        inTransaction(() -> { sessionFactory.getCurrentSession().persist(WordPool.placeholderOf(mapped)); return null; });
+        assertEquals(0, inTransaction(() -> newRepository().get(mapped.getId())).size(), "Wrong placeholder!");
+
+        var repository = newRepository();
+        repository.addMapped(mapped);
+        assertSame(mapped, inTransaction(() -> repository.intern(mapped)), "The mapped pool is not canonical!");
+
+        var stored = inTransaction(() -> newRepository().get(mapped.getId()));
+        assertEquals(mapped.getWords(), stored.getWords(), "The placeholder was not completed!");
+    }
+
+    /**
+     * Verify that the same words can be interned concurrently by different repositories (e.g. on different
+     * application instances), without failing on the primary key of the pool that is stored by the other thread.
+     */
+    @Test
+    void testConcurrentIntern() throws Exception {
+        var barrier = new CyclicBarrier(THREADS);
+        var tasks = new ArrayList<Callable<List<WordPool>>>();
+        for (int thread = 0; thread < THREADS; ++thread) {
+            var repository = newRepository();
+            tasks.add(() -> {
+                var interned = new ArrayList<WordPool>();
+                for (int i = 0; i < POOLS; ++i) {
+                    var pool = WordPool.of(List.of("pool" + i, "word" + i));
+                    barrier.await(10, TimeUnit.SECONDS);
+                    interned.add(inTransaction(() -> repository.intern(pool)));
+                }
+                return interned;
+            });
+        }
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (var result : executor.invokeAll(tasks)) {
+                var interned = result.get();
+                for (int i = 0; i < POOLS; ++i) {
+                    assertEquals(List.of("pool" + i, "word" + i), interned.get(i).getWords(), "Wrong interned pool!");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var repository = newRepository();
+        for (int i = 0; i < POOLS; ++i) {
+            var id = WordPool.of(List.of("pool" + i, "word" + i)).getId();
+            assertNotNull(inTransaction(() -> repository.get(id)), "The pool was not stored!");
+        }
+    }
+}
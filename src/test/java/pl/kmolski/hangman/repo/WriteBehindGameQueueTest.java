@@ -0,0 +1,181 @@
+package pl.kmolski.hangman.repo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+
+import javax.persistence.OptimisticLockException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WriteBehindGameQueue class.
+ *
+ * This class contains unit tests for coalescing game updates and flushing them to the repository.
+ *
+ * @author Krzysztof Molski
+ * @version 1.2.0
+ */
+public class WriteBehindGameQueueTest {
+
+    private static final class CountingGameRepository extends InMemoryGameRepository {
+        private final AtomicInteger updates = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private volatile boolean conflicting = false;
+
+        @Override
+        public void update(HangmanGame model) {
+            if (conflicting) {
+                throw new OptimisticLockException("game save was modified");
+            }
+            if (failures.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+                throw new IllegalStateException("database is unavailable");
+            }
+            updates.incrementAndGet();
+            super.update(model);
+        }
+    }
+
+    private static WriteBehindGameQueue createQueue(HangmanGameRepository repository, boolean enabled) {
+        var queue = new WriteBehindGameQueue();
+        ReflectionTestUtils.invokeMethod(queue, "setGameRepository", repository);
+        ReflectionTestUtils.invokeMethod(queue, "setGameLocks", new GameLocks(16));
+        ReflectionTestUtils.setField(queue, "enabled", enabled);
+        return queue;
+    }
+
+    private static HangmanGame createGame(long id) {
+        var dictionary = new HangmanDictionary();
+        dictionary.addWords(List.of("koło", "drzwi", "pole"));
+        var game = new HangmanGame(dictionary);
+        game.nextRound();
+        ReflectionTestUtils.setField(game, "id", id);
+        return game;
+    }
+
+    /**
+     * Verify that all updates of a game between flushes are coalesced into a single write.
+     * @param updateCount The number of updates before the flush.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10})
+    void testCoalescing(int updateCount) {
+        var repository = new CountingGameRepository();
+        var queue = createQueue(repository, true);
+        var game = createGame(1);
+
+        for (int i = 0; i < updateCount; ++i) {
+            queue.update(game);
+        }
+        assertEquals(0, repository.updates.get(), "The update was not written behind!");
+        assertEquals(1, queue.getQueueDepth(), "Wrong queue depth!");
+        assertSame(game, queue.findPending(1L).orElseThrow(), "The pending game was not found!");
+        assertEquals(updateCount - 1, queue.getCoalescedUpdates(), "Wrong coalesced update count!");
+
+        queue.flush();
+        assertEquals(1, repository.updates.get(), "The updates were not coalesced!");
+        assertEquals(0, queue.getQueueDepth(), "The queue was not drained!");
+        assertEquals(1, queue.getFlushedGames(), "Wrong flushed game count!");
+    }
+
+    /**
+     * Verify that updates are written immediately when the write-behind mode is disabled,
+     * and that deletes cancel pending updates when it is enabled.
+     * @param enabled Whether the write-behind mode is enabled.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testDeleteCancelsUpdate(boolean enabled) {
+        var repository = new CountingGameRepository();
+        var queue = createQueue(repository, enabled);
+        var game = createGame(1);
+
+        queue.update(game);
+        assertEquals(enabled ? 0 : 1, repository.updates.get(), "Wrong number of immediate writes!");
+
+        queue.delete(game);
+        queue.flush();
+        assertEquals(enabled ? 0 : 1, repository.updates.get(), "The update of a deleted game was written!");
+        assertTrue(queue.findPending(1L).isEmpty(), "The deleted game is still pending!");
+        assertTrue(repository.get(1L).isEmpty(), "The game was not deleted!");
+    }
+
+    /**
+     * Verify that an update which could not be written stays pending, and is written by a later flush.
+     * @param failureCount The number of failed writes before the database is available again.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void testFailedWriteRetried(int failureCount) {
+        var repository = new CountingGameRepository();
+        var queue = createQueue(repository, true);
+        var game = createGame(1);
+        repository.failures.set(failureCount);
+
+        queue.update(game);
+        for (int i = 1; i <= failureCount; ++i) {
+            queue.flush();
+            assertEquals(i, queue.getFailedWrites(), "Wrong failed write count!");
+            assertSame(game, queue.findPending(1L).orElseThrow(), "The failed update was dropped!");
+        }
+
+        queue.flush();
+        assertEquals(1, repository.updates.get(), "The failed update was not retried!");
+        assertEquals(0, queue.getQueueDepth(), "The queue was not drained!");
+        assertSame(game, repository.get(1L).orElseThrow(), "The update was not written!");
+    }
+
+    /**
+     * Verify that an update of a save that was modified by someone else is discarded by the first flush,
+     * and the discard listeners are notified, instead of retrying it with every flush.
+     */
+    @Test
+    void testConflictingWriteDiscarded() {
+        var repository = new CountingGameRepository();
+        var queue = createQueue(repository, true);
+        var discarded = new ArrayList<Long>();
+        queue.addDiscardListener(discarded::add);
+        repository.conflicting = true;
+
+        queue.update(createGame(1));
+        queue.flush();
+        assertEquals(List.of(1L), discarded, "The discard listeners were not notified!");
+        assertTrue(queue.findPending(1L).isEmpty(), "The conflicting update is still pending!");
+        assertEquals(1, queue.getDiscardedUpdates(), "Wrong discarded update count!");
+        assertEquals(0, queue.getFailedWrites(), "The conflict was counted as a failed write!");
+
+        queue.flush();
+        assertEquals(List.of(1L), discarded, "The conflicting update was retried!");
+    }
+
+    /**
+     * Verify that an update which keeps failing is discarded after the maximum number of attempts.
+     */
+    @Test
+    void testFailedWriteDiscarded() {
+        var repository = new CountingGameRepository();
+        var queue = createQueue(repository, true);
+        var discarded = new ArrayList<Long>();
+        queue.addDiscardListener(discarded::add);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        repository.failures.set(Integer.MAX_VALUE);
+
+        queue.update(createGame(1));
+        for (int i = 0; i < 2; ++i) {
+            queue.flush();
+        }
+        assertTrue(queue.findPending(1L).isPresent(), "The update was discarded too early!");
+        queue.flush();
+        assertEquals(List.of(1L), discarded, "The failed update was not discarded!");
+        assertEquals(3, queue.getFailedWrites(), "Wrong failed write count!");
+        assertEquals(0, queue.getQueueDepth(), "The queue was not drained!");
+    }
+}
@@ -0,0 +1,60 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FileGameStateStore class.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class FileGameStateStoreTest {
+    /**
+     * The directory of the game state files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Verify that stored games can be loaded and removed, and unreadable files are discarded.
+     * @param id Game save ID.
+     */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 42, Long.MAX_VALUE})
+    void testSaveLoadRemove(long id) throws IOException {
+        var pool = WordPool.of(HangmanDictionary.DEFAULT_WORDS);
+        var store = new FileGameStateStore(directory, poolId -> poolId.equals(pool.getId()) ? pool : null);
+
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(pool);
+        game.nextRound();
+        ReflectionTestUtils.setField(game, "id", id);
+
+        assertTrue(store.load(id).isEmpty(), "The game was loaded before it was saved!");
+        store.save(game);
+        var loaded = store.load(id).orElseThrow();
+        assertEquals(game.getId(), loaded.getId(), "Wrong game ID!");
+        assertEquals(game.getCurrentWord(), loaded.getCurrentWord(), "Wrong current word!");
+
+        store.remove(id);
+        assertTrue(store.load(id).isEmpty(), "The game was not removed!");
+
+        Files.write(directory.resolve(id + ".game"), new byte[] {42});
+        assertTrue(store.load(id).isEmpty(), "An unreadable game state was loaded!");
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count(), "The directory contains leftover files!");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.Difficulty;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.repo.InMemoryGameRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GamePool class.
+ *
+ * This class contains unit tests for refilling the pool in batches, handing out
+ * the pooled games to new players and deleting the unused games.
+ *
+ * @author Krzysztof Molski
+ * @version 1.3.1
+ */
+public class GamePoolTest {
+    private final AtomicInteger updates = new AtomicInteger();
+    private final List<Long> released = new CopyOnWriteArrayList<>();
+    private final InMemoryGameRepository gameRepository = new InMemoryGameRepository() {
+        @Override
+        public void update(HangmanGame model) {
+            updates.incrementAndGet();
+            super.update(model);
+        }
+
+        @Override
+        public void releasePooled(List<HangmanGame> models) {
+            models.forEach(model -> released.add(model.getId()));
+        }
+    };
+    private final GamePool gamePool = new GamePool();
+    private HangmanGameService gameService;
+
+    /**
+     * Sets up a pool of 5 games, refilled by at most 2 games at once. The refills are run by the tests.
+     */
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gamePool, "size", 5);
+        ReflectionTestUtils.setField(gamePool, "batchSize", 2);
+        ReflectionTestUtils.setField(gamePool, "owner", "instance-a");
+        // A large interval, so that only the first scheduled refill may run during a test.
+        ReflectionTestUtils.setField(gamePool, "refillIntervalMs", 3_600_000L);
+        gameService = GameServiceFixture.gameService().gameRepository(gameRepository).gamePool(gamePool).build();
+    }
+
+    /**
+     * Stops the refills after each unit test.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        gamePool.destroy();
+    }
+
+    private void awaitFirstRefill() {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (gamePool.getRefillCount() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, gamePool.getRefillCount(), "The first refill was not run!");
+    }
+
+    /**
+     * Verify that every refill saves at most one batch of games, until the pool is full.
+     */
+    @Test
+    void testRefill() {
+        awaitFirstRefill();
+        assertEquals(2, gamePool.getAvailable(), "The first refill has saved a wrong number of games!");
+
+        gamePool.refill();
+        gamePool.refill();
+        assertEquals(5, gamePool.getAvailable(), "The pool was not filled!");
+        gamePool.refill();
+        assertEquals(5, gamePool.getAvailable(), "The pool was filled beyond its size!");
+        assertEquals(5, gamePool.getCreated(), "Wrong number of created games!");
+        assertEquals(5, gameRepository.size(), "The pooled games were not saved!");
+        assertTrue(gameService.getGameSavePage(null, 10).isEmpty(), "The pooled games were listed!");
+    }
+
+    /**
+     * Verify that the new games that use words of any difficulty are taken from the pool,
+     * and that the other games, and the games requested while the pool is empty, are created.
+     * @param difficulty The difficulty band of the new games.
+     * @param pooled Whether the games should be taken from the pool.
+     */
+    @ParameterizedTest
+    @CsvSource({"ANY, true", "EASY, false"})
+    void testHandOut(Difficulty difficulty, boolean pooled) {
+        awaitFirstRefill();
+        gamePool.refill();
+        gamePool.refill();
+
+        var ids = new HashSet<Long>();
+        for (int i = 0; i < 7; ++i) {
+            HangmanGame game = gameService.createAndSaveGameModel(difficulty);
+            assertNotNull(game.getId(), "The new game was not saved!");
+            assertTrue(ids.add(game.getId()), "A game was handed out twice!");
+            assertEquals(difficulty, game.getDifficulty(), "Wrong difficulty of the new game!");
+            assertFalse(gameService.getGameState(game.getId()).isGameOver(), "The new game can not be played!");
+            assertTrue(gameRepository.get(game.getId()).isPresent(), "The save of the new game can not be loaded!");
+        }
+
+        assertEquals(pooled ? 5 : 0, gamePool.getHandedOut(), "Wrong number of pooled games!");
+        assertEquals(pooled ? 2 : 0, gamePool.getMisses(), "Wrong number of misses!");
+        assertEquals(pooled ? 0 : 5, gamePool.getAvailable(), "Wrong number of remaining pooled games!");
+        assertEquals(pooled ? 7 : 12, gameRepository.size(), "Wrong number of saved games!");
+        assertEquals(7, gameService.getGameSavePage(null, 20).size(), "Wrong number of listed games!");
+    }
+
+    /**
+     * Verify that the games left in the pool by a previous run of the instance are deleted, and that
+     * the other games, including the game in the pool of another instance, are kept.
+     */
+    @Test
+    void testDeleteLeftovers() {
+        awaitFirstRefill();
+        var game = gameService.createAndSaveGameModel(Difficulty.EASY);
+        var otherPooled = new HangmanGame(new HangmanDictionary());
+        otherPooled.setPoolOwner("instance-b");
+        gameRepository.save(otherPooled);
+
+        gamePool.deleteLeftovers();
+        assertEquals(2, gameRepository.size(), "Wrong number of remaining games!");
+        assertTrue(gameRepository.get(game.getId()).isPresent(), "A game that is not pooled was deleted!");
+    }
+
+    /**
+     * Verify that handing out a game does not access the database, and that the save of the game
+     * is released by the next refill.
+     */
+    @Test
+    void testRelease() {
+        awaitFirstRefill();
+        var game = gamePool.take().orElseThrow();
+        assertFalse(game.isPooled(), "The handed out game is still pooled!");
+        assertEquals(0, updates.get(), "The game was saved on hand out!");
+        assertTrue(released.isEmpty(), "The game was released on hand out!");
+
+        gamePool.refill();
+        assertEquals(List.of(game.getId()), released, "The handed out game was not released!");
+        gamePool.refill();
+        assertEquals(List.of(game.getId()), released, "The handed out game was released twice!");
+    }
+
+    /**
+     * Verify that the games that are left in the pool are deleted on shutdown.
+     */
+    @Test
+    void testDestroy() throws Exception {
+        awaitFirstRefill();
+        var game = gameService.createAndSaveGameModel();
+
+        gamePool.destroy();
+        assertEquals(0, gamePool.getAvailable(), "The pool was not drained!");
+        assertEquals(1, gameRepository.size(), "The unused games were not deleted!");
+        assertTrue(gameRepository.get(game.getId()).isPresent(), "A game that was handed out was deleted!");
+    }
+}
@@ -0,0 +1,145 @@
+package pl.kmolski.hangman.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.repo.GameEventLog;
+import pl.kmolski.hangman.repo.GameLocks;
+import pl.kmolski.hangman.repo.HangmanGameRepository;
+import pl.kmolski.hangman.repo.InMemoryGameRepository;
+import pl.kmolski.hangman.repo.InMemoryWordPoolRepository;
+import pl.kmolski.hangman.repo.PlayerStatsRepository;
+import pl.kmolski.hangman.repo.WordPoolRepository;
+import pl.kmolski.hangman.repo.WriteBehindGameQueue;
+
+/**
+ * Test fixture that wires the HangmanGameService and the PlayerStatsService with in-memory repositories.
+ *
+ * @author Krzysztof Molski
+ * @version 1.4.0
+ */
+public final class GameServiceFixture {
+
+    private GameServiceFixture() { }
+
+    /**
+     * Create a game service that uses in-memory stand-ins instead of the database.
+     * @return The game service.
+     */
+    public static HangmanGameService createGameService() {
+        return gameService().build();
+    }
+
+    /**
+     * Start building a game service. The dependencies that are not given are replaced
+     * with in-memory stand-ins or default instances.
+     * @return The game service builder.
+     */
+    public static GameServiceBuilder gameService() {
+        return new GameServiceBuilder();
+    }
+
+    /**
+     * Builder of game services that are wired with in-memory repositories.
+     */
+    public static final class GameServiceBuilder {
+        private HangmanGameRepository gameRepository = new InMemoryGameRepository();
+        private WordPoolRepository wordPoolRepository = new InMemoryWordPoolRepository();
+        private GameLocks gameLocks = new GameLocks(64);
+        private GamePool gamePool = new GamePool();
+        private GameEventLog eventLog = new GameEventLog();
+        private SystemDictionary systemDictionary = new SystemDictionary();
+
+        private GameServiceBuilder() { }
+
+        /**
+         * @param gameRepository The game repository.
+         * @return This builder.
+         */
+        public GameServiceBuilder gameRepository(HangmanGameRepository gameRepository) {
+            this.gameRepository = gameRepository;
+            return this;
+        }
+
+        /**
+         * @param wordPoolRepository The word pool repository, which is also used by the event log.
+         * @return This builder.
+         */
+        public GameServiceBuilder wordPoolRepository(WordPoolRepository wordPoolRepository) {
+            this.wordPoolRepository = wordPoolRepository;
+            return this;
+        }
+
+        /**
+         * @param gameLocks The locks of the games.
+         * @return This builder.
+         */
+        public GameServiceBuilder gameLocks(GameLocks gameLocks) {
+            this.gameLocks = gameLocks;
+            return this;
+        }
+
+        /**
+         * @param gamePool The pool of new games, which is wired with the same game repository.
+         * @return This builder.
+         */
+        public GameServiceBuilder gamePool(GamePool gamePool) {
+            this.gamePool = gamePool;
+            return this;
+        }
+
+        /**
+         * @param eventLog The game event log, which is disabled unless it has been opened.
+         * @return This builder.
+         */
+        public GameServiceBuilder eventLog(GameEventLog eventLog) {
+            this.eventLog = eventLog;
+            return this;
+        }
+
+        /**
+         * @param systemDictionary The system dictionary, which has to use the same word pool repository.
+         * @return This builder.
+         */
+        public GameServiceBuilder systemDictionary(SystemDictionary systemDictionary) {
+            this.systemDictionary = systemDictionary;
+            return this;
+        }
+
+        /**
+         * Wire the game service and its dependencies.
+         * @return The game service.
+         */
+        public HangmanGameService build() {
+            var writeBehindQueue = new WriteBehindGameQueue();
+            ReflectionTestUtils.invokeMethod(writeBehindQueue, "setGameRepository", gameRepository);
+            ReflectionTestUtils.invokeMethod(writeBehindQueue, "setGameLocks", gameLocks);
+
+            ReflectionTestUtils.invokeMethod(gamePool, "setGameRepository", gameRepository);
+            ReflectionTestUtils.invokeMethod(eventLog, "setWordPoolRepository", wordPoolRepository);
+
+            var gameService = new HangmanGameService();
+            ReflectionTestUtils.invokeMethod(gameService, "setGameRepository", gameRepository);
+            ReflectionTestUtils.invokeMethod(gameService, "setWordPoolRepository", wordPoolRepository);
+            ReflectionTestUtils.invokeMethod(gameService, "setWriteBehindQueue", writeBehindQueue);
+            ReflectionTestUtils.invokeMethod(gameService, "setGameLocks", gameLocks);
+            ReflectionTestUtils.invokeMethod(gameService, "setEventLog", eventLog);
+            ReflectionTestUtils.invokeMethod(gameService, "setGameStateStore", new InMemoryGameStateStore(1000));
+            ReflectionTestUtils.invokeMethod(gameService, "setSystemDictionary", systemDictionary);
+            ReflectionTestUtils.invokeMethod(gameService, "setGamePool", gamePool);
+            ReflectionTestUtils.invokeMethod(gameService, "setMeterRegistry", new SimpleMeterRegistry());
+            gameService.afterPropertiesSet();
+            return gameService;
+        }
+    }
+
+    /**
+     * Create a player statistics service that uses the given repository. The periodic flushes are not started.
+     * @param playerStatsRepository The player statistics repository.
+     * @return The player statistics service.
+     */
+    public static PlayerStatsService createPlayerStatsService(PlayerStatsRepository playerStatsRepository) {
+        var playerStatsService = new PlayerStatsService();
+        ReflectionTestUtils.invokeMethod(playerStatsService, "setPlayerStatsRepository", playerStatsRepository);
+        return playerStatsService;
+    }
+}
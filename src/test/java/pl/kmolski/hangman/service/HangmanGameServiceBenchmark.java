@@ -0,0 +1,66 @@
+package pl.kmolski.hangman.service;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kmolski.hangman.model.InvalidGuessException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the HangmanGameService class.
+ *
+ * This class measures guessing letters through the service,
+ * using an in-memory stand-in for the game repository.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HangmanGameServiceBenchmark {
+    /**
+     * Letters that are tried in turn by the `submitGuess` benchmark.
+     */
+    private static final String[] LETTERS = {"a", "e", "o", "n", "s", "ł", "ń", "z", "k", "x", "q"};
+
+    /**
+     * The service that is used during the benchmark.
+     */
+    private HangmanGameService gameService;
+    /**
+     * The ID of the game that is currently played.
+     */
+    private Long gameId;
+    /**
+     * Whether the current game is over.
+     */
+    private boolean isGameOver;
+    /**
+     * Index of the next letter tried by the `submitGuess` benchmark.
+     */
+    private int letterIndex = 0;
+
+    /**
+     * Sets up the service with an in-memory repository before each trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameService = GameServiceFixture.createGameService();
+        gameId = gameService.createAndSaveGameModel().getId();
+    }
+
+    @Benchmark
+    public GameState submitGuess() throws InvalidGuessException {
+        if (isGameOver) {
+            gameId = gameService.createAndSaveGameModel().getId();
+        }
+
+        letterIndex = (letterIndex + 1) % LETTERS.length;
+        var gameState = gameService.submitGuess(gameId, LETTERS[letterIndex]);
+        isGameOver = gameState.isGameOver();
+        return gameState;
+    }
+}
@@ -0,0 +1,140 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.kmolski.hangman.model.HangmanDictionary;
+import pl.kmolski.hangman.model.HangmanGame;
+import pl.kmolski.hangman.model.WordPool;
+import pl.kmolski.hangman.repo.GameLocks;
+import pl.kmolski.hangman.repo.InMemoryGameRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for the HangmanGameService class.
+ *
+ * This class submits guesses for a single game from many threads at once,
+ * and verifies that no updates of the game are lost.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0.1
+ */
+public class HangmanGameServiceStressTest {
+    /**
+     * A word that contains every letter of the Polish alphabet once.
+     */
+    private static final String ALPHABET = "aąbcćdeęfghijklłmnńoóprsśtuwyzźż";
+
+    private final InMemoryGameRepository gameRepository = new InMemoryGameRepository();
+    private final GameLocks gameLocks = new GameLocks(64);
+    private final HangmanGameService gameService = GameServiceFixture.gameService()
+            .gameRepository(gameRepository).gameLocks(gameLocks).build();
+
+    private Long createGame(String word) {
+        var game = new HangmanGame(new HangmanDictionary());
+        game.addWordPool(WordPool.of(List.of(word)));
+        game.nextRound();
+        gameRepository.save(game);
+        return game.getId();
+    }
+
+    /**
+     * Submit every guess from every thread, each thread in its own random order.
+     * @return The outcomes of the guesses, and the number of guesses that found the game deleted.
+     */
+    private Map<GuessOutcome, List<GameState>> hammer(Long id, List<String> guesses, int threadCount,
+                                                      AtomicInteger notFoundCount) throws Exception {
+        var results = new ConcurrentHashMap<GuessOutcome, List<GameState>>();
+        var startGate = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threadCount; ++t) {
+                futures.add(executor.submit(() -> {
+                    var order = new ArrayList<>(guesses);
+                    Collections.shuffle(order);
+                    startGate.await();
+                    for (var guess : order) {
+                        try {
+                            var gameState = gameService.submitGuess(id, guess);
+                            results.computeIfAbsent(gameState.getOutcome(), outcome -> new CopyOnWriteArrayList<>())
+                                   .add(gameState);
+                        } catch (GameNotFoundException e) {
+                            notFoundCount.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            startGate.countDown();
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Verify that the word is guessed exactly once, when every letter is guessed from many threads.
+     * @param threadCount The number of threads.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 8, 32})
+    void testConcurrentCorrectGuesses(int threadCount) throws Exception {
+        var id = createGame(ALPHABET);
+        var guesses = new ArrayList<String>();
+        for (int i = 0; i < ALPHABET.length(); ++i) {
+            guesses.add(ALPHABET.substring(i, i + 1));
+        }
+
+        var notFoundCount = new AtomicInteger();
+        var results = hammer(id, guesses, threadCount, notFoundCount);
+
+        var won = results.getOrDefault(GuessOutcome.GAME_WON, List.of());
+        assertEquals(1, won.size(), "The game was not won exactly once!");
+        assertEquals(1, won.get(0).getWordsGuessed(), "The word was counted more than once!");
+        assertEquals(ALPHABET.length(), won.get(0).getGuessedLetters().replace(" ", "").length(),
+                     "Guessed letters were lost or duplicated!");
+        assertFalse(results.containsKey(GuessOutcome.WRONG), "A correct guess was counted as wrong!");
+
+        int guessCount = results.values().stream().mapToInt(List::size).sum() + notFoundCount.get();
+        assertEquals(threadCount * guesses.size(), guessCount, "Some guesses were not processed!");
+        assertTrue(gameRepository.get(id).isEmpty(), "The finished game was not deleted!");
+        assertTrue(gameLocks.getAcquisitions() >= guessCount, "The guesses did not acquire the game lock!");
+    }
+
+    /**
+     * Verify that the game is lost exactly once, after the maximum number of misses.
+     * @param threadCount The number of threads.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 8, 32})
+    void testConcurrentWrongGuesses(int threadCount) throws Exception {
+        var id = createGame("żółw");
+        var guesses = new ArrayList<String>();
+        for (char letter = 'a'; letter <= 'k'; ++letter) {
+            guesses.add(String.valueOf(letter));
+        }
+
+        var notFoundCount = new AtomicInteger();
+        var results = hammer(id, guesses, threadCount, notFoundCount);
+
+        var lost = results.getOrDefault(GuessOutcome.GAME_LOST, List.of());
+        assertEquals(1, lost.size(), "The game was not lost exactly once!");
+        assertEquals(HangmanGame.MAX_MISSES, lost.get(0).getMisses(), "Misses were lost!");
+        assertEquals(HangmanGame.MAX_MISSES - 1, results.getOrDefault(GuessOutcome.WRONG, List.of()).size(),
+                     "Wrong guesses were lost or duplicated!");
+        assertEquals(threadCount * guesses.size() - HangmanGame.MAX_MISSES, notFoundCount.get(),
+                     "Guesses were processed after the game was over!");
+    }
+}
@@ -0,0 +1,80 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import pl.kmolski.hangman.repo.InMemoryGameRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HangmanGameService class.
+ *
+ * This class contains unit tests for the game operations, which are run
+ * with in-memory stand-ins for the repositories.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0.1
+ */
+public class HangmanGameServiceTest {
+    private final InMemoryGameRepository gameRepository = new InMemoryGameRepository();
+    private final HangmanGameService gameService = GameServiceFixture.gameService()
+            .gameRepository(gameRepository).build();
+
+    /**
+     * Verify that the words of a word file that can not be read to the end are not added to the game,
+     * even if some of its batches have been read.
+     */
+    @Test
+    void testFailedUploadLeavesGameUnchanged() {
+        var id = gameService.createAndSaveGameModel().getId();
+        var before = gameService.getGameState(id);
+
+        var words = new StringBuilder();
+        for (int i = 0; i < 2 * HangmanGameService.INGESTION_BATCH_SIZE; ++i) {
+            words.append("word").append(i).append('\n');
+        }
+        var content = words.toString().getBytes(StandardCharsets.UTF_8);
+        var wordFile = new MockMultipartFile("wordFile", content) {
+            @Override
+            public InputStream getInputStream() {
+                return new SequenceInputStream(new ByteArrayInputStream(content), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+            }
+        };
+
+        assertThrows(IOException.class, () -> gameService.addWords(id, wordFile), "The failure was not reported!");
+        var after = gameService.getGameState(id);
+        assertEquals(before.getWordsRemaining(), after.getWordsRemaining(), "The words of a failed upload were added!");
+        assertEquals(before.getRevision(), after.getRevision(), "The game was modified by a failed upload!");
+        assertEquals(before.getWordsRemaining(), gameRepository.get(id).orElseThrow().getWordsRemaining(),
+                     "The words of a failed upload were saved!");
+    }
+
+    /**
+     * Verify that skipping the last word of the dictionary ends the game and deletes its save.
+     */
+    @Test
+    void testSkipLastWord() {
+        var id = gameService.createAndSaveGameModel().getId();
+
+        var state = gameService.getGameState(id);
+        int wordCount = state.getWordsRemaining();
+        for (int i = 0; i < wordCount; ++i) {
+            assertFalse(state.isGameOver(), "The game is over before all words were skipped!");
+            state = gameService.skipWord(id);
+        }
+        assertTrue(state.isGameOver(), "The game is not over after skipping the last word!");
+        assertEquals("", state.getMaskedWord(), "Wrong masked word after skipping the last word!");
+        assertThrows(GameNotFoundException.class, () -> gameService.getGameState(id), "The game was not deleted!");
+    }
+}
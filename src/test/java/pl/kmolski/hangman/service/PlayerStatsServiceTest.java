@@ -0,0 +1,183 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.kmolski.hangman.model.PlayerStats;
+import pl.kmolski.hangman.repo.InMemoryPlayerStatsRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PlayerStatsService class.
+ *
+ * This class contains unit tests for counting the events of the players, flushing
+ * the counters to the repository and taking the snapshots of the leaderboard.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class PlayerStatsServiceTest {
+    private final InMemoryPlayerStatsRepository repository = new InMemoryPlayerStatsRepository();
+    private final PlayerStatsService service = GameServiceFixture.createPlayerStatsService(repository);
+
+    private static void assertStats(long wins, long losses, long correct, long wrong, PlayerStats stats) {
+        assertEquals(wins, stats.getWins(), "Wrong win count!");
+        assertEquals(losses, stats.getLosses(), "Wrong loss count!");
+        assertEquals(correct, stats.getCorrectGuesses(), "Wrong correct guess count!");
+        assertEquals(wrong, stats.getWrongGuesses(), "Wrong wrong guess count!");
+    }
+
+    /**
+     * Verify that the events are counted before they are flushed, and are written by a flush.
+     */
+    @Test
+    void testFlush() {
+        service.record("alice", PlayerStatType.WIN);
+        service.record("alice", PlayerStatType.CORRECT_GUESS);
+        service.record("alice", PlayerStatType.CORRECT_GUESS);
+        service.record("bob", PlayerStatType.WRONG_GUESS);
+        assertStats(1, 0, 2, 0, service.getStats("alice"));
+        assertTrue(repository.get("alice").isEmpty(), "The events were written before the flush!");
+
+        assertEquals(2, service.flush(), "Wrong number of written players!");
+        assertStats(1, 0, 2, 0, repository.get("alice").orElseThrow());
+        assertStats(0, 0, 0, 1, repository.get("bob").orElseThrow());
+        assertStats(1, 0, 2, 0, service.getStats("alice"));
+
+        service.record("alice", PlayerStatType.LOSS);
+        assertEquals(1, service.flush(), "Players without new events were written!");
+        assertStats(1, 1, 2, 0, repository.get("alice").orElseThrow());
+        assertEquals(0, service.flush(), "Players without new events were written!");
+    }
+
+    /**
+     * Verify that the counters of idle players are dropped, and that events counted
+     * after the counters were dropped are not lost.
+     */
+    @Test
+    void testIdleCounters() {
+        service.record("alice", PlayerStatType.WIN);
+        service.flush();
+        service.flush();
+        assertEquals(1, service.getPendingPlayers(), "The counters were dropped too early!");
+        service.flush();
+        assertEquals(0, service.getPendingPlayers(), "The counters of an idle player were not dropped!");
+
+        service.record("alice", PlayerStatType.WIN);
+        service.flush();
+        assertStats(2, 0, 0, 0, repository.get("alice").orElseThrow());
+    }
+
+    /**
+     * Verify that no events are lost when they are counted by many threads during the flushes.
+     * @param threadCount The number of threads that count events.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 8})
+    void testConcurrentRecording(int threadCount) throws Exception {
+        var players = List.of("alice", "bob", "carol", "dave", "eve");
+        var types = PlayerStatType.values();
+        var expected = new AtomicLongArray(players.size() * types.length);
+        var running = new AtomicBoolean(true);
+        var startGate = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(threadCount + 1);
+        try {
+            var flusher = executor.submit(() -> {
+                while (running.get()) { service.flush(); }
+            });
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threadCount; ++t) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    var random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; ++i) {
+                        int player = random.nextInt(players.size());
+                        var type = types[random.nextInt(types.length)];
+                        service.record(players.get(player), type);
+                        expected.incrementAndGet(player * types.length + type.ordinal());
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (var future : futures) { future.get(30, TimeUnit.SECONDS); }
+            running.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        service.flush();
+
+        for (int p = 0; p < players.size(); ++p) {
+            var stats = repository.get(players.get(p)).orElseThrow();
+            int base = p * types.length;
+            assertStats(expected.get(base + PlayerStatType.WIN.ordinal()),
+                        expected.get(base + PlayerStatType.LOSS.ordinal()),
+                        expected.get(base + PlayerStatType.CORRECT_GUESS.ordinal()),
+                        expected.get(base + PlayerStatType.WRONG_GUESS.ordinal()), stats);
+        }
+    }
+
+    /**
+     * Verify that the events of a batch that could not be written are written by the next flush.
+     */
+    @Test
+    void testFailedFlush() {
+        var failingRepository = new InMemoryPlayerStatsRepository() {
+            private boolean failed = false;
+
+            @Override
+            public synchronized void addAll(Collection<PlayerStats> changes) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("database is down");
+                }
+                super.addAll(changes);
+            }
+        };
+        var failingService = GameServiceFixture.createPlayerStatsService(failingRepository);
+
+        failingService.record("alice", PlayerStatType.WIN);
+        assertEquals(0, failingService.flush(), "The failed batch was counted as written!");
+        assertEquals(1, failingService.getFailedWrites(), "The failed write was not counted!");
+        assertEquals(1, failingService.flush(), "The failed batch was not written again!");
+        assertStats(1, 0, 0, 0, failingRepository.get("alice").orElseThrow());
+    }
+
+    /**
+     * Verify that the leaderboard is served from a snapshot, which is ordered by wins and then by losses.
+     */
+    @Test
+    void testLeaderboard() {
+        service.record("alice", PlayerStatType.WIN);
+        service.record("bob", PlayerStatType.WIN);
+        service.record("bob", PlayerStatType.WIN);
+        service.record("carol", PlayerStatType.WIN);
+        service.record("carol", PlayerStatType.LOSS);
+        assertTrue(service.getLeaderboard().getEntries().isEmpty(), "The leaderboard was not a snapshot!");
+
+        service.flush();
+        service.refreshLeaderboard();
+        var leaderboard = service.getLeaderboard();
+        var order = new ArrayList<String>();
+        leaderboard.getEntries().forEach(entry -> order.add(entry.getPlayerId()));
+        assertEquals(List.of("bob", "alice", "carol"), order, "Wrong leaderboard order!");
+
+        service.record("carol", PlayerStatType.WIN);
+        service.flush();
+        assertSame(leaderboard, service.getLeaderboard(), "The leaderboard changed without a refresh!");
+    }
+}
@@ -0,0 +1,86 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.kmolski.hangman.model.HangmanGameCodec;
+import pl.kmolski.hangman.model.WordPool;
+import pl.kmolski.hangman.repo.InMemoryWordPoolRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SystemDictionary class.
+ *
+ * This class contains unit tests for building and reusing the index of the system dictionary,
+ * and for creating games that use the system dictionary.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0.1
+ */
+public class SystemDictionaryTest {
+    /**
+     * The directory of the source and index files.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Verify that the words are normalized, and the index is reused until the source file changes.
+     */
+    @Test
+    void testLoad() throws IOException {
+        var source = Files.writeString(directory.resolve("dictionary.txt"), "Pałac\n  Wieża  Ciśnień \n\nzamek\n");
+        var index = directory.resolve("dictionary.idx");
+
+        var words = SystemDictionary.load(new FileSystemResource(source), index);
+        assertEquals(List.of("pałac", "wieża ciśnień", "zamek"), words, "Wrong indexed words!");
+        var modified = Files.getLastModifiedTime(index);
+
+        Files.setLastModifiedTime(index, FileTime.fromMillis(modified.toMillis() - 60_000));
+        var reused = SystemDictionary.load(new FileSystemResource(source), index);
+        assertEquals(words, reused, "Wrong words of the reused index!");
+        assertEquals(modified.toMillis() - 60_000, Files.getLastModifiedTime(index).toMillis(),
+                     "The index was rebuilt although the source file did not change!");
+
+        Files.writeString(source, "ogród\n");
+        var rebuilt = SystemDictionary.load(new FileSystemResource(source), index);
+        assertEquals(List.of("ogród"), rebuilt, "The index was not rebuilt after the source file changed!");
+    }
+
+    /**
+     * Verify that new games use the mapped pool of the system dictionary, and that the
+     * encoded games resolve it by its identifier.
+     */
+    @Test
+    void testNewGame() throws IOException {
+        Files.writeString(directory.resolve("dictionary.txt"), "pałac\npolowanie\nogród\n");
+        var wordPoolRepository = new InMemoryWordPoolRepository();
+        var systemDictionary = new SystemDictionary();
+        ReflectionTestUtils.setField(systemDictionary, "source", directory.resolve("dictionary.txt").toUri().toString());
+        ReflectionTestUtils.setField(systemDictionary, "indexFile", directory.resolve("dictionary.idx").toString());
+        ReflectionTestUtils.invokeMethod(systemDictionary, "setWordPoolRepository", wordPoolRepository);
+        systemDictionary.afterPropertiesSet();
+
+        var gameService = GameServiceFixture.gameService().wordPoolRepository(wordPoolRepository)
+                .systemDictionary(systemDictionary).build();
+
+        var game = gameService.createAndSaveGameModel();
+        assertEquals(3, game.getWordsRemaining(), "The game does not use the system dictionary!");
+        assertTrue(List.of("pałac", "polowanie", "ogród").contains(game.getCurrentWord()), "Wrong current word!");
+
+        var poolId = systemDictionary.getPool().getId();
+        assertEquals(WordPool.of(List.of("pałac", "polowanie", "ogród")).getId(), poolId, "Wrong pool ID!");
+        assertSame(systemDictionary.getPool(), wordPoolRepository.intern(WordPool.placeholderOf(systemDictionary.getPool())),
+                   "The mapped pool is not canonical!");
+        var decoded = HangmanGameCodec.decode(HangmanGameCodec.encode(game), wordPoolRepository::get);
+        assertEquals(game.getWordsRemaining(), decoded.getWordsRemaining(), "The mapped pool was not resolved!");
+    }
+}
@@ -0,0 +1,95 @@
+package pl.kmolski.hangman.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WordStreamReader class.
+ *
+ * This class contains unit tests for reading word files: normalizing words,
+ * skipping invalid lines and splitting the words into batches.
+ *
+ * @author Krzysztof Molski
+ * @version 1.0
+ */
+public class WordStreamReaderTest {
+
+    private static List<List<String>> readBatches(String contents, int batchSize, WordIngestionStats stats) {
+        var batches = new ArrayList<List<String>>();
+        var bytes = contents.getBytes(StandardCharsets.UTF_8);
+        assertDoesNotThrow(() -> new WordStreamReader(batchSize).read(new ByteArrayInputStream(bytes),
+                batch -> batches.add(new ArrayList<>(batch)), stats), "An exception has occurred:");
+        return batches;
+    }
+
+    /**
+     * Verify that words are normalized in the same way as `HangmanGame.normalizeWords()`.
+     * @param line A line of the word file.
+     * @param expected The normalized word.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "'Koło', 'koło'",
+            "'  DRZWI\t', 'drzwi'",
+            "'czerwony   \t kapturek', 'czerwony kapturek'",
+            "'ŁÓDŹ', 'łódź'"
+    })
+    void testNormalization(String line, String expected) {
+        var stats = new WordIngestionStats();
+        var batches = readBatches(line + "\n", 10, stats);
+
+        assertEquals(List.of(List.of(expected)), batches, "The word was not normalized correctly!");
+        assertEquals(line.getBytes(StandardCharsets.UTF_8).length + 1, stats.getBytesRead(), "Wrong byte count!");
+    }
+
+    /**
+     * Verify that all line separators are supported, and blank lines are skipped.
+     * @param contents The contents of the word file.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "koło\ndrzwi\npole",
+            "koło\r\ndrzwi\r\npole\r\n",
+            "koło\rdrzwi\r\rpole\r",
+            "\n  \nkoło\n\t\ndrzwi\n\npole\n\n"
+    })
+    void testLineSeparators(String contents) {
+        var stats = new WordIngestionStats();
+        var batches = readBatches(contents, 10, stats);
+
+        assertEquals(List.of(List.of("koło", "drzwi", "pole")), batches, "The words were not read correctly!");
+        assertEquals(3, stats.getWordsAccepted(), "Wrong accepted word count!");
+        assertEquals(stats.getLinesRead() - 3, stats.getLinesRejected(), "Wrong rejected line count!");
+    }
+
+    /**
+     * Verify that words are split into batches of the requested size, and too long lines are rejected.
+     * @param batchSize The number of words in a full batch.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, 100})
+    void testBatching(int batchSize) {
+        var contents = new StringBuilder();
+        for (int i = 0; i < 20; ++i) {
+            contents.append("word").append(i).append('\n');
+        }
+        contents.append("x".repeat(WordStreamReader.MAX_WORD_LENGTH + 1)).append('\n');
+
+        var stats = new WordIngestionStats();
+        var batches = readBatches(contents.toString(), batchSize, stats);
+
+        assertEquals((20 + batchSize - 1) / batchSize, batches.size(), "Wrong batch count!");
+        assertEquals(batches.size(), stats.getBatchesWritten(), "Wrong written batch count!");
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= batchSize), "A batch is too large!");
+        assertEquals(20, stats.getWordsAccepted(), "Wrong accepted word count!");
+        assertEquals(1, stats.getLinesRejected(), "The line that is too long was not rejected!");
+    }
+}